@@ -0,0 +1,100 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.AsyncChain.AsyncFunctionChain;
+import uk.org.thehickses.functional.Chain.FunctionChain;
+
+/**
+ * Puts a batch of chains in flight at once, each with a short CPU stage followed by a 1ms blocking call, and waits for
+ * them all. The blocking stage runs either on virtual threads or on a fixed pool of platform threads; the third case
+ * runs the whole synchronous chain on that pool, as callers had to before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncBenchmark
+{
+    @Param({ "1000" })
+    int inFlight;
+
+    @Param({ "64" })
+    int platformThreads;
+
+    ExecutorService platform;
+    FunctionChain<Integer, Integer> chain;
+    AsyncFunctionChain<Integer, Integer> virtualChain;
+    AsyncFunctionChain<Integer, Integer> platformChain;
+
+    @Setup
+    public void setUp()
+    {
+        platform = Executors.newFixedThreadPool(platformThreads);
+        Function<Integer, Integer> compute = i -> i * 31 + 7;
+        Function<Integer, Integer> blocking = i ->
+            {
+                LockSupport.parkNanos(1_000_000);
+                return i;
+            };
+        chain = Chain.of(compute)
+                .and(blocking);
+        virtualChain = AsyncChain.of(compute)
+                .andBlocking(blocking);
+        platformChain = AsyncChain.of(compute)
+                .and(blocking, platform);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        platform.shutdown();
+    }
+
+    @Benchmark
+    public Object virtualThreads()
+    {
+        return run(virtualChain);
+    }
+
+    @Benchmark
+    public Object platformPool()
+    {
+        return run(platformChain);
+    }
+
+    @Benchmark
+    public Object synchronousOnPlatformPool()
+    {
+        return run(AsyncChain.of(chain, platform));
+    }
+
+    private Object run(AsyncFunctionChain<Integer, Integer> async)
+    {
+        CompletableFuture<?>[] results = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++)
+            results[i] = async.apply(i);
+        return CompletableFuture.allOf(results)
+                .join();
+    }
+}
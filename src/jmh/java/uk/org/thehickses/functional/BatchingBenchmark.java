@@ -0,0 +1,73 @@
+package uk.org.thehickses.functional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calls a batching stage from 16 threads against a simulated backend that serves two requests at a time, each costing
+ * 200us plus 2us per item.
+ * Throughput mode shows the calls per second the backend can sustain; sample mode shows the latency each call pays,
+ * including the time spent waiting for a batch to fill. A batch size of 1 is the per-call baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class BatchingBenchmark
+{
+    @Param({ "1", "8", "32" })
+    int maxBatchSize;
+
+    @Param({ "50", "500" })
+    long maxDelayMicros;
+
+    Function<Integer, Integer> batching;
+
+    @Setup
+    public void setUp()
+    {
+        Semaphore connections = new Semaphore(2);
+        Function<List<Integer>, List<Integer>> backend = args ->
+            {
+                connections.acquireUninterruptibly();
+                try
+                {
+                    LockSupport.parkNanos(200_000 + 2_000 * args.size());
+                    return args;
+                }
+                finally
+                {
+                    connections.release();
+                }
+            };
+        batching = Chain.batching(backend, maxBatchSize, Duration.ofNanos(maxDelayMicros * 1000));
+    }
+
+    @Benchmark
+    public Integer call()
+    {
+        return batching.apply(ThreadLocalRandom.current()
+                .nextInt());
+    }
+}
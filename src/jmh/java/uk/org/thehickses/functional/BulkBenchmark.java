@@ -0,0 +1,133 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+/**
+ * Applies chains over a whole array, element by element and through applyAll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBenchmark
+{
+    @Param({ "65536" })
+    int size;
+
+    @Param({ "4", "16" })
+    int depth;
+
+    int[] intSrc;
+    int[] intDst;
+    Integer[] boxedSrc;
+    Integer[] boxedDst;
+
+    IntUnaryOperatorChain nestedInt;
+    IntUnaryOperatorChain flatInt;
+    ToIntFunctionChain<Integer> toInt;
+    FunctionChain<Integer, Integer> nestedFunction;
+    FunctionChain<Integer, Integer> flatFunction;
+
+    @Setup
+    public void setUp()
+    {
+        intSrc = new int[size];
+        intDst = new int[size];
+        boxedSrc = new Integer[size];
+        boxedDst = new Integer[size];
+        for (int i = 0; i < size; i++)
+        {
+            intSrc[i] = i & 63;
+            boxedSrc[i] = i & 63;
+        }
+        IntUnaryOperator[] primitives = Stages.primitives(depth);
+        Function<Integer, Integer>[] functions = Stages.functions(depth);
+        ToIntFunction<Integer> unbox = Integer::intValue;
+        nestedInt = Chain.of(primitives[0]);
+        flatInt = Chain.flat(primitives[0]);
+        toInt = Chain.of(unbox);
+        nestedFunction = Chain.of(functions[0]);
+        flatFunction = Chain.flat(functions[0]);
+        for (int i = 1; i < depth; i++)
+        {
+            nestedInt = nestedInt.and(primitives[i]);
+            flatInt = flatInt.and(primitives[i]);
+            toInt = toInt.and(primitives[i]);
+            nestedFunction = nestedFunction.and(functions[i]);
+            flatFunction = flatFunction.and(functions[i]);
+        }
+    }
+
+    @Benchmark
+    public int[] intPerElement()
+    {
+        for (int i = 0; i < size; i++)
+            intDst[i] = nestedInt.applyAsInt(intSrc[i]);
+        return intDst;
+    }
+
+    @Benchmark
+    public int[] intApplyAllNested()
+    {
+        nestedInt.applyAll(intSrc, intDst);
+        return intDst;
+    }
+
+    @Benchmark
+    public int[] intApplyAllFlat()
+    {
+        flatInt.applyAll(intSrc, intDst);
+        return intDst;
+    }
+
+    @Benchmark
+    public int[] toIntPerElement()
+    {
+        for (int i = 0; i < size; i++)
+            intDst[i] = toInt.applyAsInt(boxedSrc[i]);
+        return intDst;
+    }
+
+    @Benchmark
+    public int[] toIntApplyAll()
+    {
+        toInt.applyAll(boxedSrc, intDst);
+        return intDst;
+    }
+
+    @Benchmark
+    public Integer[] functionPerElement()
+    {
+        for (int i = 0; i < size; i++)
+            boxedDst[i] = nestedFunction.apply(boxedSrc[i]);
+        return boxedDst;
+    }
+
+    @Benchmark
+    public Integer[] functionApplyAllFlat()
+    {
+        flatFunction.applyAll(boxedSrc, boxedDst);
+        return boxedDst;
+    }
+}
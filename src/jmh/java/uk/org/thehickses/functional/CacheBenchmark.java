@@ -0,0 +1,102 @@
+package uk.org.thehickses.functional;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lookups with a skewed key distribution (most calls hit a small set of hot keys) through an expensive stage, with
+ * and without a result cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark
+{
+    private static final int KEYS = 4096;
+
+    @Param({ "256", "4096" })
+    int maximumSize;
+
+    int[] intKeys;
+    Integer[] keys;
+    Function<Integer, String> uncached;
+    Function<Integer, String> cached;
+    IntFunction<String> uncachedInt;
+    IntFunction<String> cachedInt;
+
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        int next;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        intKeys = new int[KEYS];
+        keys = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++)
+        {
+            double r = random.nextDouble();
+            intKeys[i] = (int) (100_000 * r * r * r * r);
+            keys[i] = intKeys[i];
+        }
+        uncached = CacheBenchmark::expensive;
+        cached = Chain.of(uncached)
+                .cached(maximumSize);
+        uncachedInt = CacheBenchmark::expensive;
+        cachedInt = Chain.of(uncachedInt)
+                .cached(maximumSize);
+    }
+
+    private static String expensive(int key)
+    {
+        Blackhole.consumeCPU(200);
+        return Integer.toHexString(key);
+    }
+
+    @Benchmark
+    public String uncached(Cursor cursor)
+    {
+        return uncached.apply(keys[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public String cached(Cursor cursor)
+    {
+        return cached.apply(keys[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public String uncachedInt(Cursor cursor)
+    {
+        return uncachedInt.apply(intKeys[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public String cachedInt(Cursor cursor)
+    {
+        return cachedInt.apply(intKeys[cursor.next++ & (KEYS - 1)]);
+    }
+}
@@ -0,0 +1,134 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainBenchmark
+{
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    int depth;
+
+    Integer boxedArg = 17;
+    int intArg = 17;
+
+    Supplier<Integer> head;
+    Function<Integer, Integer>[] functions;
+    IntUnaryOperator[] primitives;
+    ToIntFunction<Integer> unbox;
+
+    SupplierChain<Integer> supplierChain;
+    FunctionChain<Integer, Integer> functionChain;
+    IntUnaryOperatorChain intUnaryOperatorChain;
+    ToIntFunctionChain<Integer> toIntFunctionChain;
+
+    @Setup
+    public void setUp()
+    {
+        head = () -> boxedArg;
+        functions = Stages.functions(depth);
+        primitives = Stages.primitives(depth);
+        unbox = Integer::intValue;
+        SupplierChain<Integer> sc = Chain.of(head);
+        for (int i = 1; i < depth; i++)
+            sc = sc.and(functions[i]);
+        supplierChain = sc;
+        FunctionChain<Integer, Integer> fc = Chain.of(functions[0]);
+        for (int i = 1; i < depth; i++)
+            fc = fc.and(functions[i]);
+        functionChain = fc;
+        IntUnaryOperatorChain ic = Chain.of(primitives[0]);
+        for (int i = 1; i < depth; i++)
+            ic = ic.and(primitives[i]);
+        intUnaryOperatorChain = ic;
+        ToIntFunctionChain<Integer> tc = Chain.of(unbox);
+        for (int i = 1; i < depth; i++)
+            tc = tc.and(primitives[i]);
+        toIntFunctionChain = tc;
+    }
+
+    @Benchmark
+    public Integer supplierChain()
+    {
+        return supplierChain.get();
+    }
+
+    @Benchmark
+    public Integer supplierHandWritten()
+    {
+        Integer answer = head.get();
+        for (int i = 1; i < depth; i++)
+            answer = functions[i].apply(answer);
+        return answer;
+    }
+
+    @Benchmark
+    public Integer functionChain()
+    {
+        return functionChain.apply(boxedArg);
+    }
+
+    @Benchmark
+    public Integer functionHandWritten()
+    {
+        Integer answer = boxedArg;
+        for (int i = 0; i < depth; i++)
+            answer = functions[i].apply(answer);
+        return answer;
+    }
+
+    @Benchmark
+    public int intUnaryOperatorChain()
+    {
+        return intUnaryOperatorChain.applyAsInt(intArg);
+    }
+
+    @Benchmark
+    public int intUnaryOperatorHandWritten()
+    {
+        int answer = intArg;
+        for (int i = 0; i < depth; i++)
+            answer = primitives[i].applyAsInt(answer);
+        return answer;
+    }
+
+    @Benchmark
+    public int toIntFunctionChain()
+    {
+        return toIntFunctionChain.applyAsInt(boxedArg);
+    }
+
+    @Benchmark
+    public int toIntFunctionHandWritten()
+    {
+        int answer = unbox.applyAsInt(boxedArg);
+        for (int i = 1; i < depth; i++)
+            answer = primitives[i].applyAsInt(answer);
+        return answer;
+    }
+}
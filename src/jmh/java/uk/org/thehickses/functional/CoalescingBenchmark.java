@@ -0,0 +1,99 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Has several threads ask for an expensive rebuild over and over, running it directly and through coalescing and
+ * single-flight chains. The rebuild blocks, as a reload from a database or remote service would. The score is the
+ * rate of requests, and the {@code executions} counter shows how many of them actually did the work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class CoalescingBenchmark
+{
+    private static final ThreadLocal<Executions> EXECUTIONS = new ThreadLocal<>();
+
+    @Param({ "100" })
+    long rebuildMicros;
+
+    Runnable rebuild;
+    Runnable coalescing;
+    Supplier<Long> compute;
+    Supplier<Long> singleFlight;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Executions
+    {
+        public long executions;
+
+        @Setup
+        public void setUp()
+        {
+            EXECUTIONS.set(this);
+        }
+    }
+
+    @Setup
+    public void setUp()
+    {
+        rebuild = () ->
+            {
+                EXECUTIONS.get().executions++;
+                LockSupport.parkNanos(rebuildMicros * 1000);
+            };
+        coalescing = Chain.coalescing(rebuild);
+        compute = () ->
+            {
+                rebuild.run();
+                return System.nanoTime();
+            };
+        singleFlight = Chain.of(compute)
+                .singleFlight();
+    }
+
+    @Benchmark
+    public void directRun(Executions executions)
+    {
+        rebuild.run();
+    }
+
+    @Benchmark
+    public void coalescingRun(Executions executions)
+    {
+        coalescing.run();
+    }
+
+    @Benchmark
+    public Long directGet(Executions executions)
+    {
+        return compute.get();
+    }
+
+    @Benchmark
+    public Long singleFlightGet(Executions executions)
+    {
+        return singleFlight.get();
+    }
+}
@@ -0,0 +1,125 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+
+/**
+ * Keeps 64 distinct four-stage chains live, built from eight different stages, as a service with many configured
+ * chains would. Every chain is called many times during setup, so the profiles of the call sites that the chains
+ * share are polluted before anything is measured. The {@code All} benchmarks call every chain in turn; the
+ * {@code One} benchmarks call a single chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompileBenchmark
+{
+    private static final int CHAINS = 64;
+    private static final int DEPTH = 4;
+
+    @SuppressWarnings("unchecked")
+    private static final Function<Integer, Integer>[] STAGES = new Function[] {
+            (Function<Integer, Integer>) x -> (x + 1) & 63, (Function<Integer, Integer>) x -> (x * 3) & 63,
+            (Function<Integer, Integer>) x -> (x ^ 5) & 63, (Function<Integer, Integer>) x -> (x >> 1) + 7,
+            (Function<Integer, Integer>) x -> (x + 11) & 63, (Function<Integer, Integer>) x -> (x * 5) & 63,
+            (Function<Integer, Integer>) x -> (x ^ 42) & 63, (Function<Integer, Integer>) x -> (x >> 2) + 3 };
+
+    Integer arg = 17;
+
+    @SuppressWarnings("unchecked")
+    Function<Integer, Integer>[] composed = new Function[CHAINS];
+    @SuppressWarnings("unchecked")
+    Function<Integer, Integer>[] flat = new Function[CHAINS];
+    @SuppressWarnings("unchecked")
+    Function<Integer, Integer>[] compiled = new Function[CHAINS];
+
+    @Setup
+    public void setUp()
+    {
+        for (int c = 0; c < CHAINS; c++)
+        {
+            FunctionChain<Integer, Integer> composedChain = Chain.of(STAGES[c % STAGES.length]);
+            FunctionChain<Integer, Integer> flatChain = Chain.flat(STAGES[c % STAGES.length]);
+            for (int s = 1; s < DEPTH; s++)
+            {
+                Function<Integer, Integer> stage = STAGES[(c / (s * 2) + s) % STAGES.length];
+                composedChain = composedChain.and(stage);
+                flatChain = flatChain.and(stage);
+            }
+            composed[c] = composedChain;
+            flat[c] = flatChain;
+            compiled[c] = flatChain.compile();
+        }
+        for (int i = 0; i < 20_000; i++)
+            for (int c = 0; c < CHAINS; c++)
+            {
+                composed[c].apply(i & 63);
+                flat[c].apply(i & 63);
+                compiled[c].apply(i & 63);
+            }
+    }
+
+    private static int all(Function<Integer, Integer>[] chains, Integer arg)
+    {
+        int total = 0;
+        for (Function<Integer, Integer> chain : chains)
+            total += chain.apply(arg);
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHAINS)
+    public int composedAll()
+    {
+        return all(composed, arg);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHAINS)
+    public int flatAll()
+    {
+        return all(flat, arg);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHAINS)
+    public int compiledAll()
+    {
+        return all(compiled, arg);
+    }
+
+    @Benchmark
+    public Integer composedOne()
+    {
+        return composed[0].apply(arg);
+    }
+
+    @Benchmark
+    public Integer flatOne()
+    {
+        return flat[0].apply(arg);
+    }
+
+    @Benchmark
+    public Integer compiledOne()
+    {
+        return compiled[0].apply(arg);
+    }
+}
@@ -0,0 +1,219 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurryBenchmark
+{
+    Integer boxed1 = 17;
+    Integer boxed2 = 42;
+    int int1 = 17;
+    int int2 = 42;
+
+    Function<Integer, Integer> function = x -> (x + 1) & 63;
+    BiFunction<Integer, Integer, Integer> biFunction = (x, y) -> (x ^ y) & 63;
+    UnaryOperator<Integer> unaryOperator = x -> (x * 3) & 63;
+    BinaryOperator<Integer> binaryOperator = (x, y) -> (x + y) & 63;
+    ToIntFunction<Integer> toIntFunction = x -> x + 1;
+    ToIntBiFunction<Integer, Integer> toIntBiFunction = (x, y) -> x ^ y;
+    IntFunction<Integer> intFunction = x -> (x + 1) & 63;
+    IntUnaryOperator intUnaryOperator = x -> x * 3;
+    IntBinaryOperator intBinaryOperator = (x, y) -> x + y;
+
+    @Benchmark
+    public Integer curryFunction()
+    {
+        return Curry.of(function, boxed1)
+                .get();
+    }
+
+    @Benchmark
+    public Integer directFunction()
+    {
+        return function.apply(boxed1);
+    }
+
+    @Benchmark
+    public Integer curryBiFunctionFirst()
+    {
+        return Curry.ofFirst(biFunction, boxed1)
+                .apply(boxed2);
+    }
+
+    @Benchmark
+    public Integer curryBiFunctionSecond()
+    {
+        return Curry.ofSecond(biFunction, boxed2)
+                .apply(boxed1);
+    }
+
+    @Benchmark
+    public Integer curryBiFunctionBoth()
+    {
+        return Curry.ofBoth(biFunction, boxed1, boxed2)
+                .get();
+    }
+
+    @Benchmark
+    public Integer directBiFunction()
+    {
+        return biFunction.apply(boxed1, boxed2);
+    }
+
+    @Benchmark
+    public Integer curryUnaryOperator()
+    {
+        return Curry.of(unaryOperator, boxed1)
+                .get();
+    }
+
+    @Benchmark
+    public Integer directUnaryOperator()
+    {
+        return unaryOperator.apply(boxed1);
+    }
+
+    @Benchmark
+    public Integer curryBinaryOperatorFirst()
+    {
+        return Curry.ofFirst(binaryOperator, boxed1)
+                .apply(boxed2);
+    }
+
+    @Benchmark
+    public Integer curryBinaryOperatorSecond()
+    {
+        return Curry.ofSecond(binaryOperator, boxed2)
+                .apply(boxed1);
+    }
+
+    @Benchmark
+    public Integer curryBinaryOperatorBoth()
+    {
+        return Curry.ofBoth(binaryOperator, boxed1, boxed2)
+                .get();
+    }
+
+    @Benchmark
+    public Integer directBinaryOperator()
+    {
+        return binaryOperator.apply(boxed1, boxed2);
+    }
+
+    @Benchmark
+    public int curryToIntFunction()
+    {
+        return Curry.of(toIntFunction, boxed1)
+                .getAsInt();
+    }
+
+    @Benchmark
+    public int directToIntFunction()
+    {
+        return toIntFunction.applyAsInt(boxed1);
+    }
+
+    @Benchmark
+    public int curryToIntBiFunctionFirst()
+    {
+        return Curry.ofFirst(toIntBiFunction, boxed1)
+                .applyAsInt(boxed2);
+    }
+
+    @Benchmark
+    public int curryToIntBiFunctionSecond()
+    {
+        return Curry.ofSecond(toIntBiFunction, boxed2)
+                .applyAsInt(boxed1);
+    }
+
+    @Benchmark
+    public int curryToIntBiFunctionBoth()
+    {
+        return Curry.ofBoth(toIntBiFunction, boxed1, boxed2)
+                .getAsInt();
+    }
+
+    @Benchmark
+    public int directToIntBiFunction()
+    {
+        return toIntBiFunction.applyAsInt(boxed1, boxed2);
+    }
+
+    @Benchmark
+    public Integer curryIntFunction()
+    {
+        return Curry.of(intFunction, int1)
+                .get();
+    }
+
+    @Benchmark
+    public Integer directIntFunction()
+    {
+        return intFunction.apply(int1);
+    }
+
+    @Benchmark
+    public int curryIntUnaryOperator()
+    {
+        return Curry.of(intUnaryOperator, int1)
+                .getAsInt();
+    }
+
+    @Benchmark
+    public int directIntUnaryOperator()
+    {
+        return intUnaryOperator.applyAsInt(int1);
+    }
+
+    @Benchmark
+    public int curryIntBinaryOperatorFirst()
+    {
+        return Curry.ofFirst(intBinaryOperator, int1)
+                .applyAsInt(int2);
+    }
+
+    @Benchmark
+    public int curryIntBinaryOperatorSecond()
+    {
+        return Curry.ofSecond(intBinaryOperator, int2)
+                .applyAsInt(int1);
+    }
+
+    @Benchmark
+    public int curryIntBinaryOperatorBoth()
+    {
+        return Curry.ofBoth(intBinaryOperator, int1, int2)
+                .getAsInt();
+    }
+
+    @Benchmark
+    public int directIntBinaryOperator()
+    {
+        return intBinaryOperator.applyAsInt(int1, int2);
+    }
+}
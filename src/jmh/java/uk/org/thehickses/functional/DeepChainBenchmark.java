@@ -0,0 +1,82 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+
+/**
+ * Average time per call of nested and flat chains; dividing the score by the depth gives the cost per stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss8m")
+public class DeepChainBenchmark
+{
+    @Param({ "1", "8", "32", "64", "256", "1024", "4096" })
+    int depth;
+
+    Integer arg = 17;
+
+    FunctionChain<Integer, Integer> nestedFunction;
+    FunctionChain<Integer, Integer> flatFunction;
+    SupplierChain<Integer> nestedSupplier;
+    SupplierChain<Integer> flatSupplier;
+
+    @Setup
+    public void setUp()
+    {
+        Function<Integer, Integer>[] functions = Stages.functions(depth);
+        nestedFunction = Chain.of(functions[0]);
+        flatFunction = Chain.flat(functions[0]);
+        nestedSupplier = Chain.of(() -> arg);
+        flatSupplier = Chain.flat(() -> arg);
+        for (int i = 1; i < depth; i++)
+        {
+            nestedFunction = nestedFunction.and(functions[i]);
+            flatFunction = flatFunction.and(functions[i]);
+            nestedSupplier = nestedSupplier.and(functions[i]);
+            flatSupplier = flatSupplier.and(functions[i]);
+        }
+    }
+
+    @Benchmark
+    public Integer nestedFunction()
+    {
+        return nestedFunction.apply(arg);
+    }
+
+    @Benchmark
+    public Integer flatFunction()
+    {
+        return flatFunction.apply(arg);
+    }
+
+    @Benchmark
+    public Integer nestedSupplier()
+    {
+        return nestedSupplier.get();
+    }
+
+    @Benchmark
+    public Integer flatSupplier()
+    {
+        return flatSupplier.get();
+    }
+}
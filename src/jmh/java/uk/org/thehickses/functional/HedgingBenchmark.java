@@ -0,0 +1,82 @@
+package uk.org.thehickses.functional;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calls a stage that usually takes 100us but takes 20ms one time in fifty, directly, hedged after 500us, and with a
+ * 1ms deadline. Compare the p99 and p99.9 latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class HedgingBenchmark
+{
+    ExecutorService executor;
+    Function<Integer, Integer> plain;
+    Function<Integer, Integer> hedged;
+    Function<Integer, Integer> deadline;
+
+    @Setup
+    public void setUp()
+    {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        Function<Integer, Integer> backend = i ->
+            {
+                LockSupport.parkNanos(ThreadLocalRandom.current()
+                        .nextInt(50) == 0 ? 20_000_000 : 100_000);
+                return i;
+            };
+        plain = Chain.of(backend);
+        hedged = Chain.of(backend)
+                .hedged(Duration.ofNanos(500_000), executor);
+        deadline = Chain.of(backend)
+                .withDeadline(Duration.ofMillis(1), -1, executor);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer plain()
+    {
+        return plain.apply(1);
+    }
+
+    @Benchmark
+    public Integer hedged()
+    {
+        return hedged.apply(1);
+    }
+
+    @Benchmark
+    public Integer deadline()
+    {
+        return deadline.apply(1);
+    }
+}
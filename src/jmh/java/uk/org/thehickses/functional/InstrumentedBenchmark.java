@@ -0,0 +1,100 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+/**
+ * Compares a four-stage chain with the same chain with every stage instrumented, timing one call in 64 (the default)
+ * and every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentedBenchmark
+{
+    IntUnaryOperatorChain plainInt;
+    IntUnaryOperatorChain sampledInt;
+    IntUnaryOperatorChain timedInt;
+    FunctionChain<Integer, Integer> plainFunction;
+    FunctionChain<Integer, Integer> sampledFunction;
+    int arg;
+    Integer boxedArg;
+
+    @Setup
+    public void setUp()
+    {
+        IntUnaryOperator[] primitives = Stages.primitives(4);
+        Function<Integer, Integer>[] functions = Stages.functions(4);
+        ChainMetrics sampled = new ChainMetrics();
+        ChainMetrics timed = new ChainMetrics(1);
+        plainInt = Chain.of(primitives[0]);
+        sampledInt = Chain.of(primitives[0])
+                .instrumented("stage0", sampled);
+        timedInt = Chain.of(primitives[0])
+                .instrumented("stage0", timed);
+        plainFunction = Chain.of(functions[0]);
+        sampledFunction = Chain.of(functions[0])
+                .instrumented("function0", sampled);
+        for (int i = 1; i < 4; i++)
+        {
+            plainInt = plainInt.and(primitives[i]);
+            sampledInt = sampledInt.and(Chain.of(primitives[i])
+                    .instrumented("stage" + i, sampled));
+            timedInt = timedInt.and(Chain.of(primitives[i])
+                    .instrumented("stage" + i, timed));
+            plainFunction = plainFunction.and(functions[i]);
+            sampledFunction = sampledFunction.and(Chain.of(functions[i])
+                    .instrumented("function" + i, sampled));
+        }
+        arg = 17;
+        boxedArg = 17;
+    }
+
+    @Benchmark
+    public int intPlain()
+    {
+        return plainInt.applyAsInt(arg);
+    }
+
+    @Benchmark
+    public int intSampled()
+    {
+        return sampledInt.applyAsInt(arg);
+    }
+
+    @Benchmark
+    public int intTimedEveryCall()
+    {
+        return timedInt.applyAsInt(arg);
+    }
+
+    @Benchmark
+    public Integer functionPlain()
+    {
+        return plainFunction.apply(boxedArg);
+    }
+
+    @Benchmark
+    public Integer functionSampled()
+    {
+        return sampledFunction.apply(boxedArg);
+    }
+}
@@ -0,0 +1,124 @@
+package uk.org.thehickses.functional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses the latency out of each line of a generated log file, once through {@code BufferedReader.lines()} and once
+ * through a line processor. The {@code bytes} counter gives the throughput in bytes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineBenchmark
+{
+    @Param({ "64" })
+    int megabytes;
+
+    Path file;
+    long size;
+    ForkJoinPool pool;
+    Function<String, Integer> latency;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters
+    {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        file = Files.createTempFile("lines", ".log");
+        try (Writer out = Files.newBufferedWriter(file))
+        {
+            for (int i = 0; Files.size(file) < megabytes << 20;)
+            {
+                for (int j = 0; j < 10_000; j++, i++)
+                    out.write("2024-03-01T12:%02d:%02d.%03d INFO [worker-%d] GET /api/items/%d took %dms\n"
+                            .formatted(i / 60 % 60, i % 60, i % 1000, i % 16, i, i % 250));
+                out.flush();
+            }
+        }
+        size = Files.size(file);
+        pool = new ForkJoinPool();
+        Function<String, String> lastField = line -> line.substring(line.lastIndexOf(' ') + 1, line.length() - 2);
+        Function<String, Integer> parse = Integer::valueOf;
+        latency = Chain.of(lastField)
+                .and(parse);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        pool.shutdown();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public void bufferedReader(Blackhole bh, Counters counters) throws IOException
+    {
+        Consumer<Integer> sink = bh::consume;
+        try (BufferedReader in = Files.newBufferedReader(file))
+        {
+            in.lines()
+                    .forEach(line -> sink.accept(latency.apply(line)));
+        }
+        counters.bytes += size;
+    }
+
+    @Benchmark
+    public void lineProcessor(Blackhole bh, Counters counters) throws IOException
+    {
+        Consumer<Integer> sink = bh::consume;
+        LineProcessor.of(file)
+                .run(latency, sink);
+        counters.bytes += size;
+    }
+
+    @Benchmark
+    public void lineProcessorOrdered(Blackhole bh, Counters counters) throws IOException
+    {
+        Consumer<Integer> sink = bh::consume;
+        LineProcessor.of(file)
+                .parallel(pool, true)
+                .run(latency, sink);
+        counters.bytes += size;
+    }
+
+    @Benchmark
+    public void lineProcessorUnordered(Blackhole bh, Counters counters) throws IOException
+    {
+        Consumer<Integer> sink = bh::consume;
+        LineProcessor.of(file)
+                .parallel(pool, false)
+                .run(latency, sink);
+        counters.bytes += size;
+    }
+}
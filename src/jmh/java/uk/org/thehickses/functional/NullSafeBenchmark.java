@@ -0,0 +1,93 @@
+package uk.org.thehickses.functional;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.NullSafeFunctionChain;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NullSafeBenchmark
+{
+    private static final int INPUTS = 1024;
+
+    @Param({ "1", "4", "16", "64" })
+    int depth;
+
+    @Param({ "0", "50" })
+    int nullPercentage;
+
+    Integer[] inputs;
+    Function<Integer, Integer>[] functions;
+    Function<Integer, Integer> withDefault;
+    Function<Integer, Integer> nullSafe;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        inputs = new Integer[INPUTS];
+        for (int i = 0; i < INPUTS; i++)
+            inputs[i] = random.nextInt(100) < nullPercentage ? null : random.nextInt(64);
+        functions = Stages.functions(depth);
+        FunctionChain<Integer, Integer> fc = Chain.of(functions[0]);
+        NullSafeFunctionChain<Integer, Integer> nsc = Chain.of(functions[0])
+                .nullSafe();
+        for (int i = 1; i < depth; i++)
+        {
+            fc = fc.and(functions[i]);
+            nsc = nsc.and(functions[i]);
+        }
+        withDefault = fc.withDefault(0);
+        nullSafe = nsc.withDefault(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void withDefault(Blackhole bh)
+    {
+        for (Integer input : inputs)
+            bh.consume(withDefault.apply(input));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void nullSafe(Blackhole bh)
+    {
+        for (Integer input : inputs)
+            bh.consume(nullSafe.apply(input));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void handWritten(Blackhole bh)
+    {
+        for (Integer input : inputs)
+        {
+            Integer answer = input;
+            for (int i = 0; answer != null && i < depth; i++)
+                answer = functions[i].apply(answer);
+            bh.consume(answer == null ? 0 : answer);
+        }
+    }
+}
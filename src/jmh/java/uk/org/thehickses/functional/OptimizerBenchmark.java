@@ -0,0 +1,89 @@
+package uk.org.thehickses.functional;
+
+import static uk.org.thehickses.functional.IntOps.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+/**
+ * Runs a 16-stage chain of the kind generic configuration produces, mostly identities and small adjustments with one
+ * opaque stage in the middle, before and after optimisation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptimizerBenchmark
+{
+    IntUnaryOperatorChain chain;
+    IntUnaryOperatorChain optimized;
+    int[] src = new int[4096];
+    int[] dst = new int[4096];
+    int arg = 17;
+
+    @Setup
+    public void setUp()
+    {
+        IntUnaryOperator opaque = x -> x ^ (x >>> 3);
+        chain = Chain.flat(identity())
+                .and(add(1))
+                .and(identity())
+                .and(multiply(3))
+                .and(add(-1))
+                .and(identity())
+                .and(multiply(1))
+                .and(add(7))
+                .and(opaque)
+                .and(identity())
+                .and(multiply(5))
+                .and(add(2))
+                .and(identity())
+                .and(add(-2))
+                .and(multiply(2))
+                .and(identity());
+        optimized = chain.optimized();
+        for (int i = 0; i < src.length; i++)
+            src[i] = i;
+    }
+
+    @Benchmark
+    public int unoptimizedCall()
+    {
+        return chain.applyAsInt(arg);
+    }
+
+    @Benchmark
+    public int optimizedCall()
+    {
+        return optimized.applyAsInt(arg);
+    }
+
+    @Benchmark
+    public int[] unoptimizedApplyAll()
+    {
+        chain.applyAll(src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] optimizedApplyAll()
+    {
+        optimized.applyAll(src, dst);
+        return dst;
+    }
+}
@@ -0,0 +1,108 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+/**
+ * Measures how parallelApplyAll scales with the parallelism of the pool it runs on. A parallelism of 1 gives the
+ * fork/join overhead against the sequential applyAll baselines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelBenchmark
+{
+    @Param({ "1048576" })
+    int size;
+
+    @Param({ "1", "2", "4", "8" })
+    int parallelism;
+
+    int[] intSrc;
+    int[] intDst;
+    Integer[] boxedSrc;
+    Integer[] boxedDst;
+
+    IntUnaryOperatorChain flatInt;
+    FunctionChain<Integer, Integer> flatFunction;
+    ForkJoinPool pool;
+
+    @Setup
+    public void setUp()
+    {
+        intSrc = new int[size];
+        intDst = new int[size];
+        boxedSrc = new Integer[size];
+        boxedDst = new Integer[size];
+        for (int i = 0; i < size; i++)
+        {
+            intSrc[i] = i & 63;
+            boxedSrc[i] = i & 63;
+        }
+        IntUnaryOperator[] primitives = Stages.primitives(16);
+        Function<Integer, Integer>[] functions = Stages.functions(16);
+        flatInt = Chain.flat(primitives[0]);
+        flatFunction = Chain.flat(functions[0]);
+        for (int i = 1; i < 16; i++)
+        {
+            flatInt = flatInt.and(primitives[i]);
+            flatFunction = flatFunction.and(functions[i]);
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] intSequential()
+    {
+        flatInt.applyAll(intSrc, intDst);
+        return intDst;
+    }
+
+    @Benchmark
+    public int[] intParallel()
+    {
+        flatInt.parallelApplyAll(intSrc, intDst, pool);
+        return intDst;
+    }
+
+    @Benchmark
+    public Integer[] functionSequential()
+    {
+        flatFunction.applyAll(boxedSrc, boxedDst);
+        return boxedDst;
+    }
+
+    @Benchmark
+    public Integer[] functionParallel()
+    {
+        flatFunction.parallelApplyAll(boxedSrc, boxedDst, pool);
+        return boxedDst;
+    }
+}
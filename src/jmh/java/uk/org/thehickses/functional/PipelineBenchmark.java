@@ -0,0 +1,83 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs a batch of items through a CPU-bound parse stage followed by a blocking enrichment stage, once as an ordinary
+ * chain and once as a pipeline. The pipeline should approach the cost of the slower stage alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark
+{
+    @Param({ "200" })
+    int items;
+
+    @Param({ "50000" })
+    long enrichNanos;
+
+    @Param({ "16" })
+    int queueCapacity;
+
+    Function<Integer, Integer> parse;
+    Function<Integer, Integer> enrich;
+
+    @Setup
+    public void setUp()
+    {
+        parse = i ->
+            {
+                Blackhole.consumeCPU(20_000);
+                return i;
+            };
+        enrich = i ->
+            {
+                LockSupport.parkNanos(enrichNanos);
+                return i;
+            };
+    }
+
+    @Benchmark
+    public void sequential(Blackhole bh)
+    {
+        Consumer<Integer> sink = bh::consume;
+        Consumer<Integer> chain = Chain.of(parse)
+                .and(enrich)
+                .and(sink);
+        for (int i = 0; i < items; i++)
+            chain.accept(i);
+    }
+
+    @Benchmark
+    public void pipelined(Blackhole bh) throws InterruptedException
+    {
+        Consumer<Integer> sink = bh::consume;
+        Pipeline<Integer> pipeline = Pipeline.of(parse)
+                .and(enrich)
+                .and(sink)
+                .start(queueCapacity);
+        for (int i = 0; i < items; i++)
+            pipeline.submit(i);
+        pipeline.close();
+    }
+}
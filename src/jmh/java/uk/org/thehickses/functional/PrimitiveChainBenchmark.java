@@ -0,0 +1,71 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.LongToDoubleFunctionChain;
+
+/**
+ * A timestamp-to-price style pipeline built from boxed functions and from the long/double chain families.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveChainBenchmark
+{
+    long arg = 1_700_000_000_123L;
+
+    FunctionChain<Long, Double> boxed;
+    LongToDoubleFunctionChain primitive;
+
+    @Setup
+    public void setUp()
+    {
+        Function<Long, Long> toSeconds = x -> x / 1000;
+        Function<Long, Long> toHours = x -> x / 3600;
+        Function<Long, Double> toPrice = x -> x * 0.25;
+        Function<Double, Double> withTax = x -> x * 1.2;
+        boxed = Chain.of(toSeconds)
+                .and(toHours)
+                .and(toPrice)
+                .and(withTax);
+        LongUnaryOperator seconds = x -> x / 1000;
+        LongUnaryOperator hours = x -> x / 3600;
+        LongToDoubleFunction price = x -> x * 0.25;
+        DoubleUnaryOperator tax = x -> x * 1.2;
+        primitive = Chain.of(seconds)
+                .and(hours)
+                .and(price)
+                .and(tax);
+    }
+
+    @Benchmark
+    public Double boxed()
+    {
+        return boxed.apply(arg);
+    }
+
+    @Benchmark
+    public double primitive()
+    {
+        return primitive.applyAsDouble(arg);
+    }
+}
@@ -0,0 +1,109 @@
+package uk.org.thehickses.functional;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Curries a function with each record in turn and hands the result to a method that is not inlined, as happens when
+ * the curried function is passed on to other code. A new curried function escapes and has to be allocated for each
+ * record, whereas a bound function is rebound in place. Run with {@code -prof gc} to see the allocation per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RebindBenchmark
+{
+    private static final int RECORDS = 1024;
+
+    int[] ints;
+    Integer[] boxed;
+    IntBinaryOperator intOperator = (x, y) -> x * 31 + y;
+    BiFunction<Integer, Integer, Integer> biFunction = (x, y) -> x * 31 + y;
+    Curry.IntFirstBound intBound;
+    Curry.FirstBound<Integer, Integer, Integer> bound;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        ints = random.ints(RECORDS, 0, 100)
+                .toArray();
+        boxed = random.ints(RECORDS, 0, 100)
+                .boxed()
+                .toArray(Integer[]::new);
+        intBound = Curry.bindFirst(intOperator, 0);
+        bound = Curry.bindFirst(biFunction, 0);
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static int use(IntUnaryOperator op)
+    {
+        return op.applyAsInt(7);
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static int use(Function<Integer, Integer> func)
+    {
+        return func.apply(7);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int curryIntBinaryOperator()
+    {
+        int result = 0;
+        for (int i = 0; i < RECORDS; i++)
+            result += use(Curry.ofFirst(intOperator, ints[i]));
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int rebindIntBinaryOperator()
+    {
+        int result = 0;
+        for (int i = 0; i < RECORDS; i++)
+            result += use(intBound.rebind(ints[i]));
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int curryBiFunction()
+    {
+        int result = 0;
+        for (int i = 0; i < RECORDS; i++)
+            result += use(Curry.ofFirst(biFunction, boxed[i]));
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int rebindBiFunction()
+    {
+        int result = 0;
+        for (int i = 0; i < RECORDS; i++)
+            result += use(bound.rebind(boxed[i]));
+        return result;
+    }
+}
@@ -0,0 +1,177 @@
+package uk.org.thehickses.functional;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.ResultChain.ResultFunction;
+import uk.org.thehickses.functional.ResultChain.ResultToIntFunction;
+
+/**
+ * Parses a batch of records, some of which are malformed, through a chain of three stages. The exception variants
+ * throw from the parse stage and catch around the chain; the result variants record the failure in the result chain's
+ * failure channel instead. The records are small numbers, so the boxed variants stay within the {@link Integer} cache
+ * and allocate nothing when they succeed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBenchmark
+{
+    private static final int RECORDS = 1024;
+    private static final String MALFORMED = "Malformed";
+
+    @Param({ "0", "10", "50" })
+    int failurePercent;
+
+    String[] records;
+
+    Function<String, Integer> exceptionChain;
+    Function<String, Integer> resultChain;
+    ToIntFunction<String> exceptionIntChain;
+    ToIntFunction<String> resultIntChain;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        records = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++)
+        {
+            String number = String.valueOf(random.nextInt(50));
+            records[i] = random.nextInt(100) < failurePercent ? number + "?" : number;
+        }
+        Function<String, Integer> parse = ResultBenchmark::parse;
+        Function<Integer, Integer> addOne = i -> i + 1;
+        Function<Integer, Integer> doubled = i -> i * 2;
+        exceptionChain = Chain.of(parse)
+                .and(addOne)
+                .and(doubled);
+        ResultFunction<String, Integer> resultParse = (str, failure) ->
+            {
+                int value = parse(str, failure);
+                return failure.failed() ? null : value;
+            };
+        resultChain = ResultChain.of(resultParse)
+                .and(addOne)
+                .and(doubled)
+                .withDefault(-1);
+        ToIntFunction<String> parseInt = ResultBenchmark::parse;
+        IntUnaryOperator addOneInt = i -> i + 1;
+        IntUnaryOperator doubledInt = i -> i * 2;
+        exceptionIntChain = Chain.of(parseInt)
+                .and(addOneInt)
+                .and(doubledInt);
+        ResultToIntFunction<String> resultParseInt = ResultBenchmark::parse;
+        resultIntChain = ResultChain.of(resultParseInt)
+                .and(addOneInt)
+                .and(doubledInt)
+                .withDefault(-1);
+    }
+
+    private static int parse(String str)
+    {
+        int value = 0;
+        for (int i = 0; i < str.length(); i++)
+        {
+            int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                throw new NumberFormatException(MALFORMED);
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int parse(String str, Failure failure)
+    {
+        int value = 0;
+        for (int i = 0; i < str.length(); i++)
+        {
+            int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return failure.failAsInt(MALFORMED);
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long exceptionChain()
+    {
+        long total = 0;
+        for (String record : records)
+        {
+            Integer value;
+            try
+            {
+                value = exceptionChain.apply(record);
+            }
+            catch (NumberFormatException ex)
+            {
+                value = -1;
+            }
+            total += value;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long resultChain()
+    {
+        long total = 0;
+        for (String record : records)
+            total += resultChain.apply(record);
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long exceptionIntChain()
+    {
+        long total = 0;
+        for (String record : records)
+        {
+            int value;
+            try
+            {
+                value = exceptionIntChain.applyAsInt(record);
+            }
+            catch (NumberFormatException ex)
+            {
+                value = -1;
+            }
+            total += value;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long resultIntChain()
+    {
+        long total = 0;
+        for (String record : records)
+            total += resultIntChain.applyAsInt(record);
+        return total;
+    }
+}
@@ -0,0 +1,53 @@
+package uk.org.thehickses.functional;
+
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+
+class Stages
+{
+    private static final UnaryOperator<Integer>[] BOXED = boxed();
+
+    private static final IntUnaryOperator[] PRIMITIVE = {
+            x -> (x + 1) & 63, x -> (x * 3) & 63, x -> (x ^ 5) & 63, x -> (x >> 1) + 7 };
+
+    @SuppressWarnings("unchecked")
+    private static UnaryOperator<Integer>[] boxed()
+    {
+        return new UnaryOperator[] { (UnaryOperator<Integer>) x -> (x + 1) & 63,
+                (UnaryOperator<Integer>) x -> (x * 3) & 63, (UnaryOperator<Integer>) x -> (x ^ 5) & 63,
+                (UnaryOperator<Integer>) x -> (x >> 1) + 7 };
+    }
+
+    static UnaryOperator<Integer> boxed(int index)
+    {
+        return BOXED[index % BOXED.length];
+    }
+
+    static Function<Integer, Integer> function(int index)
+    {
+        return boxed(index);
+    }
+
+    static IntUnaryOperator primitive(int index)
+    {
+        return PRIMITIVE[index % PRIMITIVE.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<Integer, Integer>[] functions(int depth)
+    {
+        Function<Integer, Integer>[] answer = new Function[depth];
+        for (int i = 0; i < depth; i++)
+            answer[i] = function(i);
+        return answer;
+    }
+
+    static IntUnaryOperator[] primitives(int depth)
+    {
+        IntUnaryOperator[] answer = new IntUnaryOperator[depth];
+        for (int i = 0; i < depth; i++)
+            answer[i] = primitive(i);
+        return answer;
+    }
+}
@@ -0,0 +1,148 @@
+package uk.org.thehickses.functional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time from launching a fresh JVM to the first result of a two-stage chain, in composed and flat form,
+ * with and without an AppCDS archive made by {@link CdsTraining}. CDS only archives classes from jars, so the setup
+ * packs the library and {@link StartupProbe} into a jar first. The score includes booting the JVM; the
+ * {@code firstApplyMicros} counter is the time the probe itself took from building the chain to its first result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(1)
+public class StartupBenchmark
+{
+    @Param({ "composed", "flat" })
+    String form;
+
+    @Param({ "false", "true" })
+    boolean cds;
+
+    Path directory;
+    List<String> command;
+    Process process;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Probe
+    {
+        public long firstApplyMicros;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException, URISyntaxException
+    {
+        directory = Files.createTempDirectory("startup");
+        Path jar = directory.resolve("functional.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar)))
+        {
+            addClasses(out, classes(CdsTraining.class), "uk/org/thehickses/functional/");
+            addClasses(out, classes(StartupProbe.class), "uk/org/thehickses/functional/StartupProbe");
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java")
+                .toString();
+        Path archive = directory.resolve("functional.jsa");
+        command = new ArrayList<>(List.of(java, "-cp", jar.toString()));
+        if (cds)
+        {
+            run(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-Xlog:cds=error", "-cp", jar.toString(),
+                    CdsTraining.class.getName()));
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(List.of(StartupProbe.class.getName(), form));
+    }
+
+    private static Path classes(Class<?> type) throws URISyntaxException
+    {
+        return Path.of(type.getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI());
+    }
+
+    private static void addClasses(JarOutputStream out, Path root, String prefix) throws IOException
+    {
+        try (Stream<Path> files = Files.walk(root))
+        {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator)
+            {
+                String name = root.relativize(file)
+                        .toString()
+                        .replace('\\', '/');
+                if (!name.startsWith(prefix) || !name.endsWith(".class") || name.contains("jmh_generated"))
+                    continue;
+                out.putNextEntry(new JarEntry(name));
+                Files.copy(file, out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void run(List<String> command) throws IOException, InterruptedException
+    {
+        Process training = new ProcessBuilder(command).redirectOutput(Redirect.DISCARD)
+                .redirectError(Redirect.INHERIT)
+                .start();
+        if (training.waitFor() != 0)
+            throw new IllegalStateException("Failed: " + command);
+    }
+
+    @Benchmark
+    public String firstApply(Probe probe) throws IOException
+    {
+        process = new ProcessBuilder(command).redirectError(Redirect.INHERIT)
+                .start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String result = reader.readLine();
+        probe.firstApplyMicros += Long.parseLong(reader.readLine());
+        return result;
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitExit() throws InterruptedException
+    {
+        process.waitFor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package uk.org.thehickses.functional;
+
+import java.util.function.Function;
+
+/**
+ * The process that {@link StartupBenchmark} starts: builds and applies one two-stage chain, in the form named by its
+ * argument, and prints the result and the time it took in microseconds as soon as it has them.
+ */
+public class StartupProbe
+{
+    public static void main(String[] args)
+    {
+        long start = System.nanoTime();
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> squared = x -> x * x;
+        Integer result = args[0].equals("flat") ? Chain.flat(length)
+                .and(squared)
+                .apply("startup")
+                : Chain.of(length)
+                        .and(squared)
+                        .apply("startup");
+        long micros = (System.nanoTime() - start) / 1000;
+        System.out.println(result);
+        System.out.println(micros);
+        System.out.flush();
+    }
+}
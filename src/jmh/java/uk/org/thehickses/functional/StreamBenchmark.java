@@ -0,0 +1,116 @@
+package uk.org.thehickses.functional;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+/**
+ * Sums a trim, length, square and mask pipeline over a batch of strings, and a four-stage {@link IntOps} pipeline over
+ * a range: with one stream stage per function, with the chain passed to {@code mapToInt}/{@code map}, and with the
+ * chain applied through {@code applyTo}, which hands the int chain a block of elements at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark
+{
+    String[] lines = new String[4096];
+
+    Function<String, String> trimmed = String::trim;
+    ToIntFunction<String> length = String::length;
+    IntUnaryOperator squared = x -> x * x;
+    IntUnaryOperator masked = IntOps.bitAnd(0xff);
+    IntUnaryOperator tripled = IntOps.multiply(3);
+    IntUnaryOperator incremented = IntOps.add(1);
+    IntUnaryOperator halved = IntOps.shiftRight(1);
+
+    ToIntFunctionChain<String> lineChain;
+    IntUnaryOperatorChain intChain;
+
+    @Setup
+    public void setUp()
+    {
+        for (int i = 0; i < lines.length; i++)
+            lines[i] = " line " + i + " ";
+        lineChain = Chain.of(trimmed)
+                .and(length)
+                .and(squared)
+                .and(masked);
+        intChain = Chain.flat(tripled)
+                .and(masked)
+                .and(incremented)
+                .and(halved);
+    }
+
+    @Benchmark
+    public int linesStaged()
+    {
+        return Arrays.stream(lines)
+                .map(trimmed)
+                .mapToInt(length)
+                .map(squared)
+                .map(masked)
+                .sum();
+    }
+
+    @Benchmark
+    public int linesMapToInt()
+    {
+        return Arrays.stream(lines)
+                .mapToInt(lineChain)
+                .sum();
+    }
+
+    @Benchmark
+    public int linesApplyTo()
+    {
+        return lineChain.applyTo(Arrays.stream(lines))
+                .sum();
+    }
+
+    @Benchmark
+    public int intsStaged()
+    {
+        return IntStream.range(0, 4096)
+                .map(tripled)
+                .map(masked)
+                .map(incremented)
+                .map(halved)
+                .sum();
+    }
+
+    @Benchmark
+    public int intsMap()
+    {
+        return IntStream.range(0, 4096)
+                .map(intChain)
+                .sum();
+    }
+
+    @Benchmark
+    public int intsApplyTo()
+    {
+        return intChain.applyTo(IntStream.range(0, 4096))
+                .sum();
+    }
+}
@@ -0,0 +1,104 @@
+package uk.org.thehickses.functional;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.IntBinaryOperatorChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+/**
+ * A price-times-quantity step followed by two single-argument stages, applied to every record of a batch: with the
+ * two arguments packed into a tuple, with the first argument bound by {@link Curry#ofFirst} for each record, and as an
+ * {@link IntBinaryOperatorChain}, one record at a time and in bulk. Run with {@code -prof gc} to see the allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoArgumentBenchmark
+{
+    record Order(int price, int quantity)
+    {
+    }
+
+    int[] prices = new int[1024];
+    int[] quantities = new int[1024];
+    int[] totals = new int[1024];
+
+    ToIntFunctionChain<Order> tupled;
+    IntBinaryOperator multiplied = (price, quantity) -> price * quantity;
+    IntUnaryOperatorChain tail;
+    IntBinaryOperatorChain binary;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < prices.length; i++)
+        {
+            prices[i] = random.nextInt(1000);
+            quantities[i] = random.nextInt(100);
+        }
+        IntUnaryOperator discounted = x -> x - x / 20;
+        IntUnaryOperator rounded = x -> x / 5 * 5;
+        ToIntFunction<Order> total = order -> order.price() * order.quantity();
+        tupled = Chain.of(total)
+                .and(discounted)
+                .and(rounded);
+        tail = Chain.of(discounted)
+                .and(rounded);
+        binary = Chain.of(multiplied)
+                .and(discounted)
+                .and(rounded);
+    }
+
+    @Benchmark
+    public int[] tupled()
+    {
+        for (int i = 0; i < prices.length; i++)
+            totals[i] = tupled.applyAsInt(new Order(prices[i], quantities[i]));
+        return totals;
+    }
+
+    @Benchmark
+    public int[] curried()
+    {
+        for (int i = 0; i < prices.length; i++)
+            totals[i] = Chain.of(Curry.ofFirst(multiplied, prices[i]))
+                    .and(tail)
+                    .applyAsInt(quantities[i]);
+        return totals;
+    }
+
+    @Benchmark
+    public int[] binary()
+    {
+        for (int i = 0; i < prices.length; i++)
+            totals[i] = binary.applyAsInt(prices[i], quantities[i]);
+        return totals;
+    }
+
+    @Benchmark
+    public int[] binaryBulk()
+    {
+        binary.applyAll(prices, quantities, totals);
+        return totals;
+    }
+}
@@ -0,0 +1,79 @@
+package uk.org.thehickses.functional;
+
+import static uk.org.thehickses.functional.IntOps.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+/**
+ * Applies a feature-normalisation transform (offset, scale, shift, clamp, mask) to a large array. The same transform
+ * is built from IntOps stages, which run on the vector kernel, and from lambdas, which take the scalar bulk path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class VectorBenchmark
+{
+    @Param({ "1048576" })
+    int size;
+
+    int[] src;
+    int[] dst;
+    IntUnaryOperatorChain vector;
+    IntUnaryOperatorChain scalar;
+
+    @Setup
+    public void setUp()
+    {
+        src = new int[size];
+        dst = new int[size];
+        for (int i = 0; i < size; i++)
+            src[i] = i * 7919;
+        vector = Chain.flat(add(-1000))
+                .and(multiply(37))
+                .and(shiftRight(8))
+                .and(clamp(0, 65535))
+                .and(bitAnd(0xfff0));
+        IntUnaryOperator offset = x -> x - 1000;
+        IntUnaryOperator scale = x -> x * 37;
+        IntUnaryOperator shift = x -> x >> 8;
+        IntUnaryOperator clamp = x -> Math.min(Math.max(x, 0), 65535);
+        IntUnaryOperator mask = x -> x & 0xfff0;
+        scalar = Chain.flat(offset)
+                .and(scale)
+                .and(shift)
+                .and(clamp)
+                .and(mask);
+    }
+
+    @Benchmark
+    public int[] vector()
+    {
+        vector.applyAll(src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] scalar()
+    {
+        scalar.applyAll(src, dst);
+        return dst;
+    }
+}
@@ -0,0 +1,233 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntFunctionChain;
+import uk.org.thehickses.functional.Chain.IntSupplierChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+import uk.org.thehickses.functional.Chain.UnaryOperatorChain;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WithDefaultBenchmark
+{
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    int depth;
+
+    Integer boxedArg = 17;
+    int intArg = 17;
+
+    Supplier<Integer> head;
+    IntSupplier intHead;
+    IntFunction<Integer> box;
+    ToIntFunction<Integer> unbox;
+    Function<Integer, Integer>[] functions;
+    IntUnaryOperator[] primitives;
+
+    Supplier<Integer> supplierWithDefault;
+    IntSupplier intSupplierWithDefault;
+    Function<Integer, Integer> functionWithDefault;
+    IntFunction<Integer> intFunctionWithDefault;
+    UnaryOperator<Integer> unaryOperatorWithDefault;
+    IntUnaryOperator intUnaryOperatorWithDefault;
+    ToIntFunction<Integer> toIntFunctionWithDefault;
+
+    @Setup
+    public void setUp()
+    {
+        head = () -> boxedArg;
+        intHead = () -> intArg;
+        box = Integer::valueOf;
+        unbox = Integer::intValue;
+        functions = Stages.functions(depth);
+        primitives = Stages.primitives(depth);
+        SupplierChain<Integer> sc = Chain.of(head);
+        IntSupplierChain isc = Chain.of(intHead);
+        FunctionChain<Integer, Integer> fc = Chain.of(functions[0]);
+        IntFunctionChain<Integer> ifc = Chain.of(box);
+        UnaryOperatorChain<Integer> uc = Chain.of(Stages.boxed(0));
+        IntUnaryOperatorChain iuc = Chain.of(primitives[0]);
+        ToIntFunctionChain<Integer> tc = Chain.of(unbox);
+        for (int i = 1; i < depth; i++)
+        {
+            sc = sc.and(functions[i]);
+            isc = isc.and(primitives[i]);
+            fc = fc.and(functions[i]);
+            ifc = ifc.and(functions[i]);
+            uc = uc.and(Stages.boxed(i));
+            iuc = iuc.and(primitives[i]);
+            tc = tc.and(primitives[i]);
+        }
+        supplierWithDefault = sc.withDefault(0);
+        intSupplierWithDefault = isc.withDefault(0);
+        functionWithDefault = fc.withDefault(0);
+        intFunctionWithDefault = ifc.withDefault(0);
+        unaryOperatorWithDefault = uc.withDefault(0);
+        intUnaryOperatorWithDefault = iuc.withDefault(0);
+        toIntFunctionWithDefault = tc.withDefault(0);
+    }
+
+    @Benchmark
+    public Integer supplierWithDefault()
+    {
+        return supplierWithDefault.get();
+    }
+
+    @Benchmark
+    public Integer supplierHandWritten()
+    {
+        try
+        {
+            Integer answer = head.get();
+            for (int i = 1; i < depth; i++)
+                answer = functions[i].apply(answer);
+            return answer;
+        }
+        catch (NullPointerException ex)
+        {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public int intSupplierWithDefault()
+    {
+        return intSupplierWithDefault.getAsInt();
+    }
+
+    @Benchmark
+    public int intSupplierHandWritten()
+    {
+        try
+        {
+            int answer = intHead.getAsInt();
+            for (int i = 1; i < depth; i++)
+                answer = primitives[i].applyAsInt(answer);
+            return answer;
+        }
+        catch (NullPointerException ex)
+        {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public Integer functionWithDefault()
+    {
+        return functionWithDefault.apply(boxedArg);
+    }
+
+    @Benchmark
+    public Integer functionHandWritten()
+    {
+        try
+        {
+            Integer answer = boxedArg;
+            for (int i = 0; i < depth; i++)
+                answer = functions[i].apply(answer);
+            return answer;
+        }
+        catch (NullPointerException ex)
+        {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public Integer intFunctionWithDefault()
+    {
+        return intFunctionWithDefault.apply(intArg);
+    }
+
+    @Benchmark
+    public Integer intFunctionHandWritten()
+    {
+        try
+        {
+            Integer answer = box.apply(intArg);
+            for (int i = 1; i < depth; i++)
+                answer = functions[i].apply(answer);
+            return answer;
+        }
+        catch (NullPointerException ex)
+        {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public Integer unaryOperatorWithDefault()
+    {
+        return unaryOperatorWithDefault.apply(boxedArg);
+    }
+
+    @Benchmark
+    public int intUnaryOperatorWithDefault()
+    {
+        return intUnaryOperatorWithDefault.applyAsInt(intArg);
+    }
+
+    @Benchmark
+    public int intUnaryOperatorHandWritten()
+    {
+        try
+        {
+            int answer = intArg;
+            for (int i = 0; i < depth; i++)
+                answer = primitives[i].applyAsInt(answer);
+            return answer;
+        }
+        catch (NullPointerException ex)
+        {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public int toIntFunctionWithDefault()
+    {
+        return toIntFunctionWithDefault.applyAsInt(boxedArg);
+    }
+
+    @Benchmark
+    public int toIntFunctionHandWritten()
+    {
+        try
+        {
+            int answer = unbox.applyAsInt(boxedArg);
+            for (int i = 1; i < depth; i++)
+                answer = primitives[i].applyAsInt(answer);
+            return answer;
+        }
+        catch (NullPointerException ex)
+        {
+            return 0;
+        }
+    }
+}
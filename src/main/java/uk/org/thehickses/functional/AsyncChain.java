@@ -0,0 +1,132 @@
+package uk.org.thehickses.functional;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Chains whose stages run asynchronously and hand their results on through {@link CompletableFuture}s, so that no
+ * thread is held between stages. Each stage chooses where it runs: {@code and} runs it on the common fork/join pool,
+ * which suits CPU-bound work; {@code andBlocking} runs it on a virtual thread, which can block on I/O without tying up
+ * a platform thread; and the overloads taking an {@link Executor} run it there.
+ */
+public class AsyncChain
+{
+    private static final Executor CPU = ForkJoinPool.commonPool();
+    private static final Executor BLOCKING = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("async-chain-", 0)
+            .factory());
+
+    public static <T> AsyncSupplierChain<T> of(Supplier<T> func)
+    {
+        return of(func, CPU);
+    }
+
+    public static <T> AsyncSupplierChain<T> ofBlocking(Supplier<T> func)
+    {
+        return of(func, BLOCKING);
+    }
+
+    public static <T> AsyncSupplierChain<T> of(Supplier<T> func, Executor executor)
+    {
+        Objects.requireNonNull(func);
+        Objects.requireNonNull(executor);
+        return () -> CompletableFuture.supplyAsync(func, executor);
+    }
+
+    public static <T, R> AsyncFunctionChain<T, R> of(Function<T, R> func)
+    {
+        return of(func, CPU);
+    }
+
+    public static <T, R> AsyncFunctionChain<T, R> ofBlocking(Function<T, R> func)
+    {
+        return of(func, BLOCKING);
+    }
+
+    public static <T, R> AsyncFunctionChain<T, R> of(Function<T, R> func, Executor executor)
+    {
+        Objects.requireNonNull(func);
+        Objects.requireNonNull(executor);
+        return arg -> CompletableFuture.supplyAsync(() -> func.apply(arg), executor);
+    }
+
+    public static interface AsyncSupplierChain<T> extends Supplier<CompletableFuture<T>>
+    {
+        public default <R> AsyncSupplierChain<R> and(Function<? super T, ? extends R> func)
+        {
+            return and(func, CPU);
+        }
+
+        public default <R> AsyncSupplierChain<R> andBlocking(Function<? super T, ? extends R> func)
+        {
+            return and(func, BLOCKING);
+        }
+
+        public default <R> AsyncSupplierChain<R> and(Function<? super T, ? extends R> func, Executor executor)
+        {
+            Objects.requireNonNull(func);
+            Objects.requireNonNull(executor);
+            return () -> get().thenApplyAsync(func, executor);
+        }
+
+        public default Supplier<CompletableFuture<Void>> and(Consumer<? super T> func)
+        {
+            return and(func, CPU);
+        }
+
+        public default Supplier<CompletableFuture<Void>> andBlocking(Consumer<? super T> func)
+        {
+            return and(func, BLOCKING);
+        }
+
+        public default Supplier<CompletableFuture<Void>> and(Consumer<? super T> func, Executor executor)
+        {
+            Objects.requireNonNull(func);
+            Objects.requireNonNull(executor);
+            return () -> get().thenAcceptAsync(func, executor);
+        }
+    }
+
+    public static interface AsyncFunctionChain<T, R> extends Function<T, CompletableFuture<R>>
+    {
+        public default <S> AsyncFunctionChain<T, S> and(Function<? super R, ? extends S> func)
+        {
+            return and(func, CPU);
+        }
+
+        public default <S> AsyncFunctionChain<T, S> andBlocking(Function<? super R, ? extends S> func)
+        {
+            return and(func, BLOCKING);
+        }
+
+        public default <S> AsyncFunctionChain<T, S> and(Function<? super R, ? extends S> func, Executor executor)
+        {
+            Objects.requireNonNull(func);
+            Objects.requireNonNull(executor);
+            return arg -> apply(arg).thenApplyAsync(func, executor);
+        }
+
+        public default Function<T, CompletableFuture<Void>> and(Consumer<? super R> func)
+        {
+            return and(func, CPU);
+        }
+
+        public default Function<T, CompletableFuture<Void>> andBlocking(Consumer<? super R> func)
+        {
+            return and(func, BLOCKING);
+        }
+
+        public default Function<T, CompletableFuture<Void>> and(Consumer<? super R> func, Executor executor)
+        {
+            Objects.requireNonNull(func);
+            Objects.requireNonNull(executor);
+            return arg -> apply(arg).thenAcceptAsync(func, executor);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package uk.org.thehickses.functional;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+
+/**
+ * Coalesces concurrent calls into calls to a bulk function, without a background thread. The first caller to find no
+ * open batch opens one and waits up to the maximum delay for others to join it; the caller that fills the batch, or
+ * failing that the opener when the delay runs out, makes the bulk call and hands each caller its own result.
+ */
+class Batcher<T, R> implements FunctionChain<T, R>
+{
+    private final Function<List<T>, List<R>> bulk;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private Batch open = null;
+
+    Batcher(Function<List<T>, List<R>> bulk, int maxBatchSize, Duration maxDelay)
+    {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Maximum batch size must be positive: " + maxBatchSize);
+        if (maxDelay.isNegative())
+            throw new IllegalArgumentException("Maximum delay must not be negative: " + maxDelay);
+        this.bulk = Objects.requireNonNull(bulk);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    @Override
+    public R apply(T arg)
+    {
+        Batch batch;
+        int index;
+        boolean opened;
+        synchronized (this)
+        {
+            opened = open == null;
+            if (opened)
+                open = new Batch();
+            batch = open;
+            index = batch.size;
+            batch.args[batch.size++] = arg;
+            if (batch.size == maxBatchSize)
+                open = null;
+        }
+        if (index == maxBatchSize - 1)
+            batch.run();
+        else if (opened && !batch.await(maxDelayNanos) && claim(batch))
+            batch.run();
+        return batch.result(index);
+    }
+
+    private synchronized boolean claim(Batch batch)
+    {
+        if (open != batch)
+            return false;
+        open = null;
+        return true;
+    }
+
+    private class Batch
+    {
+        private final Object[] args = new Object[maxBatchSize];
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int size = 0;
+        private List<R> results;
+        private Throwable failure;
+
+        @SuppressWarnings("unchecked")
+        void run()
+        {
+            try
+            {
+                List<T> batch = (List<T>) Collections.unmodifiableList(Arrays.asList(args)
+                        .subList(0, size));
+                results = bulk.apply(batch);
+                if (results == null || results.size() != size)
+                    throw new IllegalStateException(String.format("Bulk function returned %s results for %d arguments",
+                            results == null ? "null" : results.size(), size));
+            }
+            catch (Throwable ex)
+            {
+                failure = ex;
+            }
+            finally
+            {
+                done.countDown();
+            }
+        }
+
+        boolean await(long timeoutNanos)
+        {
+            try
+            {
+                return done.await(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread()
+                        .interrupt();
+                return false;
+            }
+        }
+
+        R result(int index)
+        {
+            boolean interrupted = false;
+            while (done.getCount() > 0)
+            {
+                try
+                {
+                    done.await();
+                }
+                catch (InterruptedException ex)
+                {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread()
+                        .interrupt();
+            if (failure instanceof RuntimeException ex)
+                throw ex;
+            if (failure instanceof Error err)
+                throw err;
+            if (failure != null)
+                throw new IllegalStateException("Bulk function failed", failure);
+            return results.get(index);
+        }
+    }
+}
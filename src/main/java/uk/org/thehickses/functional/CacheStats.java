@@ -0,0 +1,46 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheStats
+{
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    public long misses()
+    {
+        return misses.sum();
+    }
+
+    public long evictions()
+    {
+        return evictions.sum();
+    }
+
+    void recordHit()
+    {
+        hits.increment();
+    }
+
+    void recordMiss()
+    {
+        misses.increment();
+    }
+
+    void recordEviction()
+    {
+        evictions.increment();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CacheStats[hits=%d, misses=%d, evictions=%d]".formatted(hits(), misses(), evictions());
+    }
+}
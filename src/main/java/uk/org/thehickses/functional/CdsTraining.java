@@ -0,0 +1,93 @@
+package uk.org.thehickses.functional;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The training run for an AppCDS archive of the library, which the {@code cds} profile makes with
+ * {@code -XX:ArchiveClassesAtExit}. It loads every chain interface and links every {@code of}, {@code flat} and
+ * {@code and} factory of {@link Chain} and every factory of {@link Curry}, so that the archive holds the classes,
+ * already verified, and the lambda classes that those factories would otherwise spin up through
+ * {@code LambdaMetafactory} on first use. The factories are linked reflectively, with proxies standing in for stages,
+ * so that new overloads are covered without changing this class.
+ * <p>
+ * The archive is used with {@code -XX:SharedArchiveFile}, and only if the class path starts with the same jar.
+ */
+final class CdsTraining
+{
+    private static final InvocationHandler STAGE = (proxy, method, args) ->
+        {
+            if (method.isDefault())
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            return switch (method.getName())
+                {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Stage";
+                    default -> zero(method.getReturnType());
+                };
+        };
+
+    public static void main(String[] args) throws Exception
+    {
+        for (Method method : Chain.class.getMethods())
+            if (Modifier.isStatic(method.getModifiers())
+                    && (method.getName()
+                            .equals("of")
+                            || method.getName()
+                                    .equals("flat")))
+                invoke(null, method);
+        for (Class<?> type : Chain.class.getClasses())
+            if (type.isInterface())
+                for (Method method : type.getMethods())
+                    if (method.getName()
+                            .equals("and"))
+                        invoke(stage(type), method);
+        for (Method method : Curry.class.getMethods())
+            if (Modifier.isStatic(method.getModifiers()))
+                invoke(null, method);
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> squared = x -> x * x;
+        IntUnaryOperator negated = x -> -x;
+        Chain.of(length)
+                .and(squared)
+                .apply("startup");
+        Chain.flat(length)
+                .and(squared)
+                .apply("startup");
+        Chain.of(negated)
+                .and(negated)
+                .applyAsInt(1);
+    }
+
+    private static void invoke(Object target, Method method) throws Exception
+    {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++)
+            args[i] = types[i].isInterface() ? stage(types[i]) : zero(types[i]);
+        method.invoke(target, args);
+    }
+
+    private static Object stage(Class<?> type)
+    {
+        return Proxy.newProxyInstance(CdsTraining.class.getClassLoader(), new Class<?>[] { type }, STAGE);
+    }
+
+    private static Object zero(Class<?> type)
+    {
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == double.class)
+            return 0.0;
+        if (type == boolean.class)
+            return false;
+        return null;
+    }
+}
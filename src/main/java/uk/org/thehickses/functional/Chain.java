@@ -1,14 +1,45 @@
 package uk.org.thehickses.functional;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
 import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
 import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
 import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import uk.org.thehickses.functional.AsyncChain.AsyncFunctionChain;
+import uk.org.thehickses.functional.AsyncChain.AsyncSupplierChain;
+import uk.org.thehickses.functional.ChainMetrics.Stage;
 
 public class Chain
 {
@@ -47,6 +78,124 @@ public class Chain
         return func::applyAsInt;
     }
 
+    public static LongSupplierChain of(LongSupplier func)
+    {
+        return func::getAsLong;
+    }
+
+    public static DoubleSupplierChain of(DoubleSupplier func)
+    {
+        return func::getAsDouble;
+    }
+
+    public static <T> ToLongFunctionChain<T> of(ToLongFunction<T> func)
+    {
+        return func::applyAsLong;
+    }
+
+    public static <T> ToDoubleFunctionChain<T> of(ToDoubleFunction<T> func)
+    {
+        return func::applyAsDouble;
+    }
+
+    public static IntToLongFunctionChain of(IntToLongFunction func)
+    {
+        return func::applyAsLong;
+    }
+
+    public static IntToDoubleFunctionChain of(IntToDoubleFunction func)
+    {
+        return func::applyAsDouble;
+    }
+
+    public static <T> LongFunctionChain<T> of(LongFunction<T> func)
+    {
+        return func::apply;
+    }
+
+    public static LongToIntFunctionChain of(LongToIntFunction func)
+    {
+        return func::applyAsInt;
+    }
+
+    public static LongUnaryOperatorChain of(LongUnaryOperator func)
+    {
+        return func::applyAsLong;
+    }
+
+    public static LongToDoubleFunctionChain of(LongToDoubleFunction func)
+    {
+        return func::applyAsDouble;
+    }
+
+    public static <T> DoubleFunctionChain<T> of(DoubleFunction<T> func)
+    {
+        return func::apply;
+    }
+
+    public static DoubleToIntFunctionChain of(DoubleToIntFunction func)
+    {
+        return func::applyAsInt;
+    }
+
+    public static DoubleToLongFunctionChain of(DoubleToLongFunction func)
+    {
+        return func::applyAsLong;
+    }
+
+    public static DoubleUnaryOperatorChain of(DoubleUnaryOperator func)
+    {
+        return func::applyAsDouble;
+    }
+
+    public static <T, U, R> BiFunctionChain<T, U, R> of(BiFunction<T, U, R> func)
+    {
+        return func::apply;
+    }
+
+    public static <T, U> ToIntBiFunctionChain<T, U> of(ToIntBiFunction<T, U> func)
+    {
+        return func::applyAsInt;
+    }
+
+    public static IntBinaryOperatorChain of(IntBinaryOperator func)
+    {
+        return func::applyAsInt;
+    }
+
+    public static <T> SupplierChain<T> flat(Supplier<T> func)
+    {
+        return FlatChain.of(func);
+    }
+
+    public static <T, R> FunctionChain<T, R> flat(Function<T, R> func)
+    {
+        return FlatChain.of(func);
+    }
+
+    public static <T> UnaryOperatorChain<T> flat(UnaryOperator<T> func)
+    {
+        return FlatChain.of(func);
+    }
+
+    public static IntUnaryOperatorChain flat(IntUnaryOperator func)
+    {
+        return FlatChain.of(func);
+    }
+
+    /**
+     * Gets a chain that collects calls made concurrently from different threads into lists of up to
+     * {@code maxBatchSize} arguments and passes each list to {@code bulk}, which must return a list of the same size
+     * with the result for each argument at the same index. A call waits at most {@code maxDelay} for others to join
+     * its batch before the batch is sent. If the bulk function throws, every call in the batch throws the same
+     * exception.
+     */
+    public static <T, R> FunctionChain<T, R> batching(Function<List<T>, List<R>> bulk, int maxBatchSize,
+            Duration maxDelay)
+    {
+        return new Batcher<>(bulk, maxBatchSize, maxDelay);
+    }
+
     private static <T> ConsumerChain<T> of(Consumer<T> func)
     {
         return func::accept;
@@ -57,250 +206,2259 @@ public class Chain
         return func::accept;
     }
 
+    private static LongConsumerChain of(LongConsumer func)
+    {
+        return func::accept;
+    }
+
+    private static DoubleConsumerChain of(DoubleConsumer func)
+    {
+        return func::accept;
+    }
+
     private static RunnableChain of(Runnable func)
     {
         return func::run;
     }
 
-    public static Runnable nullTolerant(Runnable func)
-    {
-        return of(func).nullTolerant();
+    public static Runnable nullTolerant(Runnable func)
+    {
+        return of(func).nullTolerant();
+    }
+
+    public static <T> Consumer<T> nullTolerant(Consumer<T> func)
+    {
+        return of(func).nullTolerant();
+    }
+
+    public static IntConsumer nullTolerant(IntConsumer func)
+    {
+        return of(func).nullTolerant();
+    }
+
+    public static LongConsumer nullTolerant(LongConsumer func)
+    {
+        return of(func).nullTolerant();
+    }
+
+    public static DoubleConsumer nullTolerant(DoubleConsumer func)
+    {
+        return of(func).nullTolerant();
+    }
+
+    public static RunnableChain coalescing(Runnable func)
+    {
+        return of(func).coalescing();
+    }
+
+    private static <T> Supplier<T> nullTolerant(Supplier<T> func, T defaultIfNull)
+    {
+        return () ->
+            {
+                try
+                {
+                    return func.get();
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> IntSupplier nullTolerant(IntSupplier func, int defaultIfNull)
+    {
+        return () ->
+            {
+                try
+                {
+                    return func.getAsInt();
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T, R> Function<T, R> nullTolerant(Function<T, R> func, R defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.apply(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> UnaryOperator<T> nullTolerant(UnaryOperator<T> func, T defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.apply(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> IntFunction<T> nullTolerant(IntFunction<T> func, T defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.apply(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static IntUnaryOperator nullTolerant(IntUnaryOperator func, int defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsInt(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> ToIntFunction<T> nullTolerant(ToIntFunction<T> func, int defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsInt(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static LongSupplier nullTolerant(LongSupplier func, long defaultIfNull)
+    {
+        return () ->
+            {
+                try
+                {
+                    return func.getAsLong();
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static DoubleSupplier nullTolerant(DoubleSupplier func, double defaultIfNull)
+    {
+        return () ->
+            {
+                try
+                {
+                    return func.getAsDouble();
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> ToLongFunction<T> nullTolerant(ToLongFunction<T> func, long defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsLong(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> ToDoubleFunction<T> nullTolerant(ToDoubleFunction<T> func, double defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsDouble(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static IntToLongFunction nullTolerant(IntToLongFunction func, long defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsLong(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static IntToDoubleFunction nullTolerant(IntToDoubleFunction func, double defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsDouble(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> LongFunction<T> nullTolerant(LongFunction<T> func, T defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.apply(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static LongToIntFunction nullTolerant(LongToIntFunction func, int defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsInt(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static LongUnaryOperator nullTolerant(LongUnaryOperator func, long defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsLong(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static LongToDoubleFunction nullTolerant(LongToDoubleFunction func, double defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsDouble(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T> DoubleFunction<T> nullTolerant(DoubleFunction<T> func, T defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.apply(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static DoubleToIntFunction nullTolerant(DoubleToIntFunction func, int defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsInt(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static DoubleToLongFunction nullTolerant(DoubleToLongFunction func, long defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsLong(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static DoubleUnaryOperator nullTolerant(DoubleUnaryOperator func, double defaultIfNull)
+    {
+        return arg ->
+            {
+                try
+                {
+                    return func.applyAsDouble(arg);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T, U, R> BiFunction<T, U, R> nullTolerant(BiFunction<T, U, R> func, R defaultIfNull)
+    {
+        return (arg1, arg2) ->
+            {
+                try
+                {
+                    return func.apply(arg1, arg2);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static <T, U> ToIntBiFunction<T, U> nullTolerant(ToIntBiFunction<T, U> func, int defaultIfNull)
+    {
+        return (arg1, arg2) ->
+            {
+                try
+                {
+                    return func.applyAsInt(arg1, arg2);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    private static IntBinaryOperator nullTolerant(IntBinaryOperator func, int defaultIfNull)
+    {
+        return (arg1, arg2) ->
+            {
+                try
+                {
+                    return func.applyAsInt(arg1, arg2);
+                }
+                catch (NullPointerException ex)
+                {
+                    Stage.caught(ex);
+                    return defaultIfNull;
+                }
+            };
+    }
+
+    public static interface SupplierChain<T> extends Supplier<T>
+    {
+        default RunnableChain and(Consumer<? super T> func)
+        {
+            return () -> func.accept(get());
+        }
+
+        default <R> SupplierChain<R> and(Function<? super T, R> func)
+        {
+            return () -> func.apply(get());
+        }
+
+        default SupplierChain<T> and(UnaryOperator<T> func)
+        {
+            return () -> func.apply(get());
+        }
+
+        default IntSupplierChain and(ToIntFunction<? super T> func)
+        {
+            return () -> func.applyAsInt(get());
+        }
+
+        default LongSupplierChain and(ToLongFunction<? super T> func)
+        {
+            return () -> func.applyAsLong(get());
+        }
+
+        default DoubleSupplierChain and(ToDoubleFunction<? super T> func)
+        {
+            return () -> func.applyAsDouble(get());
+        }
+
+        default Supplier<T> withDefault(T defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        default NullSafeSupplierChain<T> nullSafe()
+        {
+            return this::get;
+        }
+
+        default SupplierChain<T> memoized()
+        {
+            return new Memoizer<>(this);
+        }
+
+        default SupplierChain<T> memoized(Duration timeToLive, Duration refreshAhead, Executor executor)
+        {
+            return new Memoizer<>(this, timeToLive, refreshAhead, executor);
+        }
+
+        default AsyncSupplierChain<T> async()
+        {
+            return AsyncChain.of(this);
+        }
+
+        default AsyncSupplierChain<T> asyncBlocking()
+        {
+            return AsyncChain.ofBlocking(this);
+        }
+
+        default AsyncSupplierChain<T> async(Executor executor)
+        {
+            return AsyncChain.of(this, executor);
+        }
+
+        default SupplierChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return () -> stage.call(this);
+        }
+
+        default SupplierChain<T> hedged(Duration delay, Executor executor)
+        {
+            return hedged(delay, executor, new HedgeStats());
+        }
+
+        default SupplierChain<T> hedged(Duration delay, Executor executor, HedgeStats stats)
+        {
+            long delayNanos = Hedging.delayNanos(delay);
+            Objects.requireNonNull(executor);
+            Objects.requireNonNull(stats);
+            return () -> Hedging.hedge(this, delayNanos, executor, stats);
+        }
+
+        default SupplierChain<T> withDeadline(Duration timeout, T fallback, Executor executor)
+        {
+            long timeoutNanos = Hedging.delayNanos(timeout);
+            Objects.requireNonNull(executor);
+            return () -> Hedging.withDeadline(this, timeoutNanos, fallback, executor);
+        }
+
+        /**
+         * Gets a supplier whose concurrent callers share one computation. A call made while another is in progress
+         * waits for that one and returns its result, or throws its exception, instead of starting its own. The
+         * stages must not call the shared supplier themselves.
+         */
+        default SupplierChain<T> singleFlight()
+        {
+            return Coalescing.singleFlight(this);
+        }
+
+        /**
+         * Gets an equivalent compiled chain, as for {@link FunctionChain#compile()}.
+         */
+        default SupplierChain<T> compile()
+        {
+            return ChainCompiler.compile(this);
+        }
+    }
+
+    public static interface IntSupplierChain extends IntSupplier
+    {
+        public default RunnableChain and(IntConsumer func)
+        {
+            return () -> func.accept(getAsInt());
+        }
+
+        public default <T> SupplierChain<T> and(IntFunction<T> func)
+        {
+            return () -> func.apply(getAsInt());
+        }
+
+        public default IntSupplierChain and(IntUnaryOperator func)
+        {
+            return () -> func.applyAsInt(getAsInt());
+        }
+
+        public default LongSupplierChain and(IntToLongFunction func)
+        {
+            return () -> func.applyAsLong(getAsInt());
+        }
+
+        public default DoubleSupplierChain and(IntToDoubleFunction func)
+        {
+            return () -> func.applyAsDouble(getAsInt());
+        }
+
+        public default IntSupplier withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default IntSupplierChain memoized()
+        {
+            Memoizer<Integer> memoizer = new Memoizer<>(this::getAsInt);
+            return memoizer::get;
+        }
+
+        public default IntSupplierChain memoized(Duration timeToLive, Duration refreshAhead, Executor executor)
+        {
+            Memoizer<Integer> memoizer = new Memoizer<>(this::getAsInt, timeToLive, refreshAhead, executor);
+            return memoizer::get;
+        }
+
+        public default IntSupplierChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return () -> stage.callAsInt(this);
+        }
+    }
+
+    public static interface LongSupplierChain extends LongSupplier
+    {
+        public default RunnableChain and(LongConsumer func)
+        {
+            return () -> func.accept(getAsLong());
+        }
+
+        public default <T> SupplierChain<T> and(LongFunction<T> func)
+        {
+            return () -> func.apply(getAsLong());
+        }
+
+        public default IntSupplierChain and(LongToIntFunction func)
+        {
+            return () -> func.applyAsInt(getAsLong());
+        }
+
+        public default LongSupplierChain and(LongUnaryOperator func)
+        {
+            return () -> func.applyAsLong(getAsLong());
+        }
+
+        public default DoubleSupplierChain and(LongToDoubleFunction func)
+        {
+            return () -> func.applyAsDouble(getAsLong());
+        }
+
+        public default LongSupplier withDefault(long defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default LongSupplierChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return () -> stage.callAsLong(this);
+        }
+    }
+
+    public static interface DoubleSupplierChain extends DoubleSupplier
+    {
+        public default RunnableChain and(DoubleConsumer func)
+        {
+            return () -> func.accept(getAsDouble());
+        }
+
+        public default <T> SupplierChain<T> and(DoubleFunction<T> func)
+        {
+            return () -> func.apply(getAsDouble());
+        }
+
+        public default IntSupplierChain and(DoubleToIntFunction func)
+        {
+            return () -> func.applyAsInt(getAsDouble());
+        }
+
+        public default LongSupplierChain and(DoubleToLongFunction func)
+        {
+            return () -> func.applyAsLong(getAsDouble());
+        }
+
+        public default DoubleSupplierChain and(DoubleUnaryOperator func)
+        {
+            return () -> func.applyAsDouble(getAsDouble());
+        }
+
+        public default DoubleSupplier withDefault(double defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default DoubleSupplierChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return () -> stage.callAsDouble(this);
+        }
+    }
+
+    public static interface FunctionChain<T, R> extends Function<T, R>
+    {
+        public default ConsumerChain<T> and(Consumer<? super R> func)
+        {
+            return arg -> func.accept(apply(arg));
+        }
+
+        public default <S> FunctionChain<T, S> and(Function<? super R, S> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default FunctionChain<T, R> and(UnaryOperator<R> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default ToIntFunctionChain<T> and(ToIntFunction<? super R> func)
+        {
+            return arg -> func.applyAsInt(apply(arg));
+        }
+
+        public default ToLongFunctionChain<T> and(ToLongFunction<? super R> func)
+        {
+            return arg -> func.applyAsLong(apply(arg));
+        }
+
+        public default ToDoubleFunctionChain<T> and(ToDoubleFunction<? super R> func)
+        {
+            return arg -> func.applyAsDouble(apply(arg));
+        }
+
+        public default Function<T, R> withDefault(R defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default NullSafeFunctionChain<T, R> nullSafe()
+        {
+            return arg -> arg == null ? null : apply(arg);
+        }
+
+        public default FunctionChain<T, R> cached(int maximumSize)
+        {
+            return cached(maximumSize, new CacheStats());
+        }
+
+        public default FunctionChain<T, R> cached(int maximumSize, CacheStats stats)
+        {
+            Function<T, R> cache = ResultCache.cache(this, maximumSize, stats);
+            return cache::apply;
+        }
+
+        public default void applyAll(T[] src, R[] dst)
+        {
+            applyAll(src, 0, dst, 0, src.length);
+        }
+
+        public default void applyAll(T[] src, int srcPos, R[] dst, int dstPos, int length)
+        {
+            Objects.checkFromIndexSize(srcPos, length, src.length);
+            Objects.checkFromIndexSize(dstPos, length, dst.length);
+            for (int i = 0; i < length; i++)
+                dst[dstPos + i] = apply(src[srcPos + i]);
+        }
+
+        public default void applyAll(List<? extends T> src, R[] dst)
+        {
+            Objects.checkFromIndexSize(0, src.size(), dst.length);
+            int i = 0;
+            for (T arg : src)
+                dst[i++] = apply(arg);
+        }
+
+        /**
+         * Applies the chain to every element of {@code src} in parallel on {@code pool}, writing the results to the
+         * same indices of {@code dst}. The stages are called concurrently from the pool's threads, so they must be
+         * thread-safe.
+         */
+        public default void parallelApplyAll(T[] src, R[] dst, ForkJoinPool pool)
+        {
+            Objects.checkFromIndexSize(0, src.length, dst.length);
+            ParallelBulk.run(pool, src.length, (from, length) -> applyAll(src, from, dst, from, length));
+        }
+
+        public default void parallelApplyAll(List<? extends T> src, R[] dst, ForkJoinPool pool)
+        {
+            Object[] args = src.toArray();
+            Objects.checkFromIndexSize(0, args.length, dst.length);
+            ParallelBulk.run(pool, args.length, (from, length) -> applyAll(args, dst, from, length));
+        }
+
+        /**
+         * Applies the chain to part of an array copied from a list of {@code T}, which is not itself a {@code T[]}.
+         */
+        @SuppressWarnings("unchecked")
+        private void applyAll(Object[] src, R[] dst, int from, int length)
+        {
+            for (int i = from, end = from + length; i < end; i++)
+                dst[i] = apply((T) src[i]);
+        }
+
+        public default AsyncFunctionChain<T, R> async()
+        {
+            return AsyncChain.of(this);
+        }
+
+        public default AsyncFunctionChain<T, R> asyncBlocking()
+        {
+            return AsyncChain.ofBlocking(this);
+        }
+
+        public default AsyncFunctionChain<T, R> async(Executor executor)
+        {
+            return AsyncChain.of(this, executor);
+        }
+
+        public default FunctionChain<T, R> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.call(() -> apply(arg));
+        }
+
+        /**
+         * Gets a chain that runs each call on {@code executor} and, if it has not finished within {@code delay}, starts
+         * a second attempt and returns whichever result arrives first. The stages must be safe to call twice for the
+         * same argument.
+         */
+        public default FunctionChain<T, R> hedged(Duration delay, Executor executor)
+        {
+            return hedged(delay, executor, new HedgeStats());
+        }
+
+        public default FunctionChain<T, R> hedged(Duration delay, Executor executor, HedgeStats stats)
+        {
+            long delayNanos = Hedging.delayNanos(delay);
+            Objects.requireNonNull(executor);
+            Objects.requireNonNull(stats);
+            return arg -> Hedging.hedge(() -> apply(arg), delayNanos, executor, stats);
+        }
+
+        /**
+         * Gets a chain that runs each call on {@code executor} and returns {@code fallback} if it has not finished
+         * within {@code timeout}, interrupting the call.
+         */
+        public default FunctionChain<T, R> withDeadline(Duration timeout, R fallback, Executor executor)
+        {
+            long timeoutNanos = Hedging.delayNanos(timeout);
+            Objects.requireNonNull(executor);
+            return arg -> Hedging.withDeadline(() -> apply(arg), timeoutNanos, fallback, executor);
+        }
+
+        /**
+         * Gets an equivalent chain whose stages are called from a class generated for this chain alone, so that the
+         * calls between them stay monomorphic and can be inlined however many other chains are in use. Only flat
+         * chains keep their stages; for any other chain just the call into it gets a class of its own. Stages added
+         * to the compiled chain are composed in the usual way. Every call defines new classes, so a chain should be
+         * compiled once and the result kept, not compiled each time it is used.
+         */
+        public default FunctionChain<T, R> compile()
+        {
+            return ChainCompiler.compile(this);
+        }
+
+        /**
+         * Returns a stream of the results of applying the chain to each element of {@code source}, as a single stage
+         * that keeps the source's order and parallelism.
+         */
+        public default Stream<R> applyTo(Stream<? extends T> source)
+        {
+            return ChainSpliterators.map(source, this, false);
+        }
+
+        public default Stream<R> applyTo(Stream<? extends T> source, R defaultIfNull)
+        {
+            return ChainSpliterators.map(source, withDefault(defaultIfNull), false);
+        }
+    }
+
+    public static interface IntFunctionChain<T> extends IntFunction<T>
+    {
+        public default IntConsumerChain and(Consumer<T> func)
+        {
+            return arg -> func.accept(apply(arg));
+        }
+
+        public default <R> IntFunctionChain<R> and(Function<? super T, R> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default IntFunctionChain<T> and(UnaryOperator<T> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default IntUnaryOperatorChain and(ToIntFunction<? super T> func)
+        {
+            return arg -> func.applyAsInt(apply(arg));
+        }
+
+        public default IntToLongFunctionChain and(ToLongFunction<? super T> func)
+        {
+            return arg -> func.applyAsLong(apply(arg));
+        }
+
+        public default IntToDoubleFunctionChain and(ToDoubleFunction<? super T> func)
+        {
+            return arg -> func.applyAsDouble(apply(arg));
+        }
+
+        public default IntFunction<T> withDefault(T defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default NullSafeIntFunctionChain<T> nullSafe()
+        {
+            return this::apply;
+        }
+
+        public default IntFunctionChain<T> cached(int maximumSize)
+        {
+            return cached(maximumSize, new CacheStats());
+        }
+
+        public default IntFunctionChain<T> cached(int maximumSize, CacheStats stats)
+        {
+            IntFunction<T> cache = ResultCache.cache(this, maximumSize, stats);
+            return cache::apply;
+        }
+
+        public default IntFunctionChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.call(() -> apply(arg));
+        }
+    }
+
+    public static interface UnaryOperatorChain<T> extends UnaryOperator<T>
+    {
+        public default ConsumerChain<T> and(Consumer<? super T> func)
+        {
+            return arg -> func.accept(apply(arg));
+        }
+
+        public default <R> FunctionChain<T, R> and(Function<? super T, R> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default UnaryOperatorChain<T> and(UnaryOperator<T> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default ToIntFunctionChain<T> and(ToIntFunction<T> func)
+        {
+            return arg -> func.applyAsInt(apply(arg));
+        }
+
+        public default ToLongFunctionChain<T> and(ToLongFunction<? super T> func)
+        {
+            return arg -> func.applyAsLong(apply(arg));
+        }
+
+        public default ToDoubleFunctionChain<T> and(ToDoubleFunction<? super T> func)
+        {
+            return arg -> func.applyAsDouble(apply(arg));
+        }
+
+        public default UnaryOperator<T> withDefault(T defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default NullSafeUnaryOperatorChain<T> nullSafe()
+        {
+            return arg -> arg == null ? null : apply(arg);
+        }
+
+        public default UnaryOperatorChain<T> cached(int maximumSize)
+        {
+            return cached(maximumSize, new CacheStats());
+        }
+
+        public default UnaryOperatorChain<T> cached(int maximumSize, CacheStats stats)
+        {
+            Function<T, T> cache = ResultCache.cache(this, maximumSize, stats);
+            return cache::apply;
+        }
+
+        public default UnaryOperatorChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.call(() -> apply(arg));
+        }
+
+        /**
+         * Gets an equivalent compiled chain, as for {@link FunctionChain#compile()}.
+         */
+        public default UnaryOperatorChain<T> compile()
+        {
+            return ChainCompiler.compile(this);
+        }
+    }
+
+    public static interface IntUnaryOperatorChain extends IntUnaryOperator
+    {
+        public default IntConsumerChain and(IntConsumer func)
+        {
+            return arg -> func.accept(applyAsInt(arg));
+        }
+
+        public default <T> IntFunctionChain<T> and(IntFunction<T> func)
+        {
+            return arg -> func.apply(applyAsInt(arg));
+        }
+
+        public default IntUnaryOperatorChain and(IntUnaryOperator func)
+        {
+            return arg -> func.applyAsInt(applyAsInt(arg));
+        }
+
+        public default IntToLongFunctionChain and(IntToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsInt(arg));
+        }
+
+        public default IntToDoubleFunctionChain and(IntToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsInt(arg));
+        }
+
+        public default IntUnaryOperator withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default void applyAll(int[] src, int[] dst)
+        {
+            applyAll(src, 0, dst, 0, src.length);
+        }
+
+        public default void applyAll(int[] src, int srcPos, int[] dst, int dstPos, int length)
+        {
+            Objects.checkFromIndexSize(srcPos, length, src.length);
+            Objects.checkFromIndexSize(dstPos, length, dst.length);
+            for (int i = 0; i < length; i++)
+                dst[dstPos + i] = applyAsInt(src[srcPos + i]);
+        }
+
+        /**
+         * Applies the chain to every element of {@code src} in parallel, as for
+         * {@link FunctionChain#parallelApplyAll(Object[], Object[], ForkJoinPool)}.
+         */
+        public default void parallelApplyAll(int[] src, int[] dst, ForkJoinPool pool)
+        {
+            Objects.checkFromIndexSize(0, src.length, dst.length);
+            ParallelBulk.run(pool, src.length, (from, length) -> applyAll(src, from, dst, from, length));
+        }
+
+        public default IntUnaryOperatorChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsInt(() -> applyAsInt(arg));
+        }
+
+        /**
+         * Gets the stages of this chain, in order. Only flat chains keep their stages; any other chain is reported as a
+         * single stage.
+         */
+        public default List<IntUnaryOperator> stages()
+        {
+            return List.of(this);
+        }
+
+        /**
+         * Gets an equivalent chain with identity stages removed and adjacent {@link IntOps} stages fused. Only flat
+         * chains can be optimised; any other chain returns itself.
+         */
+        public default IntUnaryOperatorChain optimized()
+        {
+            return this;
+        }
+
+        /**
+         * Gets an equivalent compiled chain, as for {@link FunctionChain#compile()}.
+         */
+        public default IntUnaryOperatorChain compile()
+        {
+            return ChainCompiler.compile(this);
+        }
+
+        public default IntStream applyTo(IntStream source)
+        {
+            return ChainSpliterators.map(source, this, null);
+        }
+
+        public default IntStream applyTo(IntStream source, int defaultIfNull)
+        {
+            return ChainSpliterators.map(source, this, withDefault(defaultIfNull));
+        }
+    }
+
+    public static interface ToIntFunctionChain<T> extends ToIntFunction<T>
+    {
+        public default ConsumerChain<T> and(IntConsumer func)
+        {
+            return arg -> func.accept(applyAsInt(arg));
+        }
+
+        public default <R> FunctionChain<T, R> and(IntFunction<R> func)
+        {
+            return arg -> func.apply(applyAsInt(arg));
+        }
+
+        public default ToIntFunctionChain<T> and(IntUnaryOperator func)
+        {
+            return arg -> func.applyAsInt(applyAsInt(arg));
+        }
+
+        public default ToLongFunctionChain<T> and(IntToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsInt(arg));
+        }
+
+        public default ToDoubleFunctionChain<T> and(IntToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsInt(arg));
+        }
+
+        public default ToIntFunction<T> withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default ToIntFunctionChain<T> cached(int maximumSize)
+        {
+            return cached(maximumSize, new CacheStats());
+        }
+
+        public default ToIntFunctionChain<T> cached(int maximumSize, CacheStats stats)
+        {
+            ToIntFunction<T> cache = ResultCache.cache(this, maximumSize, stats);
+            return cache::applyAsInt;
+        }
+
+        public default void applyAll(T[] src, int[] dst)
+        {
+            applyAll(src, 0, dst, 0, src.length);
+        }
+
+        public default void applyAll(T[] src, int srcPos, int[] dst, int dstPos, int length)
+        {
+            Objects.checkFromIndexSize(srcPos, length, src.length);
+            Objects.checkFromIndexSize(dstPos, length, dst.length);
+            for (int i = 0; i < length; i++)
+                dst[dstPos + i] = applyAsInt(src[srcPos + i]);
+        }
+
+        public default void applyAll(List<? extends T> src, int[] dst)
+        {
+            Objects.checkFromIndexSize(0, src.size(), dst.length);
+            int i = 0;
+            for (T arg : src)
+                dst[i++] = applyAsInt(arg);
+        }
+
+        /**
+         * Applies the chain to every element of {@code src} in parallel, as for
+         * {@link FunctionChain#parallelApplyAll(Object[], Object[], ForkJoinPool)}.
+         */
+        public default void parallelApplyAll(T[] src, int[] dst, ForkJoinPool pool)
+        {
+            Objects.checkFromIndexSize(0, src.length, dst.length);
+            ParallelBulk.run(pool, src.length, (from, length) -> applyAll(src, from, dst, from, length));
+        }
+
+        public default void parallelApplyAll(List<? extends T> src, int[] dst, ForkJoinPool pool)
+        {
+            Object[] args = src.toArray();
+            Objects.checkFromIndexSize(0, args.length, dst.length);
+            ParallelBulk.run(pool, args.length, (from, length) -> applyAll(args, dst, from, length));
+        }
+
+        /**
+         * Applies the chain to part of an array copied from a list of {@code T}, which is not itself a {@code T[]}.
+         */
+        @SuppressWarnings("unchecked")
+        private void applyAll(Object[] src, int[] dst, int from, int length)
+        {
+            for (int i = from, end = from + length; i < end; i++)
+                dst[i] = applyAsInt((T) src[i]);
+        }
+
+        public default ToIntFunctionChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsInt(() -> applyAsInt(arg));
+        }
+
+        public default IntStream applyTo(Stream<? extends T> source)
+        {
+            return ChainSpliterators.mapToInt(source, this);
+        }
+
+        public default IntStream applyTo(Stream<? extends T> source, int defaultIfNull)
+        {
+            return ChainSpliterators.mapToInt(source, withDefault(defaultIfNull));
+        }
+    }
+
+    public static interface ToLongFunctionChain<T> extends ToLongFunction<T>
+    {
+        public default ConsumerChain<T> and(LongConsumer func)
+        {
+            return arg -> func.accept(applyAsLong(arg));
+        }
+
+        public default <R> FunctionChain<T, R> and(LongFunction<R> func)
+        {
+            return arg -> func.apply(applyAsLong(arg));
+        }
+
+        public default ToIntFunctionChain<T> and(LongToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsLong(arg));
+        }
+
+        public default ToLongFunctionChain<T> and(LongUnaryOperator func)
+        {
+            return arg -> func.applyAsLong(applyAsLong(arg));
+        }
+
+        public default ToDoubleFunctionChain<T> and(LongToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsLong(arg));
+        }
+
+        public default ToLongFunction<T> withDefault(long defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default ToLongFunctionChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsLong(() -> applyAsLong(arg));
+        }
+    }
+
+    public static interface ToDoubleFunctionChain<T> extends ToDoubleFunction<T>
+    {
+        public default ConsumerChain<T> and(DoubleConsumer func)
+        {
+            return arg -> func.accept(applyAsDouble(arg));
+        }
+
+        public default <R> FunctionChain<T, R> and(DoubleFunction<R> func)
+        {
+            return arg -> func.apply(applyAsDouble(arg));
+        }
+
+        public default ToIntFunctionChain<T> and(DoubleToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsDouble(arg));
+        }
+
+        public default ToLongFunctionChain<T> and(DoubleToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsDouble(arg));
+        }
+
+        public default ToDoubleFunctionChain<T> and(DoubleUnaryOperator func)
+        {
+            return arg -> func.applyAsDouble(applyAsDouble(arg));
+        }
+
+        public default ToDoubleFunction<T> withDefault(double defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default ToDoubleFunctionChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsDouble(() -> applyAsDouble(arg));
+        }
+    }
+
+    public static interface IntToLongFunctionChain extends IntToLongFunction
+    {
+        public default IntConsumerChain and(LongConsumer func)
+        {
+            return arg -> func.accept(applyAsLong(arg));
+        }
+
+        public default <T> IntFunctionChain<T> and(LongFunction<T> func)
+        {
+            return arg -> func.apply(applyAsLong(arg));
+        }
+
+        public default IntUnaryOperatorChain and(LongToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsLong(arg));
+        }
+
+        public default IntToLongFunctionChain and(LongUnaryOperator func)
+        {
+            return arg -> func.applyAsLong(applyAsLong(arg));
+        }
+
+        public default IntToDoubleFunctionChain and(LongToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsLong(arg));
+        }
+
+        public default IntToLongFunction withDefault(long defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default IntToLongFunctionChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsLong(() -> applyAsLong(arg));
+        }
+    }
+
+    public static interface IntToDoubleFunctionChain extends IntToDoubleFunction
+    {
+        public default IntConsumerChain and(DoubleConsumer func)
+        {
+            return arg -> func.accept(applyAsDouble(arg));
+        }
+
+        public default <T> IntFunctionChain<T> and(DoubleFunction<T> func)
+        {
+            return arg -> func.apply(applyAsDouble(arg));
+        }
+
+        public default IntUnaryOperatorChain and(DoubleToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsDouble(arg));
+        }
+
+        public default IntToLongFunctionChain and(DoubleToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsDouble(arg));
+        }
+
+        public default IntToDoubleFunctionChain and(DoubleUnaryOperator func)
+        {
+            return arg -> func.applyAsDouble(applyAsDouble(arg));
+        }
+
+        public default IntToDoubleFunction withDefault(double defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default IntToDoubleFunctionChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsDouble(() -> applyAsDouble(arg));
+        }
+    }
+
+    public static interface LongFunctionChain<T> extends LongFunction<T>
+    {
+        public default LongConsumerChain and(Consumer<? super T> func)
+        {
+            return arg -> func.accept(apply(arg));
+        }
+
+        public default <R> LongFunctionChain<R> and(Function<? super T, R> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default LongFunctionChain<T> and(UnaryOperator<T> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default LongToIntFunctionChain and(ToIntFunction<? super T> func)
+        {
+            return arg -> func.applyAsInt(apply(arg));
+        }
+
+        public default LongUnaryOperatorChain and(ToLongFunction<? super T> func)
+        {
+            return arg -> func.applyAsLong(apply(arg));
+        }
+
+        public default LongToDoubleFunctionChain and(ToDoubleFunction<? super T> func)
+        {
+            return arg -> func.applyAsDouble(apply(arg));
+        }
+
+        public default LongFunction<T> withDefault(T defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default LongFunctionChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.call(() -> apply(arg));
+        }
+    }
+
+    public static interface LongToIntFunctionChain extends LongToIntFunction
+    {
+        public default LongConsumerChain and(IntConsumer func)
+        {
+            return arg -> func.accept(applyAsInt(arg));
+        }
+
+        public default <T> LongFunctionChain<T> and(IntFunction<T> func)
+        {
+            return arg -> func.apply(applyAsInt(arg));
+        }
+
+        public default LongToIntFunctionChain and(IntUnaryOperator func)
+        {
+            return arg -> func.applyAsInt(applyAsInt(arg));
+        }
+
+        public default LongUnaryOperatorChain and(IntToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsInt(arg));
+        }
+
+        public default LongToDoubleFunctionChain and(IntToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsInt(arg));
+        }
+
+        public default LongToIntFunction withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default LongToIntFunctionChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsInt(() -> applyAsInt(arg));
+        }
+    }
+
+    public static interface LongUnaryOperatorChain extends LongUnaryOperator
+    {
+        public default LongConsumerChain and(LongConsumer func)
+        {
+            return arg -> func.accept(applyAsLong(arg));
+        }
+
+        public default <T> LongFunctionChain<T> and(LongFunction<T> func)
+        {
+            return arg -> func.apply(applyAsLong(arg));
+        }
+
+        public default LongToIntFunctionChain and(LongToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsLong(arg));
+        }
+
+        public default LongUnaryOperatorChain and(LongUnaryOperator func)
+        {
+            return arg -> func.applyAsLong(applyAsLong(arg));
+        }
+
+        public default LongToDoubleFunctionChain and(LongToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsLong(arg));
+        }
+
+        public default LongUnaryOperator withDefault(long defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default LongUnaryOperatorChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsLong(() -> applyAsLong(arg));
+        }
+    }
+
+    public static interface LongToDoubleFunctionChain extends LongToDoubleFunction
+    {
+        public default LongConsumerChain and(DoubleConsumer func)
+        {
+            return arg -> func.accept(applyAsDouble(arg));
+        }
+
+        public default <T> LongFunctionChain<T> and(DoubleFunction<T> func)
+        {
+            return arg -> func.apply(applyAsDouble(arg));
+        }
+
+        public default LongToIntFunctionChain and(DoubleToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsDouble(arg));
+        }
+
+        public default LongUnaryOperatorChain and(DoubleToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsDouble(arg));
+        }
+
+        public default LongToDoubleFunctionChain and(DoubleUnaryOperator func)
+        {
+            return arg -> func.applyAsDouble(applyAsDouble(arg));
+        }
+
+        public default LongToDoubleFunction withDefault(double defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default LongToDoubleFunctionChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsDouble(() -> applyAsDouble(arg));
+        }
+    }
+
+    public static interface DoubleFunctionChain<T> extends DoubleFunction<T>
+    {
+        public default DoubleConsumerChain and(Consumer<? super T> func)
+        {
+            return arg -> func.accept(apply(arg));
+        }
+
+        public default <R> DoubleFunctionChain<R> and(Function<? super T, R> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default DoubleFunctionChain<T> and(UnaryOperator<T> func)
+        {
+            return arg -> func.apply(apply(arg));
+        }
+
+        public default DoubleToIntFunctionChain and(ToIntFunction<? super T> func)
+        {
+            return arg -> func.applyAsInt(apply(arg));
+        }
+
+        public default DoubleToLongFunctionChain and(ToLongFunction<? super T> func)
+        {
+            return arg -> func.applyAsLong(apply(arg));
+        }
+
+        public default DoubleUnaryOperatorChain and(ToDoubleFunction<? super T> func)
+        {
+            return arg -> func.applyAsDouble(apply(arg));
+        }
+
+        public default DoubleFunction<T> withDefault(T defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default DoubleFunctionChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.call(() -> apply(arg));
+        }
+    }
+
+    public static interface DoubleToIntFunctionChain extends DoubleToIntFunction
+    {
+        public default DoubleConsumerChain and(IntConsumer func)
+        {
+            return arg -> func.accept(applyAsInt(arg));
+        }
+
+        public default <T> DoubleFunctionChain<T> and(IntFunction<T> func)
+        {
+            return arg -> func.apply(applyAsInt(arg));
+        }
+
+        public default DoubleToIntFunctionChain and(IntUnaryOperator func)
+        {
+            return arg -> func.applyAsInt(applyAsInt(arg));
+        }
+
+        public default DoubleToLongFunctionChain and(IntToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsInt(arg));
+        }
+
+        public default DoubleUnaryOperatorChain and(IntToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsInt(arg));
+        }
+
+        public default DoubleToIntFunction withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default DoubleToIntFunctionChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsInt(() -> applyAsInt(arg));
+        }
+    }
+
+    public static interface DoubleToLongFunctionChain extends DoubleToLongFunction
+    {
+        public default DoubleConsumerChain and(LongConsumer func)
+        {
+            return arg -> func.accept(applyAsLong(arg));
+        }
+
+        public default <T> DoubleFunctionChain<T> and(LongFunction<T> func)
+        {
+            return arg -> func.apply(applyAsLong(arg));
+        }
+
+        public default DoubleToIntFunctionChain and(LongToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsLong(arg));
+        }
+
+        public default DoubleToLongFunctionChain and(LongUnaryOperator func)
+        {
+            return arg -> func.applyAsLong(applyAsLong(arg));
+        }
+
+        public default DoubleUnaryOperatorChain and(LongToDoubleFunction func)
+        {
+            return arg -> func.applyAsDouble(applyAsLong(arg));
+        }
+
+        public default DoubleToLongFunction withDefault(long defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default DoubleToLongFunctionChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsLong(() -> applyAsLong(arg));
+        }
+    }
+
+    public static interface DoubleUnaryOperatorChain extends DoubleUnaryOperator
+    {
+        public default DoubleConsumerChain and(DoubleConsumer func)
+        {
+            return arg -> func.accept(applyAsDouble(arg));
+        }
+
+        public default <T> DoubleFunctionChain<T> and(DoubleFunction<T> func)
+        {
+            return arg -> func.apply(applyAsDouble(arg));
+        }
+
+        public default DoubleToIntFunctionChain and(DoubleToIntFunction func)
+        {
+            return arg -> func.applyAsInt(applyAsDouble(arg));
+        }
+
+        public default DoubleToLongFunctionChain and(DoubleToLongFunction func)
+        {
+            return arg -> func.applyAsLong(applyAsDouble(arg));
+        }
+
+        public default DoubleUnaryOperatorChain and(DoubleUnaryOperator func)
+        {
+            return arg -> func.applyAsDouble(applyAsDouble(arg));
+        }
+
+        public default DoubleUnaryOperator withDefault(double defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default DoubleUnaryOperatorChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.callAsDouble(() -> applyAsDouble(arg));
+        }
+    }
+
+    public static interface BiFunctionChain<T, U, R> extends BiFunction<T, U, R>
+    {
+        public default BiConsumerChain<T, U> and(Consumer<? super R> func)
+        {
+            return (arg1, arg2) -> func.accept(apply(arg1, arg2));
+        }
+
+        public default <S> BiFunctionChain<T, U, S> and(Function<? super R, S> func)
+        {
+            return (arg1, arg2) -> func.apply(apply(arg1, arg2));
+        }
+
+        public default BiFunctionChain<T, U, R> and(UnaryOperator<R> func)
+        {
+            return (arg1, arg2) -> func.apply(apply(arg1, arg2));
+        }
+
+        public default ToIntBiFunctionChain<T, U> and(ToIntFunction<? super R> func)
+        {
+            return (arg1, arg2) -> func.applyAsInt(apply(arg1, arg2));
+        }
+
+        public default BiFunction<T, U, R> withDefault(R defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        /**
+         * Applies the chain to each pair of elements at the same index of {@code src1} and {@code src2}, writing the
+         * results to the same index of {@code dst}.
+         */
+        public default void applyAll(T[] src1, U[] src2, R[] dst)
+        {
+            Objects.checkFromIndexSize(0, src1.length, src2.length);
+            Objects.checkFromIndexSize(0, src1.length, dst.length);
+            for (int i = 0; i < src1.length; i++)
+                dst[i] = apply(src1[i], src2[i]);
+        }
+
+        public default BiFunctionChain<T, U, R> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return (arg1, arg2) -> stage.call(() -> apply(arg1, arg2));
+        }
+    }
+
+    public static interface ToIntBiFunctionChain<T, U> extends ToIntBiFunction<T, U>
+    {
+        public default BiConsumerChain<T, U> and(IntConsumer func)
+        {
+            return (arg1, arg2) -> func.accept(applyAsInt(arg1, arg2));
+        }
+
+        public default <R> BiFunctionChain<T, U, R> and(IntFunction<R> func)
+        {
+            return (arg1, arg2) -> func.apply(applyAsInt(arg1, arg2));
+        }
+
+        public default ToIntBiFunctionChain<T, U> and(IntUnaryOperator func)
+        {
+            return (arg1, arg2) -> func.applyAsInt(applyAsInt(arg1, arg2));
+        }
+
+        public default ToIntBiFunction<T, U> withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default void applyAll(T[] src1, U[] src2, int[] dst)
+        {
+            Objects.checkFromIndexSize(0, src1.length, src2.length);
+            Objects.checkFromIndexSize(0, src1.length, dst.length);
+            for (int i = 0; i < src1.length; i++)
+                dst[i] = applyAsInt(src1[i], src2[i]);
+        }
+
+        public default ToIntBiFunctionChain<T, U> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return (arg1, arg2) -> stage.callAsInt(() -> applyAsInt(arg1, arg2));
+        }
+    }
+
+    public static interface IntBinaryOperatorChain extends IntBinaryOperator
+    {
+        public default IntBinaryOperatorChain and(IntUnaryOperator func)
+        {
+            return (arg1, arg2) -> func.applyAsInt(applyAsInt(arg1, arg2));
+        }
+
+        public default IntBinaryOperator withDefault(int defaultIfNull)
+        {
+            return nullTolerant(this, defaultIfNull);
+        }
+
+        public default void applyAll(int[] src1, int[] src2, int[] dst)
+        {
+            Objects.checkFromIndexSize(0, src1.length, src2.length);
+            Objects.checkFromIndexSize(0, src1.length, dst.length);
+            for (int i = 0; i < src1.length; i++)
+                dst[i] = applyAsInt(src1[i], src2[i]);
+        }
+
+        public default IntBinaryOperatorChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return (arg1, arg2) -> stage.callAsInt(() -> applyAsInt(arg1, arg2));
+        }
     }
 
-    public static <T> Consumer<T> nullTolerant(Consumer<T> func)
+    public static interface NullSafeSupplierChain<T> extends Supplier<T>
     {
-        return of(func).nullTolerant();
-    }
+        public default RunnableChain and(Consumer<? super T> func)
+        {
+            return () ->
+                {
+                    T value = get();
+                    if (value != null)
+                        func.accept(value);
+                };
+        }
 
-    public static IntConsumer nullTolerant(IntConsumer func)
-    {
-        return of(func).nullTolerant();
-    }
+        public default <R> NullSafeSupplierChain<R> and(Function<? super T, R> func)
+        {
+            return () ->
+                {
+                    T value = get();
+                    return value == null ? null : func.apply(value);
+                };
+        }
 
-    private static <T> Supplier<T> nullTolerant(Supplier<T> func, T defaultIfNull)
-    {
-        return () ->
-            {
-                try
+        public default NullSafeSupplierChain<T> and(UnaryOperator<T> func)
+        {
+            return () ->
                 {
-                    return func.get();
-                }
-                catch (NullPointerException ex)
+                    T value = get();
+                    return value == null ? null : func.apply(value);
+                };
+        }
+
+        public default SupplierChain<T> withDefault(T defaultIfNull)
+        {
+            return () ->
                 {
-                    return defaultIfNull;
-                }
-            };
-    }
+                    T value = get();
+                    return value == null ? defaultIfNull : value;
+                };
+        }
 
-    private static <T> IntSupplier nullTolerant(IntSupplier func, int defaultIfNull)
-    {
-        return () ->
+        public default NullSafeSupplierChain<T> instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            NullSafeSupplierChain<T> chain = this;
+            return new NullSafeSupplierChain<>()
             {
-                try
+                @Override
+                public T get()
                 {
-                    return func.getAsInt();
+                    return stage.call(() -> chain.get());
                 }
-                catch (NullPointerException ex)
+
+                @Override
+                public SupplierChain<T> withDefault(T defaultIfNull)
                 {
-                    return defaultIfNull;
+                    return () ->
+                        {
+                            T value = get();
+                            if (value != null)
+                                return value;
+                            stage.fallback();
+                            return defaultIfNull;
+                        };
                 }
             };
+        }
     }
 
-    public static interface SupplierChain<T> extends Supplier<T>
+    public static interface NullSafeFunctionChain<T, R> extends Function<T, R>
     {
-        default RunnableChain and(Consumer<? super T> func)
+        public default ConsumerChain<T> and(Consumer<? super R> func)
         {
-            return () -> func.accept(get());
+            return arg ->
+                {
+                    R value = apply(arg);
+                    if (value != null)
+                        func.accept(value);
+                };
         }
 
-        default <R> SupplierChain<R> and(Function<? super T, R> func)
+        public default <S> NullSafeFunctionChain<T, S> and(Function<? super R, S> func)
         {
-            return () -> func.apply(get());
+            return arg ->
+                {
+                    R value = apply(arg);
+                    return value == null ? null : func.apply(value);
+                };
         }
 
-        default SupplierChain<T> and(UnaryOperator<T> func)
+        public default NullSafeFunctionChain<T, R> and(UnaryOperator<R> func)
         {
-            return () -> func.apply(get());
+            return arg ->
+                {
+                    R value = apply(arg);
+                    return value == null ? null : func.apply(value);
+                };
         }
 
-        default IntSupplierChain and(ToIntFunction<? super T> func)
+        public default NullSafeToIntFunctionChain<T> and(ToIntFunction<? super R> func)
         {
-            return () -> func.applyAsInt(get());
+            return (arg, defaultIfNull) ->
+                {
+                    R value = apply(arg);
+                    return value == null ? defaultIfNull : func.applyAsInt(value);
+                };
         }
 
-        default Supplier<T> withDefault(T defaultIfNull)
+        public default NullSafeToLongFunctionChain<T> and(ToLongFunction<? super R> func)
         {
-            return nullTolerant(this, defaultIfNull);
+            return (arg, defaultIfNull) ->
+                {
+                    R value = apply(arg);
+                    return value == null ? defaultIfNull : func.applyAsLong(value);
+                };
         }
-    }
 
-    public static interface IntSupplierChain extends IntSupplier
-    {
-        public default RunnableChain and(IntConsumer func)
+        public default NullSafeToDoubleFunctionChain<T> and(ToDoubleFunction<? super R> func)
         {
-            return () -> func.accept(getAsInt());
+            return (arg, defaultIfNull) ->
+                {
+                    R value = apply(arg);
+                    return value == null ? defaultIfNull : func.applyAsDouble(value);
+                };
         }
 
-        public default <T> SupplierChain<T> and(IntFunction<T> func)
+        public default FunctionChain<T, R> withDefault(R defaultIfNull)
         {
-            return () -> func.apply(getAsInt());
+            return arg ->
+                {
+                    R value = apply(arg);
+                    return value == null ? defaultIfNull : value;
+                };
         }
 
-        public default IntSupplierChain and(IntUnaryOperator func)
+        public default NullSafeFunctionChain<T, R> instrumented(String name, ChainMetrics metrics)
         {
-            return () -> func.applyAsInt(getAsInt());
+            Stage stage = metrics.stage(name);
+            NullSafeFunctionChain<T, R> chain = this;
+            return new NullSafeFunctionChain<>()
+            {
+                @Override
+                public R apply(T arg)
+                {
+                    return stage.call(() -> chain.apply(arg));
+                }
+
+                @Override
+                public FunctionChain<T, R> withDefault(R defaultIfNull)
+                {
+                    return arg ->
+                        {
+                            R value = apply(arg);
+                            if (value != null)
+                                return value;
+                            stage.fallback();
+                            return defaultIfNull;
+                        };
+                }
+            };
         }
 
-        public default IntSupplier withDefault(int defaultIfNull)
+        /**
+         * Returns a stream of the results of applying the chain to each element of {@code source}, leaving out the
+         * elements for which it short-circuited to null.
+         */
+        public default Stream<R> applyTo(Stream<? extends T> source)
         {
-            return nullTolerant(this, defaultIfNull);
+            return ChainSpliterators.map(source, this, true);
         }
     }
 
-    public static interface FunctionChain<T, R> extends Function<T, R>
+    public static interface NullSafeIntFunctionChain<T> extends IntFunction<T>
     {
-        public default ConsumerChain<T> and(Consumer<? super R> func)
+        public default IntConsumerChain and(Consumer<? super T> func)
         {
-            return arg -> func.accept(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    if (value != null)
+                        func.accept(value);
+                };
         }
 
-        public default <S> FunctionChain<T, S> and(Function<? super R, S> func)
+        public default <R> NullSafeIntFunctionChain<R> and(Function<? super T, R> func)
         {
-            return arg -> func.apply(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    return value == null ? null : func.apply(value);
+                };
         }
 
-        public default FunctionChain<T, R> and(UnaryOperator<R> func)
+        public default NullSafeIntFunctionChain<T> and(UnaryOperator<T> func)
         {
-            return arg -> func.apply(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    return value == null ? null : func.apply(value);
+                };
         }
 
-        public default ToIntFunctionChain<T> and(ToIntFunction<? super R> func)
+        public default IntFunctionChain<T> withDefault(T defaultIfNull)
         {
-            return arg -> func.applyAsInt(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    return value == null ? defaultIfNull : value;
+                };
         }
 
-        public default Function<T, R> withDefault(R defaultIfNull)
+        public default NullSafeIntFunctionChain<T> instrumented(String name, ChainMetrics metrics)
         {
-            return arg -> nullTolerant(() -> apply(arg), defaultIfNull).get();
+            Stage stage = metrics.stage(name);
+            NullSafeIntFunctionChain<T> chain = this;
+            return new NullSafeIntFunctionChain<>()
+            {
+                @Override
+                public T apply(int arg)
+                {
+                    return stage.call(() -> chain.apply(arg));
+                }
+
+                @Override
+                public IntFunctionChain<T> withDefault(T defaultIfNull)
+                {
+                    return arg ->
+                        {
+                            T value = apply(arg);
+                            if (value != null)
+                                return value;
+                            stage.fallback();
+                            return defaultIfNull;
+                        };
+                }
+            };
         }
     }
 
-    public static interface IntFunctionChain<T> extends IntFunction<T>
+    public static interface NullSafeUnaryOperatorChain<T> extends UnaryOperator<T>
     {
-        public default IntConsumerChain and(Consumer<T> func)
+        public default ConsumerChain<T> and(Consumer<? super T> func)
         {
-            return arg -> func.accept(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    if (value != null)
+                        func.accept(value);
+                };
         }
 
-        public default <R> IntFunctionChain<R> and(Function<? super T, R> func)
+        public default <R> NullSafeFunctionChain<T, R> and(Function<? super T, R> func)
         {
-            return arg -> func.apply(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    return value == null ? null : func.apply(value);
+                };
         }
 
-        public default IntFunctionChain<T> and(UnaryOperator<T> func)
+        public default NullSafeUnaryOperatorChain<T> and(UnaryOperator<T> func)
         {
-            return arg -> func.apply(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    return value == null ? null : func.apply(value);
+                };
         }
 
-        public default IntUnaryOperatorChain and(ToIntFunction<? super T> func)
+        public default NullSafeToIntFunctionChain<T> and(ToIntFunction<? super T> func)
         {
-            return arg -> func.applyAsInt(apply(arg));
+            return (arg, defaultIfNull) ->
+                {
+                    T value = apply(arg);
+                    return value == null ? defaultIfNull : func.applyAsInt(value);
+                };
         }
 
-        public default IntFunction<T> withDefault(T defaultIfNull)
+        public default NullSafeToLongFunctionChain<T> and(ToLongFunction<? super T> func)
         {
-            return arg -> nullTolerant(() -> apply(arg), defaultIfNull).get();
+            return (arg, defaultIfNull) ->
+                {
+                    T value = apply(arg);
+                    return value == null ? defaultIfNull : func.applyAsLong(value);
+                };
         }
-    }
 
-    public static interface UnaryOperatorChain<T> extends UnaryOperator<T>
-    {
-        public default ConsumerChain<T> and(Consumer<? super T> func)
+        public default NullSafeToDoubleFunctionChain<T> and(ToDoubleFunction<? super T> func)
         {
-            return arg -> func.accept(apply(arg));
+            return (arg, defaultIfNull) ->
+                {
+                    T value = apply(arg);
+                    return value == null ? defaultIfNull : func.applyAsDouble(value);
+                };
         }
 
-        public default <R> FunctionChain<T, R> and(Function<? super T, R> func)
+        public default UnaryOperatorChain<T> withDefault(T defaultIfNull)
         {
-            return arg -> func.apply(apply(arg));
+            return arg ->
+                {
+                    T value = apply(arg);
+                    return value == null ? defaultIfNull : value;
+                };
         }
 
-        public default UnaryOperatorChain<T> and(UnaryOperator<T> func)
+        public default NullSafeUnaryOperatorChain<T> instrumented(String name, ChainMetrics metrics)
         {
-            return arg -> func.apply(apply(arg));
-        }
+            Stage stage = metrics.stage(name);
+            NullSafeUnaryOperatorChain<T> chain = this;
+            return new NullSafeUnaryOperatorChain<>()
+            {
+                @Override
+                public T apply(T arg)
+                {
+                    return stage.call(() -> chain.apply(arg));
+                }
 
-        public default ToIntFunctionChain<T> and(ToIntFunction<T> func)
-        {
-            return arg -> func.applyAsInt(apply(arg));
+                @Override
+                public UnaryOperatorChain<T> withDefault(T defaultIfNull)
+                {
+                    return arg ->
+                        {
+                            T value = apply(arg);
+                            if (value != null)
+                                return value;
+                            stage.fallback();
+                            return defaultIfNull;
+                        };
+                }
+            };
         }
+    }
 
-        public default UnaryOperator<T> withDefault(T defaultIfNull)
+    /**
+     * The result of ending a null-safe chain with a function to int. As an int cannot be null, it is only applied once
+     * the value to return when the chain short-circuits is known.
+     */
+    public static interface NullSafeToIntFunctionChain<T>
+    {
+        int applyAsInt(T arg, int defaultIfNull);
+
+        public default ToIntFunctionChain<T> withDefault(int defaultIfNull)
         {
-            return arg -> nullTolerant(() -> apply(arg), defaultIfNull).get();
+            return arg -> applyAsInt(arg, defaultIfNull);
         }
     }
 
-    public static interface IntUnaryOperatorChain extends IntUnaryOperator
+    public static interface NullSafeToLongFunctionChain<T>
     {
-        public default IntConsumerChain and(IntConsumer func)
+        long applyAsLong(T arg, long defaultIfNull);
+
+        public default ToLongFunctionChain<T> withDefault(long defaultIfNull)
         {
-            return arg -> func.accept(applyAsInt(arg));
+            return arg -> applyAsLong(arg, defaultIfNull);
         }
+    }
 
-        public default <T> IntFunctionChain<T> and(IntFunction<T> func)
+    public static interface NullSafeToDoubleFunctionChain<T>
+    {
+        double applyAsDouble(T arg, double defaultIfNull);
+
+        public default ToDoubleFunctionChain<T> withDefault(double defaultIfNull)
         {
-            return arg -> func.apply(applyAsInt(arg));
+            return arg -> applyAsDouble(arg, defaultIfNull);
         }
+    }
 
-        public default IntUnaryOperatorChain and(IntUnaryOperator func)
+    public static interface ConsumerChain<T> extends Consumer<T>
+    {
+        public default Consumer<T> nullTolerant()
         {
-            return arg -> func.applyAsInt(applyAsInt(arg));
+            return arg ->
+                {
+                    try
+                    {
+                        accept(arg);
+                    }
+                    catch (NullPointerException ex)
+                    {
+                        Stage.caught(ex);
+                    }
+                };
         }
 
-        public default IntUnaryOperator withDefault(int defaultIfNull)
+        public default ConsumerChain<T> instrumented(String name, ChainMetrics metrics)
         {
-            return arg -> nullTolerant(() -> applyAsInt(arg), defaultIfNull).getAsInt();
+            Stage stage = metrics.stage(name);
+            return arg -> stage.run(() -> accept(arg));
         }
     }
 
-    public static interface ToIntFunctionChain<T> extends ToIntFunction<T>
+    public static interface BiConsumerChain<T, U> extends BiConsumer<T, U>
     {
-        public default ConsumerChain<T> and(IntConsumer func)
+        public default BiConsumer<T, U> nullTolerant()
         {
-            return arg -> func.accept(applyAsInt(arg));
+            return (arg1, arg2) ->
+                {
+                    try
+                    {
+                        accept(arg1, arg2);
+                    }
+                    catch (NullPointerException ex)
+                    {
+                        Stage.caught(ex);
+                    }
+                };
         }
 
-        public default <R> FunctionChain<T, R> and(IntFunction<R> func)
+        public default BiConsumerChain<T, U> instrumented(String name, ChainMetrics metrics)
         {
-            return arg -> func.apply(applyAsInt(arg));
+            Stage stage = metrics.stage(name);
+            return (arg1, arg2) -> stage.run(() -> accept(arg1, arg2));
         }
+    }
 
-        public default ToIntFunctionChain<T> and(IntUnaryOperator func)
+    public static interface IntConsumerChain extends IntConsumer
+    {
+        public default IntConsumer nullTolerant()
         {
-            return arg -> func.applyAsInt(applyAsInt(arg));
+            return arg ->
+                {
+                    try
+                    {
+                        accept(arg);
+                    }
+                    catch (NullPointerException ex)
+                    {
+                        Stage.caught(ex);
+                    }
+                };
         }
 
-        public default ToIntFunction<T> withDefault(int defaultIfNull)
+        public default IntConsumerChain instrumented(String name, ChainMetrics metrics)
         {
-            return arg -> nullTolerant(() -> applyAsInt(arg), defaultIfNull).getAsInt();
+            Stage stage = metrics.stage(name);
+            return arg -> stage.run(() -> accept(arg));
         }
     }
 
-    public static interface ConsumerChain<T> extends Consumer<T>
+    public static interface LongConsumerChain extends LongConsumer
     {
-        public default Consumer<T> nullTolerant()
+        public default LongConsumer nullTolerant()
         {
-            return arg -> of(() -> accept(arg)).nullTolerant();
+            return arg ->
+                {
+                    try
+                    {
+                        accept(arg);
+                    }
+                    catch (NullPointerException ex)
+                    {
+                        Stage.caught(ex);
+                    }
+                };
+        }
+
+        public default LongConsumerChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return arg -> stage.run(() -> accept(arg));
         }
     }
 
-    public static interface IntConsumerChain extends IntConsumer
+    public static interface DoubleConsumerChain extends DoubleConsumer
     {
-        public default IntConsumer nullTolerant()
+        public default DoubleConsumer nullTolerant()
+        {
+            return arg ->
+                {
+                    try
+                    {
+                        accept(arg);
+                    }
+                    catch (NullPointerException ex)
+                    {
+                        Stage.caught(ex);
+                    }
+                };
+        }
+
+        public default DoubleConsumerChain instrumented(String name, ChainMetrics metrics)
         {
-            return arg -> of(() -> accept(arg)).nullTolerant();
+            Stage stage = metrics.stage(name);
+            return arg -> stage.run(() -> accept(arg));
         }
     }
 
@@ -313,11 +2471,29 @@ public class Chain
                     try
                     {
                         run();
-                        ;
                     }
                     catch (NullPointerException ex)
-                    {}
+                    {
+                        Stage.caught(ex);
+                    }
                 };
         }
+
+        public default RunnableChain instrumented(String name, ChainMetrics metrics)
+        {
+            Stage stage = metrics.stage(name);
+            return () -> stage.run(this);
+        }
+
+        /**
+         * Gets a runnable that folds overlapping runs together. A call made while a run is in progress, on any thread,
+         * returns at once, and the thread doing that run runs the chain once more when it finishes, however many such
+         * calls there were. Every call is therefore followed by a complete run that started after it. A thread that
+         * does runs throws the first exception from any of them once there is no follow-up left to do.
+         */
+        public default RunnableChain coalescing()
+        {
+            return Coalescing.coalescing(this);
+        }
     }
 }
@@ -0,0 +1,332 @@
+package uk.org.thehickses.functional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+import uk.org.thehickses.functional.Chain.UnaryOperatorChain;
+
+/**
+ * Compiles chains into hidden classes. The stages of a compiled chain are split into segments of up to
+ * {@value #SEGMENT_SIZE}, and each segment is a hidden class defined afresh from one of the templates below, which
+ * holds its stages in static final fields and calls them one after another. Every call site in a segment therefore
+ * only ever sees one receiver class, however many other chains are live, and the JIT can inline the segment into its
+ * caller, which it cannot do when the calls between stages go through the lambdas that {@code and} shares between all
+ * chains. A chain of more than one segment runs its segments in a loop, so as with flat chains the stack does not
+ * grow with the length of the chain, and a chain with no stages at all compiles to the identity.
+ * <p>
+ * Segments are defined without the {@code STRONG} option, so they are unloaded along with the chains that use them.
+ * Nothing is cached here: each compilation defines its own segments, and it is up to the caller to keep the result.
+ */
+class ChainCompiler
+{
+    static final int SEGMENT_SIZE = 8;
+
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class);
+
+    private static final byte[] FUNCTION = bytes(CompiledFunction.class);
+    private static final byte[] UNARY_OPERATOR = bytes(CompiledUnaryOperator.class);
+    private static final byte[] SUPPLIER = bytes(CompiledSupplier.class);
+    private static final byte[] INT_UNARY_OPERATOR = bytes(CompiledIntUnaryOperator.class);
+
+    private static byte[] bytes(Class<?> template)
+    {
+        String name = template.getName();
+        try (InputStream in = template.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class"))
+        {
+            return in.readAllBytes();
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T, R> FunctionChain<T, R> compile(Function<T, R> func)
+    {
+        return (FunctionChain<T, R>) compileFunctions(functions(func), 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> UnaryOperatorChain<T> compile(UnaryOperator<T> func)
+    {
+        return (UnaryOperatorChain<T>) compileUnaryOperators(functions(func), 1);
+    }
+
+    static <T> SupplierChain<T> compile(Supplier<T> func)
+    {
+        return compileSupplier(func, functions(), 0);
+    }
+
+    static IntUnaryOperatorChain compile(IntUnaryOperator func)
+    {
+        return compileIntUnaryOperators(new IntUnaryOperator[] { func }, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object>[] functions(Function<?, ?>... funcs)
+    {
+        return (Function<Object, Object>[]) funcs;
+    }
+
+    static FunctionChain<?, ?> compileFunctions(Function<Object, Object>[] stages, int length)
+    {
+        Function<Object, Object>[] segments = segments(FUNCTION, stages, length);
+        return segments.length == 1 ? (FunctionChain<?, ?>) segments[0] : new FunctionSegments(segments);
+    }
+
+    static UnaryOperatorChain<?> compileUnaryOperators(Function<Object, Object>[] stages, int length)
+    {
+        if (length > SEGMENT_SIZE || length == 0)
+        {
+            FunctionSegments segments = new FunctionSegments(segments(FUNCTION, stages, length));
+            return (UnaryOperatorChain<Object>) segments::apply;
+        }
+        return (UnaryOperatorChain<?>) segments(UNARY_OPERATOR, stages, length)[0];
+    }
+
+    static <T> SupplierChain<T> compileSupplier(Supplier<?> head, Function<Object, Object>[] stages, int length)
+    {
+        return define(SUPPLIER, Arrays.asList(head, length == 0 ? null : compileFunctions(stages, length)));
+    }
+
+    static IntUnaryOperatorChain compileIntUnaryOperators(IntUnaryOperator[] stages, int length)
+    {
+        IntUnaryOperator[] segments = segments(INT_UNARY_OPERATOR, stages, length);
+        return segments.length == 1 ? (IntUnaryOperatorChain) segments[0] : new IntUnaryOperatorSegments(segments);
+    }
+
+    private static <S> S[] segments(byte[] template, S[] stages, int length)
+    {
+        S[] segments = Arrays.copyOf(stages, (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        for (int i = 0; i < segments.length; i++)
+        {
+            Object[] segment = new Object[SEGMENT_SIZE];
+            int from = i * SEGMENT_SIZE;
+            System.arraycopy(stages, from, segment, 0, Math.min(SEGMENT_SIZE, length - from));
+            segments[i] = define(template, Arrays.asList(segment));
+        }
+        return segments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T define(byte[] template, List<Object> classData)
+    {
+        try
+        {
+            Lookup lookup = LOOKUP.defineHiddenClassWithClassData(template, classData, true);
+            return (T) lookup.findConstructor(lookup.lookupClass(), CONSTRUCTOR)
+                    .invoke();
+        }
+        catch (RuntimeException | Error ex)
+        {
+            throw ex;
+        }
+        catch (Throwable ex)
+        {
+            throw new IllegalStateException("Cannot compile chain", ex);
+        }
+    }
+
+    /**
+     * Gets one element of the class data of a segment, or null when called from a template itself rather than from a
+     * hidden class defined from it.
+     */
+    static <T> T classData(Lookup lookup, int index, Class<T> type)
+    {
+        try
+        {
+            return MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, type, index);
+        }
+        catch (IllegalAccessException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class FunctionSegments implements FunctionChain<Object, Object>
+    {
+        private final Function<Object, Object>[] segments;
+
+        FunctionSegments(Function<Object, Object>[] segments)
+        {
+            this.segments = segments;
+        }
+
+        @Override
+        public Object apply(Object arg)
+        {
+            Object answer = arg;
+            for (Function<Object, Object> segment : segments)
+                answer = segment.apply(answer);
+            return answer;
+        }
+    }
+
+    private static final class IntUnaryOperatorSegments implements IntUnaryOperatorChain
+    {
+        private final IntUnaryOperator[] segments;
+
+        IntUnaryOperatorSegments(IntUnaryOperator[] segments)
+        {
+            this.segments = segments;
+        }
+
+        @Override
+        public int applyAsInt(int arg)
+        {
+            int answer = arg;
+            for (IntUnaryOperator segment : segments)
+                answer = segment.applyAsInt(answer);
+            return answer;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static final class CompiledFunction implements FunctionChain<Object, Object>
+    {
+        private static final Function<Object, Object> STAGE0 = classData(MethodHandles.lookup(), 0, Function.class);
+        private static final Function<Object, Object> STAGE1 = classData(MethodHandles.lookup(), 1, Function.class);
+        private static final Function<Object, Object> STAGE2 = classData(MethodHandles.lookup(), 2, Function.class);
+        private static final Function<Object, Object> STAGE3 = classData(MethodHandles.lookup(), 3, Function.class);
+        private static final Function<Object, Object> STAGE4 = classData(MethodHandles.lookup(), 4, Function.class);
+        private static final Function<Object, Object> STAGE5 = classData(MethodHandles.lookup(), 5, Function.class);
+        private static final Function<Object, Object> STAGE6 = classData(MethodHandles.lookup(), 6, Function.class);
+        private static final Function<Object, Object> STAGE7 = classData(MethodHandles.lookup(), 7, Function.class);
+
+        @Override
+        public Object apply(Object arg)
+        {
+            Object answer = STAGE0.apply(arg);
+            if (STAGE1 == null)
+                return answer;
+            answer = STAGE1.apply(answer);
+            if (STAGE2 == null)
+                return answer;
+            answer = STAGE2.apply(answer);
+            if (STAGE3 == null)
+                return answer;
+            answer = STAGE3.apply(answer);
+            if (STAGE4 == null)
+                return answer;
+            answer = STAGE4.apply(answer);
+            if (STAGE5 == null)
+                return answer;
+            answer = STAGE5.apply(answer);
+            if (STAGE6 == null)
+                return answer;
+            answer = STAGE6.apply(answer);
+            if (STAGE7 == null)
+                return answer;
+            return STAGE7.apply(answer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static final class CompiledUnaryOperator implements UnaryOperatorChain<Object>
+    {
+        private static final Function<Object, Object> STAGE0 = classData(MethodHandles.lookup(), 0, Function.class);
+        private static final Function<Object, Object> STAGE1 = classData(MethodHandles.lookup(), 1, Function.class);
+        private static final Function<Object, Object> STAGE2 = classData(MethodHandles.lookup(), 2, Function.class);
+        private static final Function<Object, Object> STAGE3 = classData(MethodHandles.lookup(), 3, Function.class);
+        private static final Function<Object, Object> STAGE4 = classData(MethodHandles.lookup(), 4, Function.class);
+        private static final Function<Object, Object> STAGE5 = classData(MethodHandles.lookup(), 5, Function.class);
+        private static final Function<Object, Object> STAGE6 = classData(MethodHandles.lookup(), 6, Function.class);
+        private static final Function<Object, Object> STAGE7 = classData(MethodHandles.lookup(), 7, Function.class);
+
+        @Override
+        public Object apply(Object arg)
+        {
+            Object answer = STAGE0.apply(arg);
+            if (STAGE1 == null)
+                return answer;
+            answer = STAGE1.apply(answer);
+            if (STAGE2 == null)
+                return answer;
+            answer = STAGE2.apply(answer);
+            if (STAGE3 == null)
+                return answer;
+            answer = STAGE3.apply(answer);
+            if (STAGE4 == null)
+                return answer;
+            answer = STAGE4.apply(answer);
+            if (STAGE5 == null)
+                return answer;
+            answer = STAGE5.apply(answer);
+            if (STAGE6 == null)
+                return answer;
+            answer = STAGE6.apply(answer);
+            if (STAGE7 == null)
+                return answer;
+            return STAGE7.apply(answer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static final class CompiledSupplier implements SupplierChain<Object>
+    {
+        private static final Supplier<Object> HEAD = classData(MethodHandles.lookup(), 0, Supplier.class);
+        private static final Function<Object, Object> NEXT = classData(MethodHandles.lookup(), 1, Function.class);
+
+        @Override
+        public Object get()
+        {
+            Object answer = HEAD.get();
+            return NEXT == null ? answer : NEXT.apply(answer);
+        }
+    }
+
+    static final class CompiledIntUnaryOperator implements IntUnaryOperatorChain
+    {
+        private static final IntUnaryOperator STAGE0 = classData(MethodHandles.lookup(), 0, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE1 = classData(MethodHandles.lookup(), 1, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE2 = classData(MethodHandles.lookup(), 2, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE3 = classData(MethodHandles.lookup(), 3, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE4 = classData(MethodHandles.lookup(), 4, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE5 = classData(MethodHandles.lookup(), 5, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE6 = classData(MethodHandles.lookup(), 6, IntUnaryOperator.class);
+        private static final IntUnaryOperator STAGE7 = classData(MethodHandles.lookup(), 7, IntUnaryOperator.class);
+
+        @Override
+        public int applyAsInt(int arg)
+        {
+            int answer = STAGE0.applyAsInt(arg);
+            if (STAGE1 == null)
+                return answer;
+            answer = STAGE1.applyAsInt(answer);
+            if (STAGE2 == null)
+                return answer;
+            answer = STAGE2.applyAsInt(answer);
+            if (STAGE3 == null)
+                return answer;
+            answer = STAGE3.applyAsInt(answer);
+            if (STAGE4 == null)
+                return answer;
+            answer = STAGE4.applyAsInt(answer);
+            if (STAGE5 == null)
+                return answer;
+            answer = STAGE5.applyAsInt(answer);
+            if (STAGE6 == null)
+                return answer;
+            answer = STAGE6.applyAsInt(answer);
+            if (STAGE7 == null)
+                return answer;
+            return STAGE7.applyAsInt(answer);
+        }
+    }
+}
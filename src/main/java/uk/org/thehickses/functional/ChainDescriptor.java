@@ -0,0 +1,119 @@
+package uk.org.thehickses.functional;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A serializable description of a chain as a sequence of named stages, which a {@link StageRegistry} turns back into
+ * a chain. Unlike a chain, whose stages are lambdas, a descriptor can be sent to another JVM, such as a
+ * {@link ChainWorker}. A stage may carry an int argument, for stages that the registry makes with a factory, such as
+ * {@link IntOps#add(int)}.
+ */
+public final class ChainDescriptor implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    public static enum Kind
+    {
+        FUNCTION, INT_UNARY_OPERATOR
+    }
+
+    /**
+     * One stage of a descriptor; the argument is null for a stage registered without a factory.
+     */
+    public static record Step(String name, Integer argument) implements Serializable
+    {
+        public Step
+        {
+            Objects.requireNonNull(name);
+        }
+    }
+
+    private final Kind kind;
+    // Always the result of List.copyOf, which is serializable
+    @SuppressWarnings("serial")
+    private final List<Step> steps;
+
+    private ChainDescriptor(Kind kind, List<Step> steps)
+    {
+        this.kind = kind;
+        this.steps = List.copyOf(steps);
+    }
+
+    public static ChainDescriptor function(String name)
+    {
+        return new ChainDescriptor(Kind.FUNCTION, List.of(new Step(name, null)));
+    }
+
+    public static ChainDescriptor function(String name, int argument)
+    {
+        return new ChainDescriptor(Kind.FUNCTION, List.of(new Step(name, argument)));
+    }
+
+    public static ChainDescriptor intOperator(String name)
+    {
+        return new ChainDescriptor(Kind.INT_UNARY_OPERATOR, List.of(new Step(name, null)));
+    }
+
+    public static ChainDescriptor intOperator(String name, int argument)
+    {
+        return new ChainDescriptor(Kind.INT_UNARY_OPERATOR, List.of(new Step(name, argument)));
+    }
+
+    public ChainDescriptor and(String name)
+    {
+        return and(new Step(name, null));
+    }
+
+    public ChainDescriptor and(String name, int argument)
+    {
+        return and(new Step(name, argument));
+    }
+
+    private ChainDescriptor and(Step step)
+    {
+        List<Step> answer = new ArrayList<>(steps);
+        answer.add(step);
+        return new ChainDescriptor(kind, answer);
+    }
+
+    public Kind kind()
+    {
+        return kind;
+    }
+
+    public List<Step> steps()
+    {
+        return steps;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        if (kind == null || steps == null || steps.isEmpty())
+            throw new InvalidObjectException("Invalid chain descriptor");
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof ChainDescriptor other && kind == other.kind && steps.equals(other.steps);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(kind, steps);
+    }
+
+    @Override
+    public String toString()
+    {
+        return kind + steps.toString();
+    }
+}
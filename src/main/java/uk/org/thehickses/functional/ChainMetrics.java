@@ -0,0 +1,307 @@
+package uk.org.thehickses.functional;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects metrics for chains wrapped by their {@code instrumented} methods, keyed by stage name. Every call is
+ * counted, but only one call in every {@code sampleInterval} (chosen at random) is timed, which keeps the cost of
+ * instrumentation to a few nanoseconds. Timings go into a histogram of power-of-two buckets.
+ * <p>
+ * To see the cost of each stage of a composed chain, instrument the stages before composing them, e.g.
+ * {@code Chain.of(parse).instrumented("parse", metrics).and(Chain.of(enrich).instrumented("enrich", metrics))}.
+ */
+public class ChainMetrics
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ChainMetrics.class);
+    private static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+    private final int sampleMask;
+
+    public ChainMetrics()
+    {
+        this(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * @param sampleInterval
+     *            the average number of calls per timed call; must be a power of two, and 1 times every call.
+     */
+    public ChainMetrics(int sampleInterval)
+    {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1)
+            throw new IllegalArgumentException("Sample interval must be a power of two: " + sampleInterval);
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    public Stage stage(String name)
+    {
+        return stages.computeIfAbsent(name, n -> new Stage(n, sampleMask));
+    }
+
+    public Map<String, Stage> stages()
+    {
+        return Map.copyOf(stages);
+    }
+
+    /**
+     * Logs a line per stage at info level every {@code period} until the returned future is cancelled.
+     */
+    public ScheduledFuture<?> reportEvery(Duration period, ScheduledExecutorService scheduler)
+    {
+        long nanos = period.toNanos();
+        return scheduler.scheduleAtFixedRate(this::report, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void report()
+    {
+        stages.values()
+                .stream()
+                .sorted((a, b) -> a.name.compareTo(b.name))
+                .forEach(stage -> LOG.info("{}", stage));
+    }
+
+    public static class Stage
+    {
+        private static final long NOT_TIMED = Long.MIN_VALUE;
+
+        private final String name;
+        private final int sampleMask;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder[] latencies = new LongAdder[Long.SIZE];
+
+        private Stage(String name, int sampleMask)
+        {
+            this.name = name;
+            this.sampleMask = sampleMask;
+            for (int i = 0; i < latencies.length; i++)
+                latencies[i] = new LongAdder();
+        }
+
+        /**
+         * Calls {@code func} as one call of this stage. A {@link NullPointerException} it throws is passed on as a
+         * {@link Failure} naming this stage, replacing any stage nested inside it, so that whichever
+         * {@code withDefault} or {@code nullTolerant} catches it, on whatever thread, counts one fallback against the
+         * outermost instrumented stage.
+         */
+        <R> R call(Supplier<R> func)
+        {
+            long start = start();
+            try
+            {
+                return func.get();
+            }
+            catch (NullPointerException ex)
+            {
+                throw failed(ex);
+            }
+            finally
+            {
+                stop(start);
+            }
+        }
+
+        int callAsInt(IntSupplier func)
+        {
+            long start = start();
+            try
+            {
+                return func.getAsInt();
+            }
+            catch (NullPointerException ex)
+            {
+                throw failed(ex);
+            }
+            finally
+            {
+                stop(start);
+            }
+        }
+
+        long callAsLong(LongSupplier func)
+        {
+            long start = start();
+            try
+            {
+                return func.getAsLong();
+            }
+            catch (NullPointerException ex)
+            {
+                throw failed(ex);
+            }
+            finally
+            {
+                stop(start);
+            }
+        }
+
+        double callAsDouble(DoubleSupplier func)
+        {
+            long start = start();
+            try
+            {
+                return func.getAsDouble();
+            }
+            catch (NullPointerException ex)
+            {
+                throw failed(ex);
+            }
+            finally
+            {
+                stop(start);
+            }
+        }
+
+        void run(Runnable func)
+        {
+            long start = start();
+            try
+            {
+                func.run();
+            }
+            catch (NullPointerException ex)
+            {
+                throw failed(ex);
+            }
+            finally
+            {
+                stop(start);
+            }
+        }
+
+        /**
+         * Counts a fallback against the stage that {@code ex} last came out of, if it came out of one. Called where a
+         * {@code withDefault} or {@code nullTolerant} replaces a result because of {@code ex}.
+         */
+        static void caught(NullPointerException ex)
+        {
+            if (ex instanceof Failure failure)
+                failure.stage.fallback();
+        }
+
+        private NullPointerException failed(NullPointerException ex)
+        {
+            if (!(ex instanceof Failure failure))
+                return new Failure(ex, this);
+            failure.stage = this;
+            return failure;
+        }
+
+        private long start()
+        {
+            calls.increment();
+            return (ThreadLocalRandom.current()
+                    .nextInt() & sampleMask) == 0 ? System.nanoTime() : NOT_TIMED;
+        }
+
+        private void stop(long start)
+        {
+            if (start != NOT_TIMED)
+                latencies[Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(System.nanoTime() - start, 1))]
+                        .increment();
+        }
+
+        void fallback()
+        {
+            fallbacks.increment();
+        }
+
+        public String name()
+        {
+            return name;
+        }
+
+        public long calls()
+        {
+            return calls.sum();
+        }
+
+        /**
+         * Gets the number of calls that ended in a {@link NullPointerException} for which an enclosing
+         * {@code withDefault} or {@code nullTolerant} then substituted its result, or for null-safe chains the number
+         * of null results that {@code withDefault}, called on the instrumented chain itself, replaced. When
+         * instrumented stages are nested, such a call is counted only against the outermost of them.
+         */
+        public long fallbacks()
+        {
+            return fallbacks.sum();
+        }
+
+        /**
+         * Gets the number of timed calls in each latency bucket. Bucket {@code i} counts calls that took at least
+         * 2<sup>i</sup> and less than 2<sup>i+1</sup> nanoseconds.
+         */
+        public long[] latencyHistogram()
+        {
+            long[] result = new long[latencies.length];
+            for (int i = 0; i < result.length; i++)
+                result[i] = latencies[i].sum();
+            return result;
+        }
+
+        /**
+         * Gets an upper bound, in nanoseconds, on the latency of the given fraction of the timed calls, or 0 if no
+         * calls have been timed.
+         */
+        public long latencyPercentile(double fraction)
+        {
+            long[] histogram = latencyHistogram();
+            long total = 0;
+            for (long count : histogram)
+                total += count;
+            long wanted = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++)
+                if ((seen += histogram[i]) >= wanted && seen > 0)
+                    return i == Long.SIZE - 2 ? Long.MAX_VALUE : (2L << i) - 1;
+            return 0;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s[calls=%d, fallbacks=%d, p50<=%dns, p99<=%dns, max<=%dns]", name, calls(),
+                    fallbacks(), latencyPercentile(0.5), latencyPercentile(0.99), latencyPercentile(1));
+        }
+
+        /**
+         * A {@link NullPointerException} thrown by a stage, carrying the outermost instrumented stage it has come out
+         * of. Its message and stack trace are those of the original exception, which is its cause.
+         */
+        static final class Failure extends NullPointerException
+        {
+            private static final long serialVersionUID = 1L;
+
+            private transient Stage stage;
+
+            private Failure(NullPointerException ex, Stage stage)
+            {
+                super(ex.getMessage());
+                initCause(ex);
+                setStackTrace(ex.getStackTrace());
+                this.stage = stage;
+            }
+
+            @Override
+            public synchronized Throwable fillInStackTrace()
+            {
+                return this;
+            }
+        }
+    }
+}
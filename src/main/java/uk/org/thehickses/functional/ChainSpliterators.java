@@ -0,0 +1,279 @@
+package uk.org.thehickses.functional;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+/**
+ * Applies a chain to a stream as a single stage, by wrapping the source's spliterator in one that applies the chain
+ * to each element as it is taken. The source's ordering, size and parallelism carry over, and splitting the wrapper
+ * splits the source, so the result can be consumed in parallel. Closing the result closes the source.
+ */
+final class ChainSpliterators
+{
+    private static final int NOT_PRESERVED = Spliterator.SORTED | Spliterator.DISTINCT;
+
+    private ChainSpliterators()
+    {
+    }
+
+    static <T, R> Stream<R> map(Stream<? extends T> source, Function<? super T, ? extends R> func, boolean skipNulls)
+    {
+        return StreamSupport.stream(new MappingSpliterator<T, R>(source.spliterator(), func, skipNulls),
+                source.isParallel())
+                .onClose(source::close);
+    }
+
+    static <T> IntStream mapToInt(Stream<? extends T> source, ToIntFunction<? super T> func)
+    {
+        return StreamSupport.intStream(new ToIntSpliterator<T>(source.spliterator(), func), source.isParallel())
+                .onClose(source::close);
+    }
+
+    static IntStream map(IntStream source, IntUnaryOperatorChain func, IntUnaryOperator withDefault)
+    {
+        return StreamSupport.intStream(new IntMappingSpliterator(source.spliterator(), func, withDefault),
+                source.isParallel())
+                .onClose(source::close);
+    }
+
+    private static class MappingSpliterator<T, R> implements Spliterator<R>, Consumer<T>
+    {
+        private final Spliterator<? extends T> source;
+        private final Function<? super T, ? extends R> func;
+        private final boolean skipNulls;
+        private Consumer<? super R> action;
+        private boolean accepted;
+
+        MappingSpliterator(Spliterator<? extends T> source, Function<? super T, ? extends R> func, boolean skipNulls)
+        {
+            this.source = source;
+            this.func = func;
+            this.skipNulls = skipNulls;
+        }
+
+        @Override
+        public void accept(T arg)
+        {
+            R result = func.apply(arg);
+            if (skipNulls && result == null)
+                return;
+            accepted = true;
+            action.accept(result);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action)
+        {
+            this.action = action;
+            accepted = false;
+            try
+            {
+                while (!accepted)
+                    if (!source.tryAdvance(this))
+                        return false;
+                return true;
+            }
+            finally
+            {
+                this.action = null;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action)
+        {
+            if (skipNulls)
+                source.forEachRemaining(arg ->
+                    {
+                        R result = func.apply(arg);
+                        if (result != null)
+                            action.accept(result);
+                    });
+            else
+                source.forEachRemaining(arg -> action.accept(func.apply(arg)));
+        }
+
+        @Override
+        public Spliterator<R> trySplit()
+        {
+            Spliterator<? extends T> prefix = source.trySplit();
+            return prefix == null ? null : new MappingSpliterator<>(prefix, func, skipNulls);
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics()
+        {
+            int characteristics = source.characteristics() & ~(NOT_PRESERVED | Spliterator.NONNULL);
+            return skipNulls
+                    ? characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED) | Spliterator.NONNULL
+                    : characteristics;
+        }
+    }
+
+    private static class ToIntSpliterator<T> implements Spliterator.OfInt
+    {
+        private final Spliterator<? extends T> source;
+        private final ToIntFunction<? super T> func;
+
+        ToIntSpliterator(Spliterator<? extends T> source, ToIntFunction<? super T> func)
+        {
+            this.source = source;
+            this.func = func;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action)
+        {
+            return source.tryAdvance(arg -> action.accept(func.applyAsInt(arg)));
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action)
+        {
+            source.forEachRemaining(arg -> action.accept(func.applyAsInt(arg)));
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit()
+        {
+            Spliterator<? extends T> prefix = source.trySplit();
+            return prefix == null ? null : new ToIntSpliterator<>(prefix, func);
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return source.characteristics() & ~NOT_PRESERVED | Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * Collects the source's elements into blocks when traversing the rest of it in bulk, so that the chain is applied
+     * a block at a time through {@link IntUnaryOperatorChain#applyAll}, which flat chains run a stage at a time. If
+     * the chain has a default and a block throws a {@link NullPointerException}, there is no telling how far through
+     * the block the chain got, so that block is applied again from its start an element at a time with the default,
+     * and so is the rest of the source. The elements that threw get the default, but the stages are called at least
+     * once, not exactly once, for the elements of the block that threw, and stages that count or have other side
+     * effects see those elements again.
+     */
+    private static class IntMappingSpliterator implements Spliterator.OfInt, IntConsumer
+    {
+        private static final int BLOCK_SIZE = 1024;
+
+        private final Spliterator.OfInt source;
+        private final IntUnaryOperatorChain func;
+        private final IntUnaryOperator withDefault;
+        private int[] block;
+        private int[] results;
+        private int size;
+        private IntConsumer action;
+        private boolean elementWise;
+
+        IntMappingSpliterator(Spliterator.OfInt source, IntUnaryOperatorChain func, IntUnaryOperator withDefault)
+        {
+            this.source = source;
+            this.func = func;
+            this.withDefault = withDefault;
+        }
+
+        @Override
+        public void accept(int arg)
+        {
+            if (elementWise)
+            {
+                action.accept(withDefault.applyAsInt(arg));
+                return;
+            }
+            block[size++] = arg;
+            if (size == block.length)
+                flush();
+        }
+
+        private void flush()
+        {
+            try
+            {
+                func.applyAll(block, 0, results, 0, size);
+            }
+            catch (NullPointerException ex)
+            {
+                if (withDefault == null)
+                    throw ex;
+                elementWise = true;
+                for (int i = 0; i < size; i++)
+                    results[i] = withDefault.applyAsInt(block[i]);
+            }
+            for (int i = 0; i < size; i++)
+                action.accept(results[i]);
+            size = 0;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action)
+        {
+            IntUnaryOperator op = withDefault == null ? func : withDefault;
+            return source.tryAdvance((int arg) -> action.accept(op.applyAsInt(arg)));
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action)
+        {
+            int blockSize = (int) Math.min(Math.max(source.estimateSize(), 1), BLOCK_SIZE);
+            block = new int[blockSize];
+            results = withDefault == null ? block : new int[blockSize];
+            this.action = action;
+            try
+            {
+                source.forEachRemaining(this);
+                if (size > 0)
+                    flush();
+            }
+            finally
+            {
+                block = null;
+                results = null;
+                this.action = null;
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit()
+        {
+            Spliterator.OfInt prefix = source.trySplit();
+            return prefix == null ? null : new IntMappingSpliterator(prefix, func, withDefault);
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return source.characteristics() & ~NOT_PRESERVED | Spliterator.NONNULL;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package uk.org.thehickses.functional;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.ChainDescriptor.Kind;
+
+/**
+ * A chain running in a worker JVM on the same machine. The worker is started with the class path of this JVM and
+ * rebuilds the chain from its {@link ChainDescriptor} using the {@link StageRegistry} supplied by the given class,
+ * which needs a no-argument constructor. Partitions of data are sent to the worker over its standard input, and the
+ * results come back over its standard output, as Java serialization streams. Both ends only accept descriptors,
+ * strings, boxed primitives and arrays of them, so neither can be made to deserialize anything else.
+ * <p>
+ * A worker handles one partition at a time; {@link #parallelApplyAll(List, int[], int[])} spreads an array across
+ * several workers.
+ */
+public final class ChainWorker implements AutoCloseable
+{
+    static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter("maxdepth=8;"
+            + "uk.org.thehickses.functional.ChainDescriptor;uk.org.thehickses.functional.ChainDescriptor$Kind;"
+            + "uk.org.thehickses.functional.ChainDescriptor$Step;java.util.CollSer;"
+            + "java.util.ImmutableCollections$List12;java.util.ImmutableCollections$ListN;java.lang.Enum;"
+            + "java.lang.Number;java.lang.Object;java.lang.String;java.lang.Boolean;java.lang.Character;java.lang.Byte;"
+            + "java.lang.Short;java.lang.Integer;java.lang.Long;java.lang.Float;java.lang.Double;!*");
+
+    private static final int END = 0;
+    private static final int PARTITION = 1;
+    private static final int RESULT = 2;
+    private static final int FAILED = 3;
+
+    private final ChainDescriptor descriptor;
+    private final Process process;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+
+    private ChainWorker(ChainDescriptor descriptor, Process process) throws IOException
+    {
+        this.descriptor = descriptor;
+        this.process = process;
+        this.out = new ObjectOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        out.writeObject(descriptor);
+        out.flush();
+        this.in = input(process.getInputStream());
+    }
+
+    public static ChainWorker start(ChainDescriptor descriptor, Class<? extends Supplier<StageRegistry>> registry)
+            throws IOException
+    {
+        Objects.requireNonNull(descriptor);
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java")
+                .toString(), "-cp", System.getProperty("java.class.path"), ChainWorker.class.getName(),
+                registry.getName()).redirectError(Redirect.INHERIT)
+                .start();
+        try
+        {
+            return new ChainWorker(descriptor, process);
+        }
+        catch (IOException ex)
+        {
+            process.destroyForcibly();
+            throw ex;
+        }
+    }
+
+    private static ObjectInputStream input(InputStream stream) throws IOException
+    {
+        ObjectInputStream answer = new ObjectInputStream(new BufferedInputStream(stream));
+        answer.setObjectInputFilter(FILTER);
+        return answer;
+    }
+
+    public ChainDescriptor descriptor()
+    {
+        return descriptor;
+    }
+
+    public void applyAll(int[] src, int[] dst) throws IOException
+    {
+        applyAll(src, 0, dst, 0, src.length);
+    }
+
+    public void applyAll(int[] src, int srcPos, int[] dst, int dstPos, int length) throws IOException
+    {
+        checkKind(Kind.INT_UNARY_OPERATOR);
+        Objects.checkFromIndexSize(srcPos, length, src.length);
+        Objects.checkFromIndexSize(dstPos, length, dst.length);
+        int[] result = (int[]) call(Arrays.copyOfRange(src, srcPos, srcPos + length));
+        System.arraycopy(result, 0, dst, dstPos, length);
+    }
+
+    public void applyAll(Object[] src, Object[] dst) throws IOException
+    {
+        applyAll(src, 0, dst, 0, src.length);
+    }
+
+    public void applyAll(Object[] src, int srcPos, Object[] dst, int dstPos, int length) throws IOException
+    {
+        checkKind(Kind.FUNCTION);
+        Objects.checkFromIndexSize(srcPos, length, src.length);
+        Objects.checkFromIndexSize(dstPos, length, dst.length);
+        Object[] result = (Object[]) call(Arrays.copyOfRange(src, srcPos, srcPos + length, Object[].class));
+        System.arraycopy(result, 0, dst, dstPos, length);
+    }
+
+    private void checkKind(Kind kind)
+    {
+        if (descriptor.kind() != kind)
+            throw new IllegalArgumentException("Worker runs a " + descriptor.kind() + " chain");
+    }
+
+    private synchronized Object call(Object partition) throws IOException
+    {
+        out.writeInt(PARTITION);
+        out.writeObject(partition);
+        out.reset();
+        out.flush();
+        try
+        {
+            if (in.readInt() == FAILED)
+                throw new IllegalStateException("Chain failed in worker: " + in.readUTF());
+            return in.readObject();
+        }
+        catch (ClassNotFoundException ex)
+        {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Applies the chain to every element of {@code src} by splitting it into one partition per worker and running
+     * them concurrently, writing the results to the same indices of {@code dst}.
+     */
+    public static void parallelApplyAll(List<ChainWorker> workers, int[] src, int[] dst) throws IOException
+    {
+        Objects.checkFromIndexSize(0, src.length, dst.length);
+        parallel(workers, src.length, (worker, from, length) -> worker.applyAll(src, from, dst, from, length));
+    }
+
+    public static void parallelApplyAll(List<ChainWorker> workers, Object[] src, Object[] dst) throws IOException
+    {
+        Objects.checkFromIndexSize(0, src.length, dst.length);
+        parallel(workers, src.length, (worker, from, length) -> worker.applyAll(src, from, dst, from, length));
+    }
+
+    @FunctionalInterface
+    private static interface PartitionAction
+    {
+        void apply(ChainWorker worker, int from, int length) throws IOException;
+    }
+
+    private static void parallel(List<ChainWorker> workers, int length, PartitionAction action) throws IOException
+    {
+        int count = workers.size();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+            {
+                ChainWorker worker = workers.get(i);
+                int from = (int) ((long) length * i / count);
+                int to = (int) ((long) length * (i + 1) / count);
+                futures.add(CompletableFuture.runAsync(() ->
+                    {
+                        try
+                        {
+                            action.apply(worker, from, to - from);
+                        }
+                        catch (IOException ex)
+                        {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .join();
+        }
+        catch (CompletionException ex)
+        {
+            if (ex.getCause() instanceof UncheckedIOException io)
+                throw io.getCause();
+            if (ex.getCause() instanceof RuntimeException rt)
+                throw rt;
+            throw ex;
+        }
+    }
+
+    /**
+     * Tells the worker to exit once it has finished, and waits for it to do so.
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try
+        {
+            out.writeInt(END);
+            out.flush();
+        }
+        catch (IOException ex)
+        {
+            // The worker has already exited
+        }
+        try
+        {
+            if (!process.waitFor(10, TimeUnit.SECONDS))
+                process.destroyForcibly();
+        }
+        catch (InterruptedException ex)
+        {
+            process.destroyForcibly();
+            Thread.currentThread()
+                    .interrupt();
+        }
+        finally
+        {
+            in.close();
+            closeOutput();
+        }
+    }
+
+    private void closeOutput()
+    {
+        try
+        {
+            out.close();
+        }
+        catch (IOException ex)
+        {
+            // Whatever is left unsent was for a worker that has exited
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception
+    {
+        StageRegistry registry = ((Supplier<StageRegistry>) Class.forName(args[0])
+                .getDeclaredConstructor()
+                .newInstance()).get();
+        // Standard output carries the results, so anything the stages print goes to standard error instead
+        OutputStream stdout = new FileOutputStream(FileDescriptor.out);
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(stdout));
+        out.flush();
+        ObjectInputStream in = input(System.in);
+        serve(registry, (ChainDescriptor) in.readObject(), in, out);
+    }
+
+    private static void serve(StageRegistry registry, ChainDescriptor descriptor, ObjectInputStream in,
+            ObjectOutputStream out) throws IOException, ClassNotFoundException
+    {
+        IntUnaryOperatorChain intChain = null;
+        FunctionChain<Object, Object> chain = null;
+        String buildFailure = null;
+        try
+        {
+            if (descriptor.kind() == Kind.INT_UNARY_OPERATOR)
+                intChain = registry.intOperatorChain(descriptor);
+            else
+                chain = registry.functionChain(descriptor);
+        }
+        catch (RuntimeException ex)
+        {
+            // Reported for every partition, so that the coordinator learns why rather than finding the stream closed
+            buildFailure = "Unable to build chain: " + ex;
+        }
+        try
+        {
+            while (in.readInt() == PARTITION)
+            {
+                Object partition = in.readObject();
+                if (buildFailure != null)
+                {
+                    failed(out, buildFailure);
+                    continue;
+                }
+                Object result;
+                try
+                {
+                    result = apply(intChain, chain, partition);
+                }
+                catch (RuntimeException ex)
+                {
+                    failed(out, String.valueOf(ex));
+                    continue;
+                }
+                out.writeInt(RESULT);
+                out.writeObject(result);
+                out.reset();
+                out.flush();
+            }
+        }
+        catch (EOFException ex)
+        {
+            // The coordinator went away without saying so
+        }
+    }
+
+    private static void failed(ObjectOutputStream out, String message) throws IOException
+    {
+        out.writeInt(FAILED);
+        out.writeUTF(message);
+        out.flush();
+    }
+
+    private static Object apply(IntUnaryOperatorChain intChain, FunctionChain<Object, Object> chain, Object partition)
+    {
+        if (intChain != null)
+        {
+            int[] data = (int[]) partition;
+            intChain.applyAll(data, data);
+            return data;
+        }
+        Object[] data = (Object[]) partition;
+        chain.applyAll(data, data);
+        return data;
+    }
+}
@@ -0,0 +1,109 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import uk.org.thehickses.functional.Chain.RunnableChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+
+/**
+ * Stops work that many threads ask for at once from being done more often than it needs to be. Callers coordinate
+ * through compare-and-set on a single atomic reference, so none of them ever waits for a lock. The only waiting is by
+ * single-flight callers for a result that is already being computed.
+ */
+class Coalescing
+{
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int FOLLOW_UP = 2;
+
+    static RunnableChain coalescing(Runnable task)
+    {
+        AtomicInteger state = new AtomicInteger(IDLE);
+        return () -> trigger(task, state);
+    }
+
+    private static void trigger(Runnable task, AtomicInteger state)
+    {
+        while (true)
+        {
+            int current = state.get();
+            if (current == FOLLOW_UP || current == RUNNING && state.compareAndSet(RUNNING, FOLLOW_UP))
+                return;
+            if (current == IDLE && state.compareAndSet(IDLE, RUNNING))
+            {
+                runUntilIdle(task, state);
+                return;
+            }
+        }
+    }
+
+    private static void runUntilIdle(Runnable task, AtomicInteger state)
+    {
+        Throwable failure = null;
+        while (true)
+        {
+            try
+            {
+                task.run();
+            }
+            catch (RuntimeException | Error ex)
+            {
+                if (failure == null)
+                    failure = ex;
+                else
+                    failure.addSuppressed(ex);
+            }
+            if (state.compareAndSet(RUNNING, IDLE))
+                break;
+            // Only the running thread moves the state on from FOLLOW_UP, so this cannot lose a trigger
+            state.set(RUNNING);
+        }
+        if (failure instanceof Error error)
+            throw error;
+        if (failure != null)
+            throw (RuntimeException) failure;
+    }
+
+    static <T> SupplierChain<T> singleFlight(Supplier<T> func)
+    {
+        AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+        return () -> share(func, inFlight);
+    }
+
+    private static <T> T share(Supplier<T> func, AtomicReference<CompletableFuture<T>> inFlight)
+    {
+        while (true)
+        {
+            CompletableFuture<T> flight = inFlight.get();
+            if (flight != null)
+                return Hedging.join(flight);
+            CompletableFuture<T> own = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, own))
+                return compute(func, inFlight, own);
+        }
+    }
+
+    private static <T> T compute(Supplier<T> func, AtomicReference<CompletableFuture<T>> inFlight,
+            CompletableFuture<T> flight)
+    {
+        // The flight is cleared before it is completed, so that callers arriving afterwards start a new computation
+        // rather than reusing a result that may already be stale
+        T result;
+        try
+        {
+            result = func.get();
+        }
+        catch (RuntimeException | Error ex)
+        {
+            inFlight.set(null);
+            flight.completeExceptionally(ex);
+            throw ex;
+        }
+        inFlight.set(null);
+        flight.complete(result);
+        return result;
+    }
+}
@@ -1,15 +1,28 @@
 package uk.org.thehickses.functional;
 
+import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 import java.util.function.IntBinaryOperator;
 import java.util.function.IntFunction;
 import java.util.function.IntSupplier;
 import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 
 public interface Curry
@@ -98,4 +111,523 @@ public interface Curry
     {
         return () -> func.applyAsInt(arg1, arg2);
     }
+
+    public static <T> LongSupplier of(ToLongFunction<? super T> func, T arg)
+    {
+        return () -> func.applyAsLong(arg);
+    }
+    
+    public static <T, U> ToLongFunction<U> ofFirst(ToLongBiFunction<? super T, U> func, T arg1)
+    {
+        return arg2 -> func.applyAsLong(arg1, arg2);
+    }
+    
+    public static <T, U> ToLongFunction<T> ofSecond(ToLongBiFunction<T, ? super U> func, U arg2)
+    {
+        return arg1 -> func.applyAsLong(arg1, arg2);
+    }
+    
+    public static <T, U> LongSupplier ofBoth(ToLongBiFunction<? super T, ? super U> func, T arg1, U arg2)
+    {
+        return () -> func.applyAsLong(arg1, arg2);
+    }
+
+    public static <T> Supplier<T> of(LongFunction<T> func, long arg)
+    {
+        return () -> func.apply(arg);
+    }
+
+    public static LongSupplier of(LongUnaryOperator func, long arg)
+    {
+        return () -> func.applyAsLong(arg);
+    }
+    
+    public static LongUnaryOperator ofFirst(LongBinaryOperator func, long arg1)
+    {
+        return arg2 -> func.applyAsLong(arg1, arg2);
+    }
+    
+    public static LongUnaryOperator ofSecond(LongBinaryOperator func, long arg2)
+    {
+        return arg1 -> func.applyAsLong(arg1, arg2);
+    }
+    
+    public static LongSupplier ofBoth(LongBinaryOperator func, long arg1, long arg2)
+    {
+        return () -> func.applyAsLong(arg1, arg2);
+    }
+
+    public static <T> DoubleSupplier of(ToDoubleFunction<? super T> func, T arg)
+    {
+        return () -> func.applyAsDouble(arg);
+    }
+    
+    public static <T, U> ToDoubleFunction<U> ofFirst(ToDoubleBiFunction<? super T, U> func, T arg1)
+    {
+        return arg2 -> func.applyAsDouble(arg1, arg2);
+    }
+    
+    public static <T, U> ToDoubleFunction<T> ofSecond(ToDoubleBiFunction<T, ? super U> func, U arg2)
+    {
+        return arg1 -> func.applyAsDouble(arg1, arg2);
+    }
+    
+    public static <T, U> DoubleSupplier ofBoth(ToDoubleBiFunction<? super T, ? super U> func, T arg1, U arg2)
+    {
+        return () -> func.applyAsDouble(arg1, arg2);
+    }
+
+    public static <T> Supplier<T> of(DoubleFunction<T> func, double arg)
+    {
+        return () -> func.apply(arg);
+    }
+
+    public static DoubleSupplier of(DoubleUnaryOperator func, double arg)
+    {
+        return () -> func.applyAsDouble(arg);
+    }
+    
+    public static DoubleUnaryOperator ofFirst(DoubleBinaryOperator func, double arg1)
+    {
+        return arg2 -> func.applyAsDouble(arg1, arg2);
+    }
+    
+    public static DoubleUnaryOperator ofSecond(DoubleBinaryOperator func, double arg2)
+    {
+        return arg1 -> func.applyAsDouble(arg1, arg2);
+    }
+    
+    public static DoubleSupplier ofBoth(DoubleBinaryOperator func, double arg1, double arg2)
+    {
+        return () -> func.applyAsDouble(arg1, arg2);
+    }
+
+    public static <T, U, V, R> BiFunction<U, V, R> ofFirst(TriFunction<? super T, U, V, R> func, T arg1)
+    {
+        return (arg2, arg3) -> func.apply(arg1, arg2, arg3);
+    }
+
+    public static <T, U, V, R> BiFunction<T, V, R> ofSecond(TriFunction<T, ? super U, V, R> func, U arg2)
+    {
+        return (arg1, arg3) -> func.apply(arg1, arg2, arg3);
+    }
+
+    public static <T, U, V, R> BiFunction<T, U, R> ofThird(TriFunction<T, U, ? super V, R> func, V arg3)
+    {
+        return (arg1, arg2) -> func.apply(arg1, arg2, arg3);
+    }
+
+    public static <T, U, V, R> Supplier<R> ofAll(TriFunction<? super T, ? super U, ? super V, R> func, T arg1, U arg2,
+            V arg3)
+    {
+        return () -> func.apply(arg1, arg2, arg3);
+    }
+
+    public static <T, U, V, W, R> TriFunction<U, V, W, R> ofFirst(QuadFunction<? super T, U, V, W, R> func, T arg1)
+    {
+        return (arg2, arg3, arg4) -> func.apply(arg1, arg2, arg3, arg4);
+    }
+
+    public static <T, U, V, W, R> TriFunction<T, V, W, R> ofSecond(QuadFunction<T, ? super U, V, W, R> func, U arg2)
+    {
+        return (arg1, arg3, arg4) -> func.apply(arg1, arg2, arg3, arg4);
+    }
+
+    public static <T, U, V, W, R> TriFunction<T, U, W, R> ofThird(QuadFunction<T, U, ? super V, W, R> func, V arg3)
+    {
+        return (arg1, arg2, arg4) -> func.apply(arg1, arg2, arg3, arg4);
+    }
+
+    public static <T, U, V, W, R> TriFunction<T, U, V, R> ofFourth(QuadFunction<T, U, V, ? super W, R> func, W arg4)
+    {
+        return (arg1, arg2, arg3) -> func.apply(arg1, arg2, arg3, arg4);
+    }
+
+    public static <T, U, V, W, R> Supplier<R> ofAll(QuadFunction<? super T, ? super U, ? super V, ? super W, R> func,
+            T arg1, U arg2, V arg3, W arg4)
+    {
+        return () -> func.apply(arg1, arg2, arg3, arg4);
+    }
+
+    public static IntBinaryOperator ofFirst(IntTernaryOperator func, int arg1)
+    {
+        return (arg2, arg3) -> func.applyAsInt(arg1, arg2, arg3);
+    }
+
+    public static IntBinaryOperator ofSecond(IntTernaryOperator func, int arg2)
+    {
+        return (arg1, arg3) -> func.applyAsInt(arg1, arg2, arg3);
+    }
+
+    public static IntBinaryOperator ofThird(IntTernaryOperator func, int arg3)
+    {
+        return (arg1, arg2) -> func.applyAsInt(arg1, arg2, arg3);
+    }
+
+    public static IntSupplier ofAll(IntTernaryOperator func, int arg1, int arg2, int arg3)
+    {
+        return () -> func.applyAsInt(arg1, arg2, arg3);
+    }
+
+    public static IntTernaryOperator ofFirst(IntQuaternaryOperator func, int arg1)
+    {
+        return (arg2, arg3, arg4) -> func.applyAsInt(arg1, arg2, arg3, arg4);
+    }
+
+    public static IntTernaryOperator ofSecond(IntQuaternaryOperator func, int arg2)
+    {
+        return (arg1, arg3, arg4) -> func.applyAsInt(arg1, arg2, arg3, arg4);
+    }
+
+    public static IntTernaryOperator ofThird(IntQuaternaryOperator func, int arg3)
+    {
+        return (arg1, arg2, arg4) -> func.applyAsInt(arg1, arg2, arg3, arg4);
+    }
+
+    public static IntTernaryOperator ofFourth(IntQuaternaryOperator func, int arg4)
+    {
+        return (arg1, arg2, arg3) -> func.applyAsInt(arg1, arg2, arg3, arg4);
+    }
+
+    public static IntSupplier ofAll(IntQuaternaryOperator func, int arg1, int arg2, int arg3, int arg4)
+    {
+        return () -> func.applyAsInt(arg1, arg2, arg3, arg4);
+    }
+
+    public static LongBinaryOperator ofFirst(LongTernaryOperator func, long arg1)
+    {
+        return (arg2, arg3) -> func.applyAsLong(arg1, arg2, arg3);
+    }
+
+    public static LongBinaryOperator ofSecond(LongTernaryOperator func, long arg2)
+    {
+        return (arg1, arg3) -> func.applyAsLong(arg1, arg2, arg3);
+    }
+
+    public static LongBinaryOperator ofThird(LongTernaryOperator func, long arg3)
+    {
+        return (arg1, arg2) -> func.applyAsLong(arg1, arg2, arg3);
+    }
+
+    public static LongSupplier ofAll(LongTernaryOperator func, long arg1, long arg2, long arg3)
+    {
+        return () -> func.applyAsLong(arg1, arg2, arg3);
+    }
+
+    public static LongTernaryOperator ofFirst(LongQuaternaryOperator func, long arg1)
+    {
+        return (arg2, arg3, arg4) -> func.applyAsLong(arg1, arg2, arg3, arg4);
+    }
+
+    public static LongTernaryOperator ofSecond(LongQuaternaryOperator func, long arg2)
+    {
+        return (arg1, arg3, arg4) -> func.applyAsLong(arg1, arg2, arg3, arg4);
+    }
+
+    public static LongTernaryOperator ofThird(LongQuaternaryOperator func, long arg3)
+    {
+        return (arg1, arg2, arg4) -> func.applyAsLong(arg1, arg2, arg3, arg4);
+    }
+
+    public static LongTernaryOperator ofFourth(LongQuaternaryOperator func, long arg4)
+    {
+        return (arg1, arg2, arg3) -> func.applyAsLong(arg1, arg2, arg3, arg4);
+    }
+
+    public static LongSupplier ofAll(LongQuaternaryOperator func, long arg1, long arg2, long arg3, long arg4)
+    {
+        return () -> func.applyAsLong(arg1, arg2, arg3, arg4);
+    }
+
+    public static DoubleBinaryOperator ofFirst(DoubleTernaryOperator func, double arg1)
+    {
+        return (arg2, arg3) -> func.applyAsDouble(arg1, arg2, arg3);
+    }
+
+    public static DoubleBinaryOperator ofSecond(DoubleTernaryOperator func, double arg2)
+    {
+        return (arg1, arg3) -> func.applyAsDouble(arg1, arg2, arg3);
+    }
+
+    public static DoubleBinaryOperator ofThird(DoubleTernaryOperator func, double arg3)
+    {
+        return (arg1, arg2) -> func.applyAsDouble(arg1, arg2, arg3);
+    }
+
+    public static DoubleSupplier ofAll(DoubleTernaryOperator func, double arg1, double arg2, double arg3)
+    {
+        return () -> func.applyAsDouble(arg1, arg2, arg3);
+    }
+
+    public static DoubleTernaryOperator ofFirst(DoubleQuaternaryOperator func, double arg1)
+    {
+        return (arg2, arg3, arg4) -> func.applyAsDouble(arg1, arg2, arg3, arg4);
+    }
+
+    public static DoubleTernaryOperator ofSecond(DoubleQuaternaryOperator func, double arg2)
+    {
+        return (arg1, arg3, arg4) -> func.applyAsDouble(arg1, arg2, arg3, arg4);
+    }
+
+    public static DoubleTernaryOperator ofThird(DoubleQuaternaryOperator func, double arg3)
+    {
+        return (arg1, arg2, arg4) -> func.applyAsDouble(arg1, arg2, arg3, arg4);
+    }
+
+    public static DoubleTernaryOperator ofFourth(DoubleQuaternaryOperator func, double arg4)
+    {
+        return (arg1, arg2, arg3) -> func.applyAsDouble(arg1, arg2, arg3, arg4);
+    }
+
+    public static DoubleSupplier ofAll(DoubleQuaternaryOperator func, double arg1, double arg2, double arg3,
+            double arg4)
+    {
+        return () -> func.applyAsDouble(arg1, arg2, arg3, arg4);
+    }
+
+    public static <T, R> Bound<T, R> bind(Function<? super T, ? extends R> func, T arg)
+    {
+        return new Bound<>(func, arg);
+    }
+
+    public static <T, U, R> FirstBound<T, U, R> bindFirst(BiFunction<? super T, ? super U, ? extends R> func, T arg1)
+    {
+        return new FirstBound<>(func, arg1);
+    }
+
+    public static <T, U, R> SecondBound<T, U, R> bindSecond(BiFunction<? super T, ? super U, ? extends R> func,
+            U arg2)
+    {
+        return new SecondBound<>(func, arg2);
+    }
+
+    public static <T, U, R> BothBound<T, U, R> bindBoth(BiFunction<? super T, ? super U, ? extends R> func, T arg1,
+            U arg2)
+    {
+        return new BothBound<>(func, arg1, arg2);
+    }
+
+    public static IntBound bind(IntUnaryOperator func, int arg)
+    {
+        return new IntBound(func, arg);
+    }
+
+    public static IntFirstBound bindFirst(IntBinaryOperator func, int arg1)
+    {
+        return new IntFirstBound(func, arg1);
+    }
+
+    public static IntSecondBound bindSecond(IntBinaryOperator func, int arg2)
+    {
+        return new IntSecondBound(func, arg2);
+    }
+
+    public static IntBothBound bindBoth(IntBinaryOperator func, int arg1, int arg2)
+    {
+        return new IntBothBound(func, arg1, arg2);
+    }
+
+    /**
+     * A function with its argument bound, like {@link Curry#of(Function, Object)}, except that the argument can be
+     * rebound without allocating a new object. Like the other bound types below, it is meant for hot loops that
+     * curry the same function with a different argument for every item. It is not thread-safe, so each thread must
+     * use its own instance.
+     */
+    public static final class Bound<T, R> implements Supplier<R>
+    {
+        private final Function<? super T, ? extends R> func;
+        private T arg;
+
+        private Bound(Function<? super T, ? extends R> func, T arg)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg = arg;
+        }
+
+        public Bound<T, R> rebind(T arg)
+        {
+            this.arg = arg;
+            return this;
+        }
+
+        @Override
+        public R get()
+        {
+            return func.apply(arg);
+        }
+    }
+
+    public static final class FirstBound<T, U, R> implements Function<U, R>
+    {
+        private final BiFunction<? super T, ? super U, ? extends R> func;
+        private T arg1;
+
+        private FirstBound(BiFunction<? super T, ? super U, ? extends R> func, T arg1)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg1 = arg1;
+        }
+
+        public FirstBound<T, U, R> rebind(T arg1)
+        {
+            this.arg1 = arg1;
+            return this;
+        }
+
+        @Override
+        public R apply(U arg2)
+        {
+            return func.apply(arg1, arg2);
+        }
+    }
+
+    public static final class SecondBound<T, U, R> implements Function<T, R>
+    {
+        private final BiFunction<? super T, ? super U, ? extends R> func;
+        private U arg2;
+
+        private SecondBound(BiFunction<? super T, ? super U, ? extends R> func, U arg2)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg2 = arg2;
+        }
+
+        public SecondBound<T, U, R> rebind(U arg2)
+        {
+            this.arg2 = arg2;
+            return this;
+        }
+
+        @Override
+        public R apply(T arg1)
+        {
+            return func.apply(arg1, arg2);
+        }
+    }
+
+    public static final class BothBound<T, U, R> implements Supplier<R>
+    {
+        private final BiFunction<? super T, ? super U, ? extends R> func;
+        private T arg1;
+        private U arg2;
+
+        private BothBound(BiFunction<? super T, ? super U, ? extends R> func, T arg1, U arg2)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+        }
+
+        public BothBound<T, U, R> rebind(T arg1, U arg2)
+        {
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            return this;
+        }
+
+        @Override
+        public R get()
+        {
+            return func.apply(arg1, arg2);
+        }
+    }
+
+    public static final class IntBound implements IntSupplier
+    {
+        private final IntUnaryOperator func;
+        private int arg;
+
+        private IntBound(IntUnaryOperator func, int arg)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg = arg;
+        }
+
+        public IntBound rebind(int arg)
+        {
+            this.arg = arg;
+            return this;
+        }
+
+        @Override
+        public int getAsInt()
+        {
+            return func.applyAsInt(arg);
+        }
+    }
+
+    public static final class IntFirstBound implements IntUnaryOperator
+    {
+        private final IntBinaryOperator func;
+        private int arg1;
+
+        private IntFirstBound(IntBinaryOperator func, int arg1)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg1 = arg1;
+        }
+
+        public IntFirstBound rebind(int arg1)
+        {
+            this.arg1 = arg1;
+            return this;
+        }
+
+        @Override
+        public int applyAsInt(int arg2)
+        {
+            return func.applyAsInt(arg1, arg2);
+        }
+    }
+
+    public static final class IntSecondBound implements IntUnaryOperator
+    {
+        private final IntBinaryOperator func;
+        private int arg2;
+
+        private IntSecondBound(IntBinaryOperator func, int arg2)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg2 = arg2;
+        }
+
+        public IntSecondBound rebind(int arg2)
+        {
+            this.arg2 = arg2;
+            return this;
+        }
+
+        @Override
+        public int applyAsInt(int arg1)
+        {
+            return func.applyAsInt(arg1, arg2);
+        }
+    }
+
+    public static final class IntBothBound implements IntSupplier
+    {
+        private final IntBinaryOperator func;
+        private int arg1;
+        private int arg2;
+
+        private IntBothBound(IntBinaryOperator func, int arg1, int arg2)
+        {
+            this.func = Objects.requireNonNull(func);
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+        }
+
+        public IntBothBound rebind(int arg1, int arg2)
+        {
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            return this;
+        }
+
+        @Override
+        public int getAsInt()
+        {
+            return func.applyAsInt(arg1, arg2);
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package uk.org.thehickses.functional;
+
+@FunctionalInterface
+public interface DoubleTernaryOperator
+{
+    double applyAsDouble(double arg1, double arg2, double arg3);
+}
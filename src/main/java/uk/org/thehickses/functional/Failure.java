@@ -0,0 +1,77 @@
+package uk.org.thehickses.functional;
+
+/**
+ * The failure channel of a result chain. A stage that cannot produce a value calls one of the {@code fail} methods
+ * and returns what it returns, and the chain then skips its remaining stages. The chains reuse one instance per
+ * thread for call after call, so stages and recovery functions must not keep it.
+ */
+public final class Failure
+{
+    private static final ThreadLocal<Failure> CURRENT = ThreadLocal.withInitial(Failure::new);
+
+    private boolean failed = false;
+    private Object reason = null;
+    private boolean inUse = false;
+
+    /**
+     * Marks the call as failed for the given reason, which is typically a constant such as a string or an enum value
+     * so that failing allocates nothing.
+     *
+     * @return null, for an object stage to return.
+     */
+    public <R> R fail(Object reason)
+    {
+        this.failed = true;
+        this.reason = reason;
+        return null;
+    }
+
+    /**
+     * Marks the call as failed for the given reason.
+     *
+     * @return zero, for an int stage to return.
+     */
+    public int failAsInt(Object reason)
+    {
+        fail(reason);
+        return 0;
+    }
+
+    public boolean failed()
+    {
+        return failed;
+    }
+
+    public Object reason()
+    {
+        return reason;
+    }
+
+    public void reset()
+    {
+        failed = false;
+        reason = null;
+    }
+
+    static Failure acquire()
+    {
+        Failure failure = CURRENT.get();
+        // A result chain called from a stage of another one on the same thread needs a channel of its own
+        if (failure.inUse)
+            return new Failure();
+        failure.inUse = true;
+        return failure;
+    }
+
+    void release()
+    {
+        reset();
+        inUse = false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return failed ? "Failure[" + reason + "]" : "Failure[none]";
+    }
+}
@@ -0,0 +1,399 @@
+package uk.org.thehickses.functional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntFunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+import uk.org.thehickses.functional.Chain.UnaryOperatorChain;
+
+class FlatChain
+{
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final Stages<Function<Object, Object>> NO_FUNCTIONS = new Stages<>(functions(0));
+    private static final Stages<IntUnaryOperator> NO_INT_OPERATORS = new Stages<>(new IntUnaryOperator[0]);
+
+    static <T, R> FunctionChain<T, R> of(Function<T, R> func)
+    {
+        return new FunctionStages<>(append(NO_FUNCTIONS, func));
+    }
+
+    static <T> UnaryOperatorChain<T> of(UnaryOperator<T> func)
+    {
+        return new UnaryOperatorStages<>(append(NO_FUNCTIONS, func));
+    }
+
+    static <T> SupplierChain<T> of(Supplier<T> func)
+    {
+        return new SupplierStages<>(func, NO_FUNCTIONS);
+    }
+
+    static IntUnaryOperatorChain of(IntUnaryOperator func)
+    {
+        return new IntUnaryOperatorStages(NO_INT_OPERATORS.append(func));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Stages<Function<Object, Object>> append(Stages<Function<Object, Object>> stages,
+            Function<?, ?> func)
+    {
+        return stages.append((Function<Object, Object>) func);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object>[] functions(int length)
+    {
+        return (Function<Object, Object>[]) new Function<?, ?>[length];
+    }
+
+    private static Object apply(Stages<Function<Object, Object>> stages, Object arg)
+    {
+        Function<Object, Object>[] elements = stages.elements();
+        Object answer = arg;
+        for (int i = 0, length = stages.length(); i < length; i++)
+            answer = elements[i].apply(answer);
+        return answer;
+    }
+
+    /**
+     * An immutable sequence of stages. Chains that extend a common prefix share its storage; the first chain to extend
+     * a given sequence appends in place, and any other copies it.
+     */
+    static final class Stages<S>
+    {
+        private final Buffer<S> buffer;
+        private final int length;
+
+        private Stages(S[] empty)
+        {
+            this(new Buffer<>(empty), 0);
+        }
+
+        private Stages(Buffer<S> buffer, int length)
+        {
+            this.buffer = buffer;
+            this.length = length;
+        }
+
+        Stages<S> append(S stage)
+        {
+            synchronized (buffer)
+            {
+                if (buffer.size == length && length < buffer.elements.length)
+                {
+                    buffer.elements[buffer.size++] = stage;
+                    return new Stages<>(buffer, length + 1);
+                }
+            }
+            Buffer<S> copy = new Buffer<>(Arrays.copyOf(buffer.elements, Math.max(8, length * 2)));
+            copy.elements[length] = stage;
+            copy.size = length + 1;
+            return new Stages<>(copy, length + 1);
+        }
+
+        S[] elements()
+        {
+            return buffer.elements;
+        }
+
+        int length()
+        {
+            return length;
+        }
+
+        @Override
+        public String toString()
+        {
+            return Arrays.toString(Arrays.copyOf(buffer.elements, length));
+        }
+    }
+
+    /**
+     * The Vector API kernel, if the vector module is present. Looking it up uses lambdas inside the JDK, so it is done
+     * on first use by {@code applyAll} rather than when the first flat chain is built, to keep it off the startup path.
+     * The kernel is loaded by name, because it is compiled apart from the main sources, which therefore build without
+     * the incubator module.
+     */
+    static final class VectorSupport
+    {
+        static final Kernel KERNEL = kernel();
+        static final boolean PRESENT = KERNEL != null;
+
+        interface Kernel
+        {
+            /**
+             * Applies the stage in place to the elements of {@code data} from index {@code from} (inclusive) to
+             * {@code to} (exclusive).
+             */
+            void apply(IntOps.Op op, int[] data, int from, int to);
+        }
+
+        private static Kernel kernel()
+        {
+            if (ModuleLayer.boot()
+                    .findModule("jdk.incubator.vector")
+                    .isEmpty())
+                return null;
+            try
+            {
+                return (Kernel) Class.forName("uk.org.thehickses.functional.VectorKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            }
+            catch (ReflectiveOperationException ex)
+            {
+                return null;
+            }
+        }
+    }
+
+    private static final class Buffer<S>
+    {
+        private final S[] elements;
+        private int size;
+
+        Buffer(S[] elements)
+        {
+            this.elements = elements;
+        }
+    }
+
+    static final class FunctionStages<T, R> implements FunctionChain<T, R>
+    {
+        final Stages<Function<Object, Object>> stages;
+
+        FunctionStages(Stages<Function<Object, Object>> stages)
+        {
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public R apply(T arg)
+        {
+            return (R) FlatChain.apply(stages, arg);
+        }
+
+        @Override
+        public <S> FunctionChain<T, S> and(Function<? super R, S> func)
+        {
+            return new FunctionStages<>(append(stages, func));
+        }
+
+        @Override
+        public FunctionChain<T, R> and(UnaryOperator<R> func)
+        {
+            return new FunctionStages<>(append(stages, func));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public FunctionChain<T, R> compile()
+        {
+            return (FunctionChain<T, R>) ChainCompiler.compileFunctions(stages.elements(), stages.length());
+        }
+    }
+
+    static final class UnaryOperatorStages<T> implements UnaryOperatorChain<T>
+    {
+        final Stages<Function<Object, Object>> stages;
+
+        UnaryOperatorStages(Stages<Function<Object, Object>> stages)
+        {
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T apply(T arg)
+        {
+            return (T) FlatChain.apply(stages, arg);
+        }
+
+        @Override
+        public <R> FunctionChain<T, R> and(Function<? super T, R> func)
+        {
+            return new FunctionStages<>(append(stages, func));
+        }
+
+        @Override
+        public UnaryOperatorChain<T> and(UnaryOperator<T> func)
+        {
+            return new UnaryOperatorStages<>(append(stages, func));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public UnaryOperatorChain<T> compile()
+        {
+            return (UnaryOperatorChain<T>) ChainCompiler.compileUnaryOperators(stages.elements(), stages.length());
+        }
+    }
+
+    static final class SupplierStages<T> implements SupplierChain<T>
+    {
+        final Supplier<?> head;
+        final Stages<Function<Object, Object>> stages;
+
+        SupplierStages(Supplier<?> head, Stages<Function<Object, Object>> stages)
+        {
+            this.head = head;
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get()
+        {
+            return (T) FlatChain.apply(stages, head.get());
+        }
+
+        @Override
+        public <R> SupplierChain<R> and(Function<? super T, R> func)
+        {
+            return new SupplierStages<>(head, append(stages, func));
+        }
+
+        @Override
+        public SupplierChain<T> and(UnaryOperator<T> func)
+        {
+            return new SupplierStages<>(head, append(stages, func));
+        }
+
+        @Override
+        public SupplierChain<T> compile()
+        {
+            return ChainCompiler.compileSupplier(head, stages.elements(), stages.length());
+        }
+    }
+
+    static final class IntUnaryOperatorStages implements IntUnaryOperatorChain
+    {
+        final Stages<IntUnaryOperator> stages;
+
+        IntUnaryOperatorStages(Stages<IntUnaryOperator> stages)
+        {
+            this.stages = stages;
+        }
+
+        @Override
+        public int applyAsInt(int arg)
+        {
+            IntUnaryOperator[] elements = stages.elements();
+            int answer = arg;
+            for (int i = 0, length = stages.length(); i < length; i++)
+                answer = elements[i].applyAsInt(answer);
+            return answer;
+        }
+
+        @Override
+        public IntUnaryOperatorChain and(IntUnaryOperator func)
+        {
+            return new IntUnaryOperatorStages(stages.append(func));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> IntFunctionChain<T> and(IntFunction<T> func)
+        {
+            if (func == IntOps.boxed())
+                return (IntFunctionChain<T>) new BoxedStages(this);
+            return IntUnaryOperatorChain.super.and(func);
+        }
+
+        @Override
+        public List<IntUnaryOperator> stages()
+        {
+            return List.of(Arrays.copyOf(stages.elements(), stages.length()));
+        }
+
+        @Override
+        public IntUnaryOperatorChain optimized()
+        {
+            IntUnaryOperator[] elements = stages.elements();
+            IntUnaryOperator[] optimized = new IntUnaryOperator[stages.length()];
+            int count = 0;
+            for (int i = 0, length = stages.length(); i < length; i++)
+            {
+                IntUnaryOperator fused = count == 0 ? null : IntOps.fuse(optimized[count - 1], elements[i]);
+                if (fused == null)
+                    optimized[count++] = elements[i];
+                else
+                    optimized[count - 1] = fused;
+                if (IntOps.isIdentity(optimized[count - 1]))
+                    count--;
+            }
+            Stages<IntUnaryOperator> result = NO_INT_OPERATORS;
+            for (int i = 0; i < count; i++)
+                result = result.append(optimized[i]);
+            return new IntUnaryOperatorStages(result);
+        }
+
+        @Override
+        public IntUnaryOperatorChain compile()
+        {
+            return ChainCompiler.compileIntUnaryOperators(stages.elements(), stages.length());
+        }
+
+        @Override
+        public void applyAll(int[] src, int srcPos, int[] dst, int dstPos, int length)
+        {
+            Objects.checkFromIndexSize(srcPos, length, src.length);
+            Objects.checkFromIndexSize(dstPos, length, dst.length);
+            System.arraycopy(src, srcPos, dst, dstPos, length);
+            IntUnaryOperator[] elements = stages.elements();
+            int stageCount = stages.length();
+            for (int from = dstPos, end = dstPos + length; from < end; from += BLOCK_SIZE)
+            {
+                int to = Math.min(from + BLOCK_SIZE, end);
+                for (int s = 0; s < stageCount; s++)
+                {
+                    IntUnaryOperator stage = elements[s];
+                    if (VectorSupport.PRESENT && stage instanceof IntOps.Op op)
+                        VectorSupport.KERNEL.apply(op, dst, from, to);
+                    else
+                        for (int i = from; i < to; i++)
+                            dst[i] = stage.applyAsInt(dst[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * An int chain followed by {@link IntOps#boxed()}, so that unboxing the result again with {@link IntOps#unboxed()}
+     * gives back the int chain rather than adding a stage.
+     */
+    static final class BoxedStages implements IntFunctionChain<Integer>
+    {
+        final IntUnaryOperatorStages prefix;
+
+        BoxedStages(IntUnaryOperatorStages prefix)
+        {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Integer apply(int arg)
+        {
+            return prefix.applyAsInt(arg);
+        }
+
+        @Override
+        public IntUnaryOperatorChain and(ToIntFunction<? super Integer> func)
+        {
+            if (func == IntOps.unboxed())
+                return prefix;
+            return IntFunctionChain.super.and(func);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class HedgeStats
+{
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public long calls()
+    {
+        return calls.sum();
+    }
+
+    /**
+     * Gets the number of calls for which the first attempt had not finished within the hedging delay, so a second
+     * attempt was started.
+     */
+    public long hedges()
+    {
+        return hedges.sum();
+    }
+
+    /**
+     * Gets the number of calls whose result came from the second attempt.
+     */
+    public long hedgeWins()
+    {
+        return hedgeWins.sum();
+    }
+
+    void recordCall()
+    {
+        calls.increment();
+    }
+
+    void recordHedge()
+    {
+        hedges.increment();
+    }
+
+    void recordHedgeWin()
+    {
+        hedgeWins.increment();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "HedgeStats[calls=%d, hedges=%d, hedgeWins=%d]".formatted(calls(), hedges(), hedgeWins());
+    }
+}
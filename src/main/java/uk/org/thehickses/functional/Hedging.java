@@ -0,0 +1,221 @@
+package uk.org.thehickses.functional;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Time-based controls for chains. Attempts always run on the supplied executor, so that the caller is free to give up
+ * on them or to start another.
+ */
+class Hedging
+{
+    static long delayNanos(Duration delay)
+    {
+        if (delay.isNegative() || delay.isZero())
+            throw new IllegalArgumentException("Delay must be positive: " + delay);
+        return delay.toNanos();
+    }
+
+    /**
+     * Starts an attempt and, if it has not finished within the delay, a second one, and returns whichever result
+     * arrives first. A failed attempt only fails the call once no other attempt is still running. Once one attempt
+     * has succeeded the other is cancelled, interrupting it if it is still running.
+     */
+    static <R> R hedge(Supplier<R> func, long delayNanos, Executor executor, HedgeStats stats)
+    {
+        stats.recordCall();
+        Hedge<R> hedge = new Hedge<>(func);
+        hedge.first = hedge.attempt(null);
+        executor.execute(hedge.first);
+        // The second attempt is only started while the first one still counts as running; once it has failed, the
+        // call has failed with it
+        if (!await(hedge.result, delayNanos) && hedge.running.getAndUpdate(n -> n == 0 ? 0 : n + 1) > 0)
+        {
+            hedge.second = hedge.attempt(stats);
+            if (hedge.result.isDone())
+                hedge.ended(null);
+            else
+            {
+                try
+                {
+                    executor.execute(hedge.second);
+                }
+                catch (RejectedExecutionException ex)
+                {
+                    hedge.ended(null);
+                }
+            }
+        }
+        return join(hedge.result);
+    }
+
+    private static class Hedge<R>
+    {
+        private final Supplier<R> func;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicBoolean won = new AtomicBoolean();
+        private volatile FutureTask<Void> first;
+        private volatile FutureTask<Void> second;
+        private volatile Throwable failure;
+
+        Hedge(Supplier<R> func)
+        {
+            this.func = func;
+        }
+
+        FutureTask<Void> attempt(HedgeStats hedgeStats)
+        {
+            return new FutureTask<>(() -> run(hedgeStats), null);
+        }
+
+        private void run(HedgeStats hedgeStats)
+        {
+            // The hedge is only counted once the second attempt starts, since the first may win and cancel it while
+            // it is still queued
+            if (hedgeStats != null)
+                hedgeStats.recordHedge();
+            R value;
+            try
+            {
+                value = func.get();
+            }
+            catch (RuntimeException | Error ex)
+            {
+                ended(ex);
+                return;
+            }
+            // The win is recorded before the result is completed, so that the caller sees it once the call returns
+            if (won.compareAndSet(false, true))
+            {
+                if (hedgeStats != null)
+                    hedgeStats.recordHedgeWin();
+                result.complete(value);
+                FutureTask<Void> loser = hedgeStats == null ? second : first;
+                if (loser != null)
+                    loser.cancel(true);
+            }
+            ended(null);
+        }
+
+        /**
+         * Records that an attempt, or a second attempt that was never started, has ended, with the given failure if
+         * it failed. Once nothing is left running the call fails with the first failure, unless it has already
+         * succeeded.
+         */
+        void ended(Throwable ex)
+        {
+            if (ex != null && failure == null)
+                failure = ex;
+            if (running.decrementAndGet() == 0 && failure != null)
+                result.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Runs an attempt and returns its result, or the fallback if it has not finished within the timeout. An attempt
+     * that times out is cancelled, interrupting it if it is still running.
+     */
+    static <R> R withDeadline(Supplier<R> func, long timeoutNanos, R fallback, Executor executor)
+    {
+        FutureTask<R> task = new FutureTask<>(func::get);
+        executor.execute(task);
+        return get(task, timeoutNanos, fallback);
+    }
+
+    private static boolean await(CompletableFuture<?> result, long timeoutNanos)
+    {
+        try
+        {
+            result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        catch (TimeoutException ex)
+        {
+            return false;
+        }
+        catch (ExecutionException ex)
+        {
+            return true;
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread()
+                    .interrupt();
+            return true;
+        }
+    }
+
+    static <R> R join(CompletableFuture<R> result)
+    {
+        boolean interrupted = false;
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    return result.get();
+                }
+                catch (InterruptedException ex)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException ex)
+                {
+                    throw unchecked(ex.getCause());
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+                Thread.currentThread()
+                        .interrupt();
+        }
+    }
+
+    private static <R> R get(Future<R> task, long timeoutNanos, R fallback)
+    {
+        try
+        {
+            return task.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread()
+                    .interrupt();
+            task.cancel(true);
+            return fallback;
+        }
+        catch (TimeoutException | CancellationException ex)
+        {
+            task.cancel(true);
+            return fallback;
+        }
+        catch (ExecutionException ex)
+        {
+            throw unchecked(ex.getCause());
+        }
+    }
+
+    private static RuntimeException unchecked(Throwable ex)
+    {
+        if (ex instanceof RuntimeException runtime)
+            return runtime;
+        if (ex instanceof Error error)
+            throw error;
+        return new IllegalStateException(ex);
+    }
+}
@@ -0,0 +1,261 @@
+package uk.org.thehickses.functional;
+
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stages that chains can recognise and optimise, unlike arbitrary lambdas. Flat int chains built from these drop
+ * identity stages and fuse runs of affine stages in {@code optimized()}, and boxing an int with {@link #boxed()}
+ * followed by unboxing it with {@link #unboxed()} is removed as the chain is built. When a flat int chain is applied
+ * to an array, stages from here run as vector operations if the {@code jdk.incubator.vector} module is present.
+ */
+public class IntOps
+{
+    private static final Affine IDENTITY = new Affine(1, 0);
+    private static final IntFunction<Integer> BOXED = new IntFunction<>()
+    {
+        @Override
+        public Integer apply(int value)
+        {
+            return value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "boxed";
+        }
+    };
+    private static final ToIntFunction<Integer> UNBOXED = new ToIntFunction<>()
+    {
+        @Override
+        public int applyAsInt(Integer value)
+        {
+            return value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "unboxed";
+        }
+    };
+
+    public static IntUnaryOperator identity()
+    {
+        return IDENTITY;
+    }
+
+    public static IntUnaryOperator add(int addend)
+    {
+        return new Affine(1, addend);
+    }
+
+    public static IntUnaryOperator multiply(int multiplier)
+    {
+        return new Affine(multiplier, 0);
+    }
+
+    /**
+     * Gets the stage {@code x -> x * multiplier + addend}.
+     */
+    public static IntUnaryOperator affine(int multiplier, int addend)
+    {
+        return new Affine(multiplier, addend);
+    }
+
+    public static IntUnaryOperator shiftLeft(int distance)
+    {
+        return new ShiftLeft(distance);
+    }
+
+    public static IntUnaryOperator shiftRight(int distance)
+    {
+        return new ShiftRight(distance);
+    }
+
+    public static IntUnaryOperator unsignedShiftRight(int distance)
+    {
+        return new UnsignedShiftRight(distance);
+    }
+
+    public static IntUnaryOperator bitAnd(int mask)
+    {
+        return new BitAnd(mask);
+    }
+
+    public static IntUnaryOperator min(int bound)
+    {
+        return new Min(bound);
+    }
+
+    public static IntUnaryOperator max(int bound)
+    {
+        return new Max(bound);
+    }
+
+    public static IntUnaryOperator clamp(int min, int max)
+    {
+        if (min > max)
+            throw new IllegalArgumentException(String.format("Minimum %d is greater than maximum %d", min, max));
+        return new Clamp(min, max);
+    }
+
+    public static IntFunction<Integer> boxed()
+    {
+        return BOXED;
+    }
+
+    public static ToIntFunction<Integer> unboxed()
+    {
+        return UNBOXED;
+    }
+
+    static boolean isIdentity(IntUnaryOperator stage)
+    {
+        return stage instanceof Affine affine && affine.multiplier == 1 && affine.addend == 0;
+    }
+
+    /**
+     * Combines two stages into one that does the same as applying {@code first} and then {@code second}, or returns
+     * null if they cannot be combined.
+     */
+    static IntUnaryOperator fuse(IntUnaryOperator first, IntUnaryOperator second)
+    {
+        // Integer arithmetic wraps consistently, so a * (c * x + d) + b == (a * c) * x + (a * d + b) holds even on
+        // overflow
+        if (first instanceof Affine f && second instanceof Affine s)
+            return new Affine(s.multiplier * f.multiplier, s.multiplier * f.addend + s.addend);
+        return null;
+    }
+
+    sealed interface Op extends IntUnaryOperator
+            permits Affine, ShiftLeft, ShiftRight, UnsignedShiftRight, BitAnd, Min, Max, Clamp
+    {
+    }
+
+    record Affine(int multiplier, int addend) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return operand * multiplier + addend;
+        }
+
+        @Override
+        public String toString()
+        {
+            if (multiplier == 1)
+                return addend == 0 ? "identity" : "add(%d)".formatted(addend);
+            if (addend == 0)
+                return "multiply(%d)".formatted(multiplier);
+            return "affine(%d, %d)".formatted(multiplier, addend);
+        }
+    }
+
+    record ShiftLeft(int distance) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return operand << distance;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "shiftLeft(%d)".formatted(distance);
+        }
+    }
+
+    record ShiftRight(int distance) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return operand >> distance;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "shiftRight(%d)".formatted(distance);
+        }
+    }
+
+    record UnsignedShiftRight(int distance) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return operand >>> distance;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "unsignedShiftRight(%d)".formatted(distance);
+        }
+    }
+
+    record BitAnd(int mask) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return operand & mask;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "bitAnd(0x%x)".formatted(mask);
+        }
+    }
+
+    record Min(int bound) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return Math.min(operand, bound);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "min(%d)".formatted(bound);
+        }
+    }
+
+    record Max(int bound) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return Math.max(operand, bound);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "max(%d)".formatted(bound);
+        }
+    }
+
+    record Clamp(int min, int max) implements Op
+    {
+        @Override
+        public int applyAsInt(int operand)
+        {
+            return Math.min(Math.max(operand, min), max);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "clamp(%d, %d)".formatted(min, max);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package uk.org.thehickses.functional;
+
+@FunctionalInterface
+public interface IntTernaryOperator
+{
+    int applyAsInt(int arg1, int arg2, int arg3);
+}
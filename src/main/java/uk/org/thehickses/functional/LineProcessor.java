@@ -0,0 +1,395 @@
+package uk.org.thehickses.functional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a chain over every line of a text file and passes the results to a sink. The file is read in large blocks into
+ * buffers that are reused, delimiters are found eight bytes at a time, and each line is decoded straight from the
+ * buffer, so the line strings are the only allocation per line. Large files can be split into chunks that are
+ * processed in parallel, with the results passed to the sink either in file order or as soon as they are ready.
+ * <p>
+ * Each line ends with a delimiter byte, which is a newline unless set otherwise. When the delimiter is a newline, a
+ * carriage return just before it is dropped. A final line without a delimiter is still processed. The charset must
+ * encode the delimiter as that same single byte. This holds for ASCII delimiters in UTF-8, ISO-8859-1 and other
+ * ASCII-compatible charsets.
+ */
+public class LineProcessor
+{
+    private static final int CHUNK_BYTES = 8 << 20;
+    private static final int BUFFER_BYTES = 256 << 10;
+    private static final int WAVES_PER_WORKER = 4;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    public static LineProcessor of(Path file)
+    {
+        return new LineProcessor(Objects.requireNonNull(file), StandardCharsets.UTF_8, (byte) '\n', null, false,
+                CHUNK_BYTES);
+    }
+
+    private final Path file;
+    private final Charset charset;
+    private final byte delimiter;
+    private final ForkJoinPool pool;
+    private final boolean ordered;
+    private final int chunkBytes;
+
+    private LineProcessor(Path file, Charset charset, byte delimiter, ForkJoinPool pool, boolean ordered,
+            int chunkBytes)
+    {
+        this.file = file;
+        this.charset = charset;
+        this.delimiter = delimiter;
+        this.pool = pool;
+        this.ordered = ordered;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public LineProcessor charset(Charset charset)
+    {
+        return new LineProcessor(file, Objects.requireNonNull(charset), delimiter, pool, ordered, chunkBytes);
+    }
+
+    public LineProcessor delimiter(char delimiter)
+    {
+        if (delimiter > 0x7f)
+            throw new IllegalArgumentException(String.format("Delimiter is not an ASCII character: \\u%04x",
+                    (int) delimiter));
+        return new LineProcessor(file, charset, (byte) delimiter, pool, ordered, chunkBytes);
+    }
+
+    /**
+     * Processes the file in chunks on the given pool. If {@code ordered} is true the results reach the sink in file
+     * order, one at a time. Otherwise each chunk passes its results to the sink as soon as they are ready, so the
+     * sink is called from several threads at once and must be thread-safe.
+     */
+    public LineProcessor parallel(ForkJoinPool pool, boolean ordered)
+    {
+        return new LineProcessor(file, charset, delimiter, Objects.requireNonNull(pool), ordered, chunkBytes);
+    }
+
+    LineProcessor chunkBytes(int chunkBytes)
+    {
+        if (chunkBytes < 1)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        return new LineProcessor(file, charset, delimiter, pool, ordered, chunkBytes);
+    }
+
+    /**
+     * Applies the chain to each line of the file and passes the result to the sink.
+     *
+     * @return the number of lines processed.
+     */
+    public <R> long run(Function<? super String, ? extends R> chain, Consumer<? super R> sink) throws IOException
+    {
+        Objects.requireNonNull(chain);
+        Objects.requireNonNull(sink);
+        if (!Arrays.equals(new byte[] { delimiter }, String.valueOf((char) delimiter)
+                .getBytes(charset)))
+            throw new IllegalArgumentException(
+                    String.format("Charset %s does not encode the delimiter as a single byte", charset));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            if (pool == null)
+                return new Reader(Math.min(BUFFER_BYTES, chunkBytes)).read(channel, 0, Long.MAX_VALUE,
+                        line -> sink.accept(chain.apply(line)));
+            long[] boundaries = boundaries(channel);
+            return ordered ? runOrdered(channel, boundaries, chain, sink)
+                    : runUnordered(channel, boundaries, line -> sink.accept(chain.apply(line)));
+        }
+    }
+
+    private long runUnordered(FileChannel channel, long[] boundaries, Consumer<String> action) throws IOException
+    {
+        Queue<Reader> readers = new ConcurrentLinkedQueue<>();
+        ChunkCounts counts = new ChunkCounts(boundaries.length - 1);
+        run(boundaries.length - 1, chunk -> counts.set(chunk, read(readers, channel, boundaries, chunk, action)));
+        return counts.sum();
+    }
+
+    private <R> long runOrdered(FileChannel channel, long[] boundaries, Function<? super String, ? extends R> chain,
+            Consumer<? super R> sink) throws IOException
+    {
+        // Chunks go through in waves so that the results waiting behind a slow chunk cannot grow without limit
+        Queue<Reader> readers = new ConcurrentLinkedQueue<>();
+        int chunks = boundaries.length - 1;
+        int wave = pool.getParallelism() * WAVES_PER_WORKER;
+        long lines = 0;
+        for (int first = 0; first < chunks; first += wave)
+        {
+            int start = first;
+            OrderedResults<R> results = new OrderedResults<>(Math.min(wave, chunks - first), sink);
+            run(results.size(), index ->
+                {
+                    List<R> chunkResults = new ArrayList<>();
+                    read(readers, channel, boundaries, start + index, line -> chunkResults.add(chain.apply(line)));
+                    results.add(index, chunkResults);
+                });
+            lines += results.delivered();
+        }
+        return lines;
+    }
+
+    private long read(Queue<Reader> readers, FileChannel channel, long[] boundaries, int chunk,
+            Consumer<String> action) throws IOException
+    {
+        Reader reader = readers.poll();
+        if (reader == null)
+            reader = new Reader(Math.min(BUFFER_BYTES, chunkBytes));
+        try
+        {
+            return reader.read(channel, boundaries[chunk], boundaries[chunk + 1], action);
+        }
+        finally
+        {
+            readers.offer(reader);
+        }
+    }
+
+    /**
+     * Works out where the chunks start. Each one starts at the beginning of the first line at or after a multiple of
+     * the chunk size from the previous one, and the last entry is the end of the file.
+     */
+    private long[] boundaries(FileChannel channel) throws IOException
+    {
+        long size = channel.size();
+        long[] result = new long[(int) (size / chunkBytes) + 2];
+        int count = 1;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (long position = chunkBytes; position < size;)
+        {
+            long boundary = nextLineStart(channel, position, probe);
+            if (boundary >= size)
+                break;
+            result[count++] = boundary;
+            position = boundary + chunkBytes;
+        }
+        result[count++] = size;
+        return Arrays.copyOf(result, count);
+    }
+
+    private long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException
+    {
+        for (long offset = position - 1;;)
+        {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read < 0)
+                return Long.MAX_VALUE;
+            for (int i = 0; i < read; i++)
+                if (probe.get(i) == delimiter)
+                    return offset + i + 1;
+            offset += read;
+        }
+    }
+
+    @FunctionalInterface
+    private static interface ChunkAction
+    {
+        void apply(int chunk) throws IOException;
+    }
+
+    private void run(int chunks, ChunkAction action) throws IOException
+    {
+        try
+        {
+            ParallelBulk.run(pool, chunks, 1, (first, count) ->
+                {
+                    for (int c = first; c < first + count; c++)
+                    {
+                        try
+                        {
+                            action.apply(c);
+                        }
+                        catch (IOException ex)
+                        {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                });
+        }
+        catch (UncheckedIOException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Splits a range of the file into lines, using a buffer that is kept for the next range. The buffer grows when a
+     * line does not fit in it.
+     */
+    private class Reader
+    {
+        private final long pattern = (delimiter & 0xffL) * 0x0101010101010101L;
+        private byte[] buffer;
+
+        Reader(int size)
+        {
+            buffer = new byte[size];
+        }
+
+        long read(FileChannel channel, long from, long to, Consumer<String> action) throws IOException
+        {
+            long lines = 0;
+            int held = 0;
+            for (long position = from;;)
+            {
+                if (held == buffer.length)
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                int read = position < to
+                        ? channel.read(ByteBuffer.wrap(buffer, held,
+                                (int) Math.min(buffer.length - held, to - position)), position)
+                        : -1;
+                if (read < 0)
+                {
+                    if (held > 0)
+                    {
+                        action.accept(decode(0, held));
+                        lines++;
+                    }
+                    return lines;
+                }
+                position += read;
+                int end = held + read;
+                int start = 0;
+                for (int i = indexOf(held, end); i >= 0; i = indexOf(start, end))
+                {
+                    action.accept(decode(start, i));
+                    lines++;
+                    start = i + 1;
+                }
+                held = end - start;
+                System.arraycopy(buffer, start, buffer, 0, held);
+            }
+        }
+
+        /**
+         * Finds the next delimiter, checking eight bytes at a time. The bytes are XORed with the delimiter repeated in
+         * every byte, and the standard test for a zero byte in a word finds the first that matched.
+         */
+        private int indexOf(int from, int to)
+        {
+            byte[] buffer = this.buffer;
+            int i = from;
+            for (; i <= to - Long.BYTES; i += Long.BYTES)
+            {
+                long word = (long) LONGS.get(buffer, i) ^ pattern;
+                long zeros = (word - 0x0101010101010101L) & ~word & 0x8080808080808080L;
+                if (zeros != 0)
+                    return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+            }
+            for (; i < to; i++)
+                if (buffer[i] == delimiter)
+                    return i;
+            return -1;
+        }
+
+        private String decode(int from, int to)
+        {
+            if (delimiter == '\n' && to > from && buffer[to - 1] == '\r')
+                to--;
+            return new String(buffer, from, to - from, charset);
+        }
+    }
+
+    private static class ChunkCounts
+    {
+        private final long[] counts;
+
+        ChunkCounts(int chunks)
+        {
+            counts = new long[chunks];
+        }
+
+        // Each chunk writes only its own slot, and the fork/join join makes the writes visible to the caller
+        void set(int chunk, long count)
+        {
+            counts[chunk] = count;
+        }
+
+        long sum()
+        {
+            return Arrays.stream(counts)
+                    .sum();
+        }
+    }
+
+    /**
+     * Collects the results of a wave of chunks and passes them to the sink in chunk order. Whichever thread finds
+     * the next chunk's results ready delivers them, together with any that follow. The others carry on without
+     * waiting.
+     */
+    private static class OrderedResults<R>
+    {
+        private final AtomicReferenceArray<List<R>> results;
+        private final Consumer<? super R> sink;
+        private final ReentrantLock deliveryLock = new ReentrantLock();
+        private volatile int next = 0;
+        private long delivered = 0;
+
+        OrderedResults(int size, Consumer<? super R> sink)
+        {
+            results = new AtomicReferenceArray<>(size);
+            this.sink = sink;
+        }
+
+        int size()
+        {
+            return results.length();
+        }
+
+        void add(int index, List<R> chunkResults)
+        {
+            results.set(index, chunkResults);
+            // Checking again after unlocking catches results added while this thread held the lock
+            while (nextReady() && deliveryLock.tryLock())
+            {
+                try
+                {
+                    for (List<R> ready; next < size() && (ready = results.get(next)) != null; next++)
+                    {
+                        results.set(next, null);
+                        ready.forEach(sink);
+                        delivered += ready.size();
+                    }
+                }
+                finally
+                {
+                    deliveryLock.unlock();
+                }
+            }
+        }
+
+        private boolean nextReady()
+        {
+            int index = next;
+            return index < size() && results.get(index) != null;
+        }
+
+        long delivered()
+        {
+            return delivered;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package uk.org.thehickses.functional;
+
+@FunctionalInterface
+public interface LongQuaternaryOperator
+{
+    long applyAsLong(long arg1, long arg2, long arg3, long arg4);
+}
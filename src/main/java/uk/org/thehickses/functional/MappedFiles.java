@@ -0,0 +1,166 @@
+package uk.org.thehickses.functional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+/**
+ * Runs chains over binary files without reading them onto the heap. The input and output files are memory-mapped in
+ * chunks, and the chunks are processed in parallel on a fork/join pool, so files may be far larger than the heap.
+ */
+public class MappedFiles
+{
+    private static final long CHUNK_BYTES = 64L << 20;
+    private static final int BLOCK_SIZE = 4096;
+
+    /**
+     * Applies the chain to every int in the input file, writing the results to the same positions in the output file,
+     * which is created or replaced. The input's size must be a multiple of 4. Ints are converted in blocks through a
+     * small buffer per task, so that flat chains can use their bulk path.
+     *
+     * @return the number of ints processed.
+     */
+    public static long transform(Path input, Path output, IntUnaryOperatorChain chain, ByteOrder order,
+            ForkJoinPool pool) throws IOException
+    {
+        return transform(input, output, chain, order, pool, CHUNK_BYTES);
+    }
+
+    static long transform(Path input, Path output, IntUnaryOperatorChain chain, ByteOrder order, ForkJoinPool pool,
+            long chunkBytes) throws IOException
+    {
+        Objects.requireNonNull(chain);
+        Objects.requireNonNull(order);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                FileChannel out = openOutput(output))
+        {
+            long size = in.size();
+            if (size % Integer.BYTES != 0)
+                throw new IllegalArgumentException(
+                        String.format("File size %d is not a whole number of ints: %s", size, input));
+            long chunk = chunkBytes - chunkBytes % Integer.BYTES;
+            presize(out, size);
+            run(pool, size, chunk, (from, to) ->
+                {
+                    IntBuffer src = in.map(MapMode.READ_ONLY, from, to - from)
+                            .order(order)
+                            .asIntBuffer();
+                    IntBuffer dst = out.map(MapMode.READ_WRITE, from, to - from)
+                            .order(order)
+                            .asIntBuffer();
+                    int[] block = new int[BLOCK_SIZE];
+                    for (int i = 0, count = src.limit(); i < count; i += BLOCK_SIZE)
+                    {
+                        int length = Math.min(BLOCK_SIZE, count - i);
+                        src.get(i, block, 0, length);
+                        chain.applyAll(block, 0, block, 0, length);
+                        dst.put(i, block, 0, length);
+                    }
+                });
+            return size / Integer.BYTES;
+        }
+    }
+
+    /**
+     * Applies the chain to every fixed-size record in the input file, writing one int per record to the output file,
+     * which is created or replaced. The input's size must be a multiple of the record size.
+     * <p>
+     * For each record the chain is passed a buffer whose position is the start of the record and whose limit is its
+     * end. The buffer is reused for the next record, so the chain must not keep it.
+     *
+     * @return the number of records processed.
+     */
+    public static long transformRecords(Path input, int recordSize, Path output, ToIntFunctionChain<ByteBuffer> chain,
+            ByteOrder order, ForkJoinPool pool) throws IOException
+    {
+        return transformRecords(input, recordSize, output, chain, order, pool, CHUNK_BYTES);
+    }
+
+    static long transformRecords(Path input, int recordSize, Path output, ToIntFunctionChain<ByteBuffer> chain,
+            ByteOrder order, ForkJoinPool pool, long chunkBytes) throws IOException
+    {
+        if (recordSize < 1)
+            throw new IllegalArgumentException("Record size must be positive: " + recordSize);
+        Objects.requireNonNull(chain);
+        Objects.requireNonNull(order);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                FileChannel out = openOutput(output))
+        {
+            long size = in.size();
+            if (size % recordSize != 0)
+                throw new IllegalArgumentException(String.format(
+                        "File size %d is not a whole number of %d-byte records: %s", size, recordSize, input));
+            long records = size / recordSize;
+            long chunkRecords = Math.max(1, chunkBytes / Math.max(recordSize, Integer.BYTES));
+            presize(out, records * Integer.BYTES);
+            run(pool, records, chunkRecords, (from, to) ->
+                {
+                    ByteBuffer src = in.map(MapMode.READ_ONLY, from * recordSize, (to - from) * recordSize)
+                            .order(order);
+                    IntBuffer dst = out.map(MapMode.READ_WRITE, from * Integer.BYTES, (to - from) * Integer.BYTES)
+                            .order(order)
+                            .asIntBuffer();
+                    for (int i = 0, count = dst.limit(), start = 0; i < count; i++, start += recordSize)
+                        dst.put(i, chain.applyAsInt(src.limit(start + recordSize)
+                                .position(start)));
+                });
+            return records;
+        }
+    }
+
+    @FunctionalInterface
+    private static interface ChunkAction
+    {
+        void apply(long from, long to) throws IOException;
+    }
+
+    private static FileChannel openOutput(Path output) throws IOException
+    {
+        return FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void presize(FileChannel out, long size) throws IOException
+    {
+        // Sizing the output up front stops the parallel mappings each trying to extend the file
+        if (size > 0)
+            out.write(ByteBuffer.allocate(1), size - 1);
+    }
+
+    private static void run(ForkJoinPool pool, long units, long chunkUnits, ChunkAction action) throws IOException
+    {
+        int chunks = Math.toIntExact((units + chunkUnits - 1) / chunkUnits);
+        try
+        {
+            ParallelBulk.run(pool, chunks, 1, (first, count) ->
+                {
+                    for (int c = first; c < first + count; c++)
+                    {
+                        try
+                        {
+                            action.apply(c * chunkUnits, Math.min(units, (c + 1) * chunkUnits));
+                        }
+                        catch (IOException ex)
+                        {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                });
+        }
+        catch (UncheckedIOException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package uk.org.thehickses.functional;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.org.thehickses.functional.Chain.SupplierChain;
+
+/**
+ * Caches a supplier's value. With a time to live, a read within the refresh-ahead period before the value expires
+ * starts a reload on the executor while the current value is still returned. If the reload fails, or cannot be
+ * scheduled, the next one is not tried until a quarter of the refresh-ahead period has passed, so a failing source is
+ * retried a few times before the value expires rather than on every read.
+ */
+class Memoizer<T> implements SupplierChain<T>
+{
+    private static final Logger LOG = LoggerFactory.getLogger(Memoizer.class);
+
+    private final Supplier<? extends T> func;
+    private final boolean expires;
+    private final long timeToLive;
+    private final long refreshAhead;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Entry<T> entry;
+
+    Memoizer(Supplier<? extends T> func)
+    {
+        this.func = func;
+        this.expires = false;
+        this.timeToLive = 0;
+        this.refreshAhead = 0;
+        this.executor = null;
+        this.clock = null;
+    }
+
+    Memoizer(Supplier<? extends T> func, Duration timeToLive, Duration refreshAhead, Executor executor)
+    {
+        this(func, timeToLive, refreshAhead, executor, System::nanoTime);
+    }
+
+    Memoizer(Supplier<? extends T> func, Duration timeToLive, Duration refreshAhead, Executor executor,
+            LongSupplier clock)
+    {
+        if (timeToLive.isNegative() || timeToLive.isZero())
+            throw new IllegalArgumentException("Time to live must be positive: " + timeToLive);
+        if (refreshAhead.isNegative() || refreshAhead.compareTo(timeToLive) >= 0)
+            throw new IllegalArgumentException(
+                    "Refresh-ahead period must be non-negative and less than the time to live: " + refreshAhead);
+        this.func = func;
+        this.expires = true;
+        this.timeToLive = timeToLive.toNanos();
+        this.refreshAhead = refreshAhead.toNanos();
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public T get()
+    {
+        Entry<T> e = entry;
+        if (e == null)
+            return load(null).value();
+        if (expires)
+        {
+            long now = clock.getAsLong();
+            if (now - e.expiresAt() >= 0)
+                return load(e).value();
+            if (now - e.refreshAt() >= 0 && refreshing.compareAndSet(false, true))
+                startRefresh(e);
+        }
+        return e.value();
+    }
+
+    private synchronized Entry<T> load(Entry<T> stale)
+    {
+        Entry<T> e = entry;
+        if (e != stale)
+            return e;
+        return entry = newEntry(func.get());
+    }
+
+    private void startRefresh(Entry<T> current)
+    {
+        try
+        {
+            executor.execute(() -> refresh(current));
+        }
+        catch (RuntimeException ex)
+        {
+            postpone(current);
+            refreshing.set(false);
+            LOG.warn("Unable to schedule refresh", ex);
+        }
+    }
+
+    private void refresh(Entry<T> current)
+    {
+        try
+        {
+            entry = newEntry(func.get());
+        }
+        catch (RuntimeException ex)
+        {
+            postpone(current);
+            LOG.warn("Refresh failed; the current value will be kept until it expires", ex);
+        }
+        finally
+        {
+            refreshing.set(false);
+        }
+    }
+
+    private synchronized void postpone(Entry<T> current)
+    {
+        if (entry == current)
+            entry = new Entry<>(current.value(), clock.getAsLong() + Math.max(refreshAhead / 4, 1),
+                    current.expiresAt());
+    }
+
+    private Entry<T> newEntry(T value)
+    {
+        if (!expires)
+            return new Entry<>(value, 0, 0);
+        long now = clock.getAsLong();
+        return new Entry<>(value, now + timeToLive - refreshAhead, now + timeToLive);
+    }
+
+    private static record Entry<T>(T value, long refreshAt, long expiresAt)
+    {
+    }
+}
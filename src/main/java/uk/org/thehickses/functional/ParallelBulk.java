@@ -0,0 +1,63 @@
+package uk.org.thehickses.functional;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits an index range into leaves that are processed in parallel on a fork/join pool. Leaves are sized so that
+ * each worker gets several of them, which keeps the pool busy when some elements take longer than others, but never
+ * drop below a minimum size below which the cost of forking outweighs the work.
+ */
+class ParallelBulk
+{
+    private static final int MIN_LEAF_SIZE = 512;
+    private static final int LEAVES_PER_WORKER = 8;
+
+    @FunctionalInterface
+    static interface RangeAction
+    {
+        void apply(int from, int length);
+    }
+
+    static void run(ForkJoinPool pool, int length, RangeAction action)
+    {
+        run(pool, length, Math.max(MIN_LEAF_SIZE, length / (pool.getParallelism() * LEAVES_PER_WORKER)), action);
+    }
+
+    static void run(ForkJoinPool pool, int length, int leafSize, RangeAction action)
+    {
+        pool.invoke(new Task(action, 0, length, leafSize));
+    }
+
+    private static class Task extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are only ever run on a pool, never serialized
+        private final transient RangeAction action;
+        private final int from;
+        private final int length;
+        private final int leafSize;
+
+        Task(RangeAction action, int from, int length, int leafSize)
+        {
+            this.action = action;
+            this.from = from;
+            this.length = length;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (length <= leafSize)
+                action.apply(from, length);
+            else
+            {
+                int half = length >>> 1;
+                invokeAll(new Task(action, from, half, leafSize),
+                        new Task(action, from + half, length - half, leafSize));
+            }
+        }
+    }
+}
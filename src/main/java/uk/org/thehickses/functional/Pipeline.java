@@ -0,0 +1,335 @@
+package uk.org.thehickses.functional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A chain whose stages each run on their own worker thread, joined by bounded queues. Items flow through the stages
+ * in submission order; while a stage is busy with one item the stages before it can get on with the next ones, so
+ * throughput is limited by the slowest stage rather than by the sum of them all. When a queue is full the stage
+ * feeding it, and ultimately {@link #submit(Object)}, blocks until there is room.
+ * <p>
+ * An item for which a stage throws an exception is logged, counted in {@link #failures()} and dropped. An
+ * {@link Error} stops the stage's worker, as does an interrupt; the worker then drops the items still queued for it,
+ * counting them as failures, but the rest of the pipeline still drains and closes. {@link #close()} lets every item
+ * already submitted reach the end of the pipeline before the workers exit.
+ */
+public class Pipeline<T> implements AutoCloseable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(Pipeline.class);
+    private static final Object NULL = new Object();
+    private static final Object END = new Object();
+
+    public static <T, R> Builder<T, R> of(Function<T, R> stage)
+    {
+        return new Builder<T, T>(new ArrayList<>()).and(stage);
+    }
+
+    public static <T> Terminal<T> of(Consumer<T> stage)
+    {
+        return new Builder<T, T>(new ArrayList<>()).and(stage);
+    }
+
+    public static class Builder<T, R>
+    {
+        private final List<Object> stages;
+
+        private Builder(List<Object> stages)
+        {
+            this.stages = stages;
+        }
+
+        public <S> Builder<T, S> and(Function<? super R, ? extends S> stage)
+        {
+            return new Builder<>(with(stages, stage));
+        }
+
+        public Terminal<T> and(Consumer<? super R> stage)
+        {
+            return new Terminal<>(with(stages, stage));
+        }
+    }
+
+    public static class Terminal<T>
+    {
+        private static final AtomicInteger PIPELINE_NUMBER = new AtomicInteger();
+
+        private final List<Object> stages;
+
+        private Terminal(List<Object> stages)
+        {
+            this.stages = stages;
+        }
+
+        public Pipeline<T> start(int queueCapacity)
+        {
+            int pipeline = PIPELINE_NUMBER.incrementAndGet();
+            AtomicInteger stage = new AtomicInteger();
+            return start(queueCapacity, task ->
+                {
+                    Thread thread = new Thread(task,
+                            "pipeline-" + pipeline + "-stage-" + stage.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+
+        public Pipeline<T> start(int queueCapacity, ThreadFactory threadFactory)
+        {
+            if (queueCapacity < 1)
+                throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+            return new Pipeline<>(stages, queueCapacity, Objects.requireNonNull(threadFactory));
+        }
+    }
+
+    private static List<Object> with(List<Object> stages, Object stage)
+    {
+        List<Object> result = new ArrayList<>(stages);
+        result.add(Objects.requireNonNull(stage));
+        return result;
+    }
+
+    private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final LongAdder failures = new LongAdder();
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed = false;
+
+    @SuppressWarnings("unchecked")
+    private Pipeline(List<Object> stages, int queueCapacity, ThreadFactory threadFactory)
+    {
+        for (int i = 0; i < stages.size(); i++)
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        for (int i = 0; i < stages.size(); i++)
+        {
+            BlockingQueue<Object> input = queues.get(i);
+            BlockingQueue<Object> output = i + 1 < queues.size() ? queues.get(i + 1) : null;
+            Object stage = stages.get(i);
+            Runnable worker = stage instanceof Function
+                    ? () -> runStage(input, (Function<Object, Object>) stage, output)
+                    : () -> runStage(input, (Consumer<Object>) stage);
+            workers.add(threadFactory.newThread(worker));
+        }
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * Passes an item to the first stage, blocking while its queue is full.
+     *
+     * @throws IllegalStateException
+     *             if the pipeline has been closed.
+     */
+    public void submit(T item) throws InterruptedException
+    {
+        closeLock.readLock()
+                .lock();
+        try
+        {
+            if (closed)
+                throw new IllegalStateException("Pipeline is closed");
+            queues.get(0)
+                    .put(item == null ? NULL : item);
+        }
+        finally
+        {
+            closeLock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Gets the number of items waiting in front of each stage, in stage order. A queue that stays full identifies
+     * the stage that is limiting throughput.
+     */
+    public int[] queueDepths()
+    {
+        return queues.stream()
+                .mapToInt(BlockingQueue::size)
+                .toArray();
+    }
+
+    public long failures()
+    {
+        return failures.sum();
+    }
+
+    /**
+     * Stops accepting items, waits until everything already submitted has passed through every stage, and then waits
+     * for the workers to exit. The wait is not cut short by an interrupt, which is instead left pending on the calling
+     * thread.
+     */
+    @Override
+    public void close()
+    {
+        boolean interrupted = false;
+        closeLock.writeLock()
+                .lock();
+        try
+        {
+            if (!closed)
+            {
+                interrupted = putUninterruptibly(queues.get(0), END);
+                closed = true;
+            }
+        }
+        finally
+        {
+            closeLock.writeLock()
+                    .unlock();
+        }
+        for (Thread worker : workers)
+        {
+            while (worker.isAlive())
+            {
+                try
+                {
+                    worker.join();
+                }
+                catch (InterruptedException ex)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread()
+                    .interrupt();
+    }
+
+    private void runStage(BlockingQueue<Object> input, Function<Object, Object> stage, BlockingQueue<Object> output)
+    {
+        boolean ended = false;
+        try
+        {
+            for (Object item = input.take(); item != END; item = input.take())
+            {
+                Object result;
+                try
+                {
+                    result = stage.apply(item == NULL ? null : item);
+                }
+                catch (RuntimeException ex)
+                {
+                    failed(item, ex);
+                    continue;
+                }
+                catch (Error ex)
+                {
+                    failures.increment();
+                    throw ex;
+                }
+                output.put(result == null ? NULL : result);
+            }
+            ended = true;
+        }
+        catch (InterruptedException ex)
+        {
+            LOG.warn("Pipeline worker interrupted; items still queued will be dropped");
+        }
+        finally
+        {
+            finish(input, ended, output);
+        }
+    }
+
+    private void runStage(BlockingQueue<Object> input, Consumer<Object> stage)
+    {
+        boolean ended = false;
+        try
+        {
+            for (Object item = input.take(); item != END; item = input.take())
+            {
+                try
+                {
+                    stage.accept(item == NULL ? null : item);
+                }
+                catch (RuntimeException ex)
+                {
+                    failed(item, ex);
+                }
+                catch (Error ex)
+                {
+                    failures.increment();
+                    throw ex;
+                }
+            }
+            ended = true;
+        }
+        catch (InterruptedException ex)
+        {
+            LOG.warn("Pipeline worker interrupted; items still queued will be dropped");
+        }
+        finally
+        {
+            finish(input, ended, null);
+        }
+    }
+
+    /**
+     * Ends a worker however its loop ended. If it stopped before taking {@code END}, it carries on taking and dropping
+     * items until it gets it, so that earlier stages and {@link #submit(Object)} never block on its full queue; then it
+     * passes {@code END} on, so that later stages exit too and {@link #close()} can return. Both are done even if the
+     * worker is interrupted again, and its interrupt status is restored afterwards.
+     */
+    private void finish(BlockingQueue<Object> input, boolean ended, BlockingQueue<Object> output)
+    {
+        boolean interrupted = Thread.interrupted();
+        while (!ended)
+        {
+            try
+            {
+                ended = input.take() == END;
+                if (!ended)
+                    failures.increment();
+            }
+            catch (InterruptedException ex)
+            {
+                interrupted = true;
+            }
+        }
+        if (output != null && putUninterruptibly(output, END))
+            interrupted = true;
+        if (interrupted)
+            Thread.currentThread()
+                    .interrupt();
+    }
+
+    /**
+     * Puts an item on a queue, waiting for room however often the thread is interrupted, and returns whether it was.
+     */
+    private static boolean putUninterruptibly(BlockingQueue<Object> queue, Object item)
+    {
+        boolean interrupted = false;
+        while (true)
+        {
+            try
+            {
+                queue.put(item);
+                return interrupted;
+            }
+            catch (InterruptedException ex)
+            {
+                interrupted = true;
+            }
+        }
+    }
+
+    private void failed(Object item, RuntimeException ex)
+    {
+        failures.increment();
+        LOG.warn("Pipeline stage failed; dropping item {}", item == NULL ? null : item, ex);
+    }
+}
@@ -0,0 +1,7 @@
+package uk.org.thehickses.functional;
+
+@FunctionalInterface
+public interface QuadFunction<T, U, V, W, R>
+{
+    R apply(T arg1, U arg2, V arg3, W arg4);
+}
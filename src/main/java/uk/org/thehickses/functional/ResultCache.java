@@ -0,0 +1,283 @@
+package uk.org.thehickses.functional;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded, set-associative result cache. Each argument maps to a set of up to four slots, and a miss replaces the
+ * least recently used slot in its set. The cache has as many whole sets as fit in its maximum size, so it holds the
+ * maximum size rounded down to a multiple of four. Sets are guarded by a fixed number of striped locks; the wrapped
+ * function is never called while a lock is held, so two threads missing on the same argument at once may both
+ * compute it.
+ */
+abstract class ResultCache
+{
+    private static final int WAYS = 4;
+    private static final int STRIPES = 64;
+
+    static <T, R> Function<T, R> cache(Function<T, R> func, int maximumSize, CacheStats stats)
+    {
+        return new ObjectKeyed<>(func, maximumSize, stats);
+    }
+
+    static <T> IntFunction<T> cache(IntFunction<T> func, int maximumSize, CacheStats stats)
+    {
+        return new IntKeyed<>(func, maximumSize, stats);
+    }
+
+    static <T> ToIntFunction<T> cache(ToIntFunction<T> func, int maximumSize, CacheStats stats)
+    {
+        return new IntValued<>(func, maximumSize, stats);
+    }
+
+    private final int ways;
+    private final int sets;
+    private final Stripe[] stripes;
+    private final long[] lastUsed;
+    final boolean[] used;
+    final CacheStats stats;
+
+    ResultCache(int maximumSize, CacheStats stats)
+    {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        ways = Math.min(WAYS, maximumSize);
+        sets = maximumSize / ways;
+        stripes = new Stripe[Math.min(Integer.highestOneBit(sets), STRIPES)];
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new Stripe();
+        lastUsed = new long[sets * ways];
+        used = new boolean[sets * ways];
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    final int capacity()
+    {
+        return used.length;
+    }
+
+    /**
+     * Maps a hash to a set by multiplying its mixed bits, as a fraction of 2^32, by the number of sets, which need not
+     * be a power of two.
+     */
+    final int set(int hash)
+    {
+        int h = hash * 0x9E3779B9;
+        return (int) (((h ^ (h >>> 16)) & 0xFFFFFFFFL) * sets >>> 32);
+    }
+
+    final Stripe stripe(int set)
+    {
+        return stripes[set & (stripes.length - 1)];
+    }
+
+    final int firstSlot(int set)
+    {
+        return set * ways;
+    }
+
+    final int endSlot(int set)
+    {
+        return (set + 1) * ways;
+    }
+
+    /**
+     * Marks a slot as most recently used. Must be called with the set's stripe locked.
+     */
+    final void touch(Stripe stripe, int slot)
+    {
+        lastUsed[slot] = ++stripe.clock;
+    }
+
+    /**
+     * Chooses the slot to fill in a set, counting an eviction if it is in use. Must be called with the set's stripe
+     * locked.
+     */
+    final int victim(int set)
+    {
+        int answer = firstSlot(set);
+        for (int slot = answer, end = endSlot(set); slot < end; slot++)
+        {
+            if (!used[slot])
+                return slot;
+            if (lastUsed[slot] < lastUsed[answer])
+                answer = slot;
+        }
+        stats.recordEviction();
+        return answer;
+    }
+
+    static final class Stripe
+    {
+        private long clock;
+    }
+
+    private static final class ObjectKeyed<T, R> extends ResultCache implements Function<T, R>
+    {
+        private final Function<T, R> func;
+        private final Object[] keys;
+        private final Object[] values;
+
+        ObjectKeyed(Function<T, R> func, int maximumSize, CacheStats stats)
+        {
+            super(maximumSize, stats);
+            this.func = func;
+            keys = new Object[capacity()];
+            values = new Object[capacity()];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public R apply(T arg)
+        {
+            int set = set(Objects.hashCode(arg));
+            Stripe stripe = stripe(set);
+            synchronized (stripe)
+            {
+                int slot = find(set, arg);
+                if (slot >= 0)
+                {
+                    touch(stripe, slot);
+                    stats.recordHit();
+                    return (R) values[slot];
+                }
+            }
+            stats.recordMiss();
+            R answer = func.apply(arg);
+            synchronized (stripe)
+            {
+                int slot = find(set, arg);
+                if (slot < 0)
+                {
+                    slot = victim(set);
+                    keys[slot] = arg;
+                    used[slot] = true;
+                }
+                values[slot] = answer;
+                touch(stripe, slot);
+            }
+            return answer;
+        }
+
+        private int find(int set, T arg)
+        {
+            for (int slot = firstSlot(set), end = endSlot(set); slot < end; slot++)
+                if (used[slot] && Objects.equals(keys[slot], arg))
+                    return slot;
+            return -1;
+        }
+    }
+
+    private static final class IntKeyed<R> extends ResultCache implements IntFunction<R>
+    {
+        private final IntFunction<R> func;
+        private final int[] keys;
+        private final Object[] values;
+
+        IntKeyed(IntFunction<R> func, int maximumSize, CacheStats stats)
+        {
+            super(maximumSize, stats);
+            this.func = func;
+            keys = new int[capacity()];
+            values = new Object[capacity()];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public R apply(int arg)
+        {
+            int set = set(arg);
+            Stripe stripe = stripe(set);
+            synchronized (stripe)
+            {
+                int slot = find(set, arg);
+                if (slot >= 0)
+                {
+                    touch(stripe, slot);
+                    stats.recordHit();
+                    return (R) values[slot];
+                }
+            }
+            stats.recordMiss();
+            R answer = func.apply(arg);
+            synchronized (stripe)
+            {
+                int slot = find(set, arg);
+                if (slot < 0)
+                {
+                    slot = victim(set);
+                    keys[slot] = arg;
+                    used[slot] = true;
+                }
+                values[slot] = answer;
+                touch(stripe, slot);
+            }
+            return answer;
+        }
+
+        private int find(int set, int arg)
+        {
+            for (int slot = firstSlot(set), end = endSlot(set); slot < end; slot++)
+                if (used[slot] && keys[slot] == arg)
+                    return slot;
+            return -1;
+        }
+    }
+
+    private static final class IntValued<T> extends ResultCache implements ToIntFunction<T>
+    {
+        private final ToIntFunction<T> func;
+        private final Object[] keys;
+        private final int[] values;
+
+        IntValued(ToIntFunction<T> func, int maximumSize, CacheStats stats)
+        {
+            super(maximumSize, stats);
+            this.func = func;
+            keys = new Object[capacity()];
+            values = new int[capacity()];
+        }
+
+        @Override
+        public int applyAsInt(T arg)
+        {
+            int set = set(Objects.hashCode(arg));
+            Stripe stripe = stripe(set);
+            synchronized (stripe)
+            {
+                int slot = find(set, arg);
+                if (slot >= 0)
+                {
+                    touch(stripe, slot);
+                    stats.recordHit();
+                    return values[slot];
+                }
+            }
+            stats.recordMiss();
+            int answer = func.applyAsInt(arg);
+            synchronized (stripe)
+            {
+                int slot = find(set, arg);
+                if (slot < 0)
+                {
+                    slot = victim(set);
+                    keys[slot] = arg;
+                    used[slot] = true;
+                }
+                values[slot] = answer;
+                touch(stripe, slot);
+            }
+            return answer;
+        }
+
+        private int find(int set, T arg)
+        {
+            for (int slot = firstSlot(set), end = endSlot(set); slot < end; slot++)
+                if (used[slot] && Objects.equals(keys[slot], arg))
+                    return slot;
+            return -1;
+        }
+    }
+}
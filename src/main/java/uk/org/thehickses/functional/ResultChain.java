@@ -0,0 +1,209 @@
+package uk.org.thehickses.functional;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+/**
+ * Chains for stages that can fail in expected ways, such as parse errors or missing keys, without throwing. Each stage
+ * is passed a {@link Failure} channel as well as its argument. A stage that cannot produce a value records the
+ * failure there, and the chain skips its remaining stages. A chain is finished with {@code recover} or
+ * {@code withDefault}, which turn it back into an ordinary chain that runs a recovery function or returns a default
+ * when a stage failed.
+ * <p>
+ * The finished chains reuse one failure channel per thread, so a call that succeeds allocates nothing beyond what
+ * its stages do.
+ */
+public class ResultChain
+{
+    public static <T, R> ResultFunctionChain<T, R> of(ResultFunction<T, R> func)
+    {
+        return func::apply;
+    }
+
+    public static <T> ResultToIntFunctionChain<T> of(ResultToIntFunction<T> func)
+    {
+        return func::applyAsInt;
+    }
+
+    public static ResultIntUnaryOperatorChain of(ResultIntUnaryOperator func)
+    {
+        return func::applyAsInt;
+    }
+
+    @FunctionalInterface
+    public static interface ResultFunction<T, R>
+    {
+        R apply(T arg, Failure failure);
+    }
+
+    @FunctionalInterface
+    public static interface ResultToIntFunction<T>
+    {
+        int applyAsInt(T arg, Failure failure);
+    }
+
+    @FunctionalInterface
+    public static interface ResultIntUnaryOperator
+    {
+        int applyAsInt(int arg, Failure failure);
+    }
+
+    public static interface ResultFunctionChain<T, R> extends ResultFunction<T, R>
+    {
+        public default <S> ResultFunctionChain<T, S> and(ResultFunction<? super R, S> func)
+        {
+            return (arg, failure) ->
+                {
+                    R value = apply(arg, failure);
+                    return failure.failed() ? null : func.apply(value, failure);
+                };
+        }
+
+        public default <S> ResultFunctionChain<T, S> and(Function<? super R, S> func)
+        {
+            return (arg, failure) ->
+                {
+                    R value = apply(arg, failure);
+                    return failure.failed() ? null : func.apply(value);
+                };
+        }
+
+        public default ResultToIntFunctionChain<T> and(ResultToIntFunction<? super R> func)
+        {
+            return (arg, failure) ->
+                {
+                    R value = apply(arg, failure);
+                    return failure.failed() ? 0 : func.applyAsInt(value, failure);
+                };
+        }
+
+        public default ResultToIntFunctionChain<T> and(ToIntFunction<? super R> func)
+        {
+            return (arg, failure) ->
+                {
+                    R value = apply(arg, failure);
+                    return failure.failed() ? 0 : func.applyAsInt(value);
+                };
+        }
+
+        /**
+         * Gets a chain that returns the result of {@code recovery}, which is passed the failure, when a stage fails.
+         */
+        public default FunctionChain<T, R> recover(Function<? super Failure, ? extends R> recovery)
+        {
+            Objects.requireNonNull(recovery);
+            return arg ->
+                {
+                    Failure failure = Failure.acquire();
+                    try
+                    {
+                        R value = apply(arg, failure);
+                        return failure.failed() ? recovery.apply(failure) : value;
+                    }
+                    finally
+                    {
+                        failure.release();
+                    }
+                };
+        }
+
+        public default FunctionChain<T, R> withDefault(R defaultIfFailed)
+        {
+            return recover(failure -> defaultIfFailed);
+        }
+    }
+
+    public static interface ResultToIntFunctionChain<T> extends ResultToIntFunction<T>
+    {
+        public default ResultToIntFunctionChain<T> and(ResultIntUnaryOperator func)
+        {
+            return (arg, failure) ->
+                {
+                    int value = applyAsInt(arg, failure);
+                    return failure.failed() ? 0 : func.applyAsInt(value, failure);
+                };
+        }
+
+        public default ResultToIntFunctionChain<T> and(IntUnaryOperator func)
+        {
+            return (arg, failure) ->
+                {
+                    int value = applyAsInt(arg, failure);
+                    return failure.failed() ? 0 : func.applyAsInt(value);
+                };
+        }
+
+        public default ToIntFunctionChain<T> recover(ToIntFunction<? super Failure> recovery)
+        {
+            Objects.requireNonNull(recovery);
+            return arg ->
+                {
+                    Failure failure = Failure.acquire();
+                    try
+                    {
+                        int value = applyAsInt(arg, failure);
+                        return failure.failed() ? recovery.applyAsInt(failure) : value;
+                    }
+                    finally
+                    {
+                        failure.release();
+                    }
+                };
+        }
+
+        public default ToIntFunctionChain<T> withDefault(int defaultIfFailed)
+        {
+            return recover(failure -> defaultIfFailed);
+        }
+    }
+
+    public static interface ResultIntUnaryOperatorChain extends ResultIntUnaryOperator
+    {
+        public default ResultIntUnaryOperatorChain and(ResultIntUnaryOperator func)
+        {
+            return (arg, failure) ->
+                {
+                    int value = applyAsInt(arg, failure);
+                    return failure.failed() ? 0 : func.applyAsInt(value, failure);
+                };
+        }
+
+        public default ResultIntUnaryOperatorChain and(IntUnaryOperator func)
+        {
+            return (arg, failure) ->
+                {
+                    int value = applyAsInt(arg, failure);
+                    return failure.failed() ? 0 : func.applyAsInt(value);
+                };
+        }
+
+        public default IntUnaryOperatorChain recover(ToIntFunction<? super Failure> recovery)
+        {
+            Objects.requireNonNull(recovery);
+            return arg ->
+                {
+                    Failure failure = Failure.acquire();
+                    try
+                    {
+                        int value = applyAsInt(arg, failure);
+                        return failure.failed() ? recovery.applyAsInt(failure) : value;
+                    }
+                    finally
+                    {
+                        failure.release();
+                    }
+                };
+        }
+
+        public default IntUnaryOperatorChain withDefault(int defaultIfFailed)
+        {
+            return recover(failure -> defaultIfFailed);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package uk.org.thehickses.functional;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.ChainDescriptor.Kind;
+import uk.org.thehickses.functional.ChainDescriptor.Step;
+
+/**
+ * Named stages from which chains are rebuilt from {@link ChainDescriptor}s. Every JVM that runs a descriptor needs a
+ * registry with the same names; the chains it builds are flat, so they can be optimised and compiled.
+ */
+public class StageRegistry
+{
+    private final Map<String, Function<?, ?>> functions = new ConcurrentHashMap<>();
+    private final Map<String, IntFunction<? extends Function<?, ?>>> functionFactories = new ConcurrentHashMap<>();
+    private final Map<String, IntUnaryOperator> intOperators = new ConcurrentHashMap<>();
+    private final Map<String, IntFunction<? extends IntUnaryOperator>> intOperatorFactories = new ConcurrentHashMap<>();
+
+    public StageRegistry function(String name, Function<?, ?> stage)
+    {
+        return register(functions, name, stage);
+    }
+
+    public StageRegistry functionFactory(String name, IntFunction<? extends Function<?, ?>> factory)
+    {
+        return register(functionFactories, name, factory);
+    }
+
+    public StageRegistry intOperator(String name, IntUnaryOperator stage)
+    {
+        return register(intOperators, name, stage);
+    }
+
+    public StageRegistry intOperatorFactory(String name, IntFunction<? extends IntUnaryOperator> factory)
+    {
+        return register(intOperatorFactories, name, factory);
+    }
+
+    private <S> StageRegistry register(Map<String, S> stages, String name, S stage)
+    {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(stage);
+        if (stages.putIfAbsent(name, stage) != null)
+            throw new IllegalArgumentException("Stage already registered: " + name);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T, R> FunctionChain<T, R> functionChain(ChainDescriptor descriptor)
+    {
+        checkKind(descriptor, Kind.FUNCTION);
+        FunctionChain<Object, Object> answer = null;
+        for (Step step : descriptor.steps())
+        {
+            Function<Object, Object> stage = (Function<Object, Object>) stage(step, functions, functionFactories);
+            answer = answer == null ? Chain.flat(stage) : answer.and(stage);
+        }
+        return (FunctionChain<T, R>) answer;
+    }
+
+    public IntUnaryOperatorChain intOperatorChain(ChainDescriptor descriptor)
+    {
+        checkKind(descriptor, Kind.INT_UNARY_OPERATOR);
+        IntUnaryOperatorChain answer = null;
+        for (Step step : descriptor.steps())
+        {
+            IntUnaryOperator stage = stage(step, intOperators, intOperatorFactories);
+            answer = answer == null ? Chain.flat(stage) : answer.and(stage);
+        }
+        return answer;
+    }
+
+    private static void checkKind(ChainDescriptor descriptor, Kind kind)
+    {
+        if (descriptor.kind() != kind)
+            throw new IllegalArgumentException("Not a " + kind + " chain: " + descriptor);
+    }
+
+    private static <S> S stage(Step step, Map<String, ? extends S> stages,
+            Map<String, ? extends IntFunction<? extends S>> factories)
+    {
+        if (step.argument() == null)
+        {
+            S stage = stages.get(step.name());
+            if (stage == null)
+                throw new IllegalArgumentException("Unknown stage: " + step.name());
+            return stage;
+        }
+        IntFunction<? extends S> factory = factories.get(step.name());
+        if (factory == null)
+            throw new IllegalArgumentException("Unknown stage factory: " + step.name());
+        return factory.apply(step.argument());
+    }
+}
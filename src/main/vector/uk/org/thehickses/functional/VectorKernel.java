@@ -0,0 +1,107 @@
+package uk.org.thehickses.functional;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import uk.org.thehickses.functional.IntOps.Affine;
+import uk.org.thehickses.functional.IntOps.BitAnd;
+import uk.org.thehickses.functional.IntOps.Clamp;
+import uk.org.thehickses.functional.IntOps.Max;
+import uk.org.thehickses.functional.IntOps.Min;
+import uk.org.thehickses.functional.IntOps.Op;
+import uk.org.thehickses.functional.IntOps.ShiftLeft;
+import uk.org.thehickses.functional.IntOps.ShiftRight;
+import uk.org.thehickses.functional.IntOps.UnsignedShiftRight;
+
+/**
+ * Applies {@link IntOps} stages to arrays using the Vector API. This class is compiled apart from the main sources,
+ * with the {@code jdk.incubator.vector} module added, and is only loaded, by {@link FlatChain.VectorSupport}, when that
+ * module is present. Each operation has its own loop, so that the operation is a constant within the loop and compiles
+ * to vector instructions.
+ */
+class VectorKernel implements FlatChain.VectorSupport.Kernel
+{
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void apply(Op op, int[] data, int from, int to)
+    {
+        int step = SPECIES.length();
+        int bound = from + SPECIES.loopBound(to - from);
+        int i = from;
+        switch (op)
+        {
+            case Affine a ->
+                {
+                    int multiplier = a.multiplier();
+                    int addend = a.addend();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .mul(multiplier)
+                                .add(addend)
+                                .intoArray(data, i);
+                }
+            case ShiftLeft s ->
+                {
+                    int distance = s.distance();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .lanewise(VectorOperators.LSHL, distance)
+                                .intoArray(data, i);
+                }
+            case ShiftRight s ->
+                {
+                    int distance = s.distance();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .lanewise(VectorOperators.ASHR, distance)
+                                .intoArray(data, i);
+                }
+            case UnsignedShiftRight s ->
+                {
+                    int distance = s.distance();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .lanewise(VectorOperators.LSHR, distance)
+                                .intoArray(data, i);
+                }
+            case BitAnd b ->
+                {
+                    int mask = b.mask();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .and(mask)
+                                .intoArray(data, i);
+                }
+            case Min m ->
+                {
+                    int limit = m.bound();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .min(limit)
+                                .intoArray(data, i);
+                }
+            case Max m ->
+                {
+                    int limit = m.bound();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .max(limit)
+                                .intoArray(data, i);
+                }
+            case Clamp c ->
+                {
+                    int min = c.min();
+                    int max = c.max();
+                    for (; i < bound; i += step)
+                        IntVector.fromArray(SPECIES, data, i)
+                                .max(min)
+                                .min(max)
+                                .intoArray(data, i);
+                }
+        }
+        for (; i < to; i++)
+            data[i] = op.applyAsInt(data[i]);
+    }
+}
@@ -0,0 +1,124 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.AsyncChain.AsyncFunctionChain;
+
+class AsyncChainTest
+{
+    @Test
+    void testStagesRunWhereRequested() throws Exception
+    {
+        Supplier<Boolean> first = () -> Thread.currentThread()
+                .isVirtual();
+        Function<Boolean, String> second = b -> b + "," + Thread.currentThread()
+                .isVirtual();
+        Function<String, String> third = s -> s + "," + Thread.currentThread()
+                .getName();
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "custom"));
+        try
+        {
+            String result = AsyncChain.ofBlocking(first)
+                    .and(second)
+                    .and(third, executor)
+                    .get()
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(result).isEqualTo("true,false,custom");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFunctionChain() throws Exception
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> doubled = i -> i * 2;
+        List<Integer> results = new ArrayList<>();
+        Consumer<Integer> collector = results::add;
+        AsyncFunctionChain<String, Integer> chain = AsyncChain.of(length)
+                .andBlocking(doubled);
+        assertThat(chain.apply("Hello")
+                .get(5, TimeUnit.SECONDS)).isEqualTo(10);
+        chain.and(collector)
+                .apply("Hi")
+                .get(5, TimeUnit.SECONDS);
+        assertThat(results).containsExactly(4);
+    }
+
+    @Test
+    void testFromChain() throws Exception
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, Boolean> virtual = i -> Thread.currentThread()
+                .isVirtual();
+        assertThat(Chain.of(length)
+                .asyncBlocking()
+                .and(virtual)
+                .apply("Hello")
+                .get(5, TimeUnit.SECONDS)).isFalse();
+        Supplier<String> hello = () -> "Hello";
+        assertThat(Chain.of(hello)
+                .and(length)
+                .async()
+                .andBlocking(virtual)
+                .get()
+                .get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testFailureSkipsLaterStages()
+    {
+        Function<String, Integer> parse = Integer::parseInt;
+        List<Integer> results = new ArrayList<>();
+        Consumer<Integer> collector = results::add;
+        CompletableFuture<Void> result = AsyncChain.of(parse)
+                .and(collector)
+                .apply("Hello");
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .withCauseInstanceOf(NumberFormatException.class);
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    void testManyBlockedChainsInFlight() throws Exception
+    {
+        int chains = 10_000;
+        CountDownLatch allBlocked = new CountDownLatch(chains);
+        Function<Integer, Integer> blocking = i ->
+            {
+                allBlocked.countDown();
+                try
+                {
+                    return allBlocked.await(10, TimeUnit.SECONDS) ? i : -1;
+                }
+                catch (InterruptedException ex)
+                {
+                    throw new IllegalStateException(ex);
+                }
+            };
+        AsyncFunctionChain<Integer, Integer> chain = AsyncChain.ofBlocking(blocking);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < chains; i++)
+            results.add(chain.apply(i));
+        for (int i = 0; i < chains; i++)
+            assertThat(results.get(i)
+                    .get(15, TimeUnit.SECONDS)).isEqualTo(i);
+    }
+}
@@ -0,0 +1,158 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class BatcherTest
+{
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    private List<String> bulk(List<Integer> args)
+    {
+        batches.add(List.copyOf(args));
+        return args.stream()
+                .map(i -> "Item " + i)
+                .toList();
+    }
+
+    @Test
+    void testSingleCall()
+    {
+        Function<Integer, String> batching = Chain.batching(this::bulk, 10, Duration.ofMillis(1));
+        assertThat(batching.apply(1)).isEqualTo("Item 1");
+        assertThat(batches).containsExactly(List.of(1));
+    }
+
+    @Test
+    void testConcurrentCallsAreCoalesced() throws Exception
+    {
+        Function<String, Integer> parse = Integer::parseInt;
+        Function<String, String> chain = Chain.of(parse)
+                .and(Chain.batching(this::bulk, 8, Duration.ofMillis(20)));
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 640; i++)
+            {
+                String arg = Integer.toString(i);
+                results.add(executor.submit(() -> chain.apply(arg)));
+            }
+            for (int i = 0; i < 640; i++)
+                assertThat(results.get(i)
+                        .get(10, TimeUnit.SECONDS)).isEqualTo("Item " + i);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeBetween(1, 8));
+        assertThat(batches.stream()
+                .mapToInt(List::size)
+                .sum()).isEqualTo(640);
+        assertThat(batches.size()).isLessThan(640);
+    }
+
+    @Test
+    void testFullBatchDoesNotWaitForDelay() throws Exception
+    {
+        Function<Integer, String> batching = Chain.batching(this::bulk, 4, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                int arg = i;
+                results.add(executor.submit(() -> batching.apply(arg)));
+            }
+            for (int i = 0; i < 4; i++)
+                assertThat(results.get(i)
+                        .get(10, TimeUnit.SECONDS)).isEqualTo("Item " + i);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void testNullArguments()
+    {
+        Function<List<String>, List<Integer>> lengths = args -> args.stream()
+                .map(s -> s == null ? -1 : s.length())
+                .toList();
+        Function<String, Integer> batching = Chain.batching(lengths, 1, Duration.ZERO);
+        assertThat(batching.apply(null)).isEqualTo(-1);
+        assertThat(batching.apply("Hello")).isEqualTo(5);
+    }
+
+    @Test
+    void testBulkFailure()
+    {
+        Function<List<Integer>, List<String>> failing = args ->
+            {
+                throw new IllegalStateException("Backend down");
+            };
+        Function<Integer, String> batching = Chain.batching(failing, 10, Duration.ZERO);
+        assertThatIllegalStateException().isThrownBy(() -> batching.apply(1))
+                .withMessage("Backend down");
+    }
+
+    @Test
+    void testBulkErrorReachesEveryCaller() throws Exception
+    {
+        Function<List<Integer>, List<String>> failing = args ->
+            {
+                throw new AssertionError("Backend broken");
+            };
+        Function<Integer, String> batching = Chain.batching(failing, 2, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++)
+            {
+                int arg = i;
+                results.add(executor.submit(() -> batching.apply(arg)));
+            }
+            for (Future<String> result : results)
+                assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                        .withCauseInstanceOf(AssertionError.class)
+                        .withMessageContaining("Backend broken");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testWrongNumberOfResults()
+    {
+        Function<List<Integer>, List<String>> empty = args -> List.of();
+        Function<Integer, String> batching = Chain.batching(empty, 10, Duration.ZERO);
+        assertThatIllegalStateException().isThrownBy(() -> batching.apply(1))
+                .withMessage("Bulk function returned 0 results for 1 arguments");
+    }
+
+    @Test
+    void testInvalidLimits()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.batching(this::bulk, 0, Duration.ZERO));
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.batching(this::bulk, 1, Duration.ofMillis(-1)));
+    }
+}
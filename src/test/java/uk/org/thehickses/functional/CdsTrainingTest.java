@@ -0,0 +1,64 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class CdsTrainingTest
+{
+    @Test
+    void testTrainingRun()
+    {
+        assertThatNoException().isThrownBy(() -> CdsTraining.main(new String[0]));
+    }
+
+    @Test
+    void testFlatChainsAndBoundFunctionsSpinNoLambdas()
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> squared = new Function<>()
+        {
+            @Override
+            public Integer apply(Integer x)
+            {
+                return x * x;
+            }
+        };
+        IntUnaryOperator negated = new IntUnaryOperator()
+        {
+            @Override
+            public int applyAsInt(int x)
+            {
+                return -x;
+            }
+        };
+        Supplier<String> head = new Supplier<>()
+        {
+            @Override
+            public String get()
+            {
+                return "abc";
+            }
+        };
+        assertThat(lambdaFree(Chain.flat(length)
+                .and(squared))).isTrue();
+        assertThat(lambdaFree(Chain.flat(negated)
+                .and(negated))).isTrue();
+        assertThat(lambdaFree(Chain.flat(head)
+                .and(length))).isTrue();
+        assertThat(lambdaFree(Curry.bind(squared, 3))).isTrue();
+        assertThat(lambdaFree(Curry.bind(negated, 3))).isTrue();
+        assertThat(lambdaFree(Chain.of(squared)
+                .and(squared))).isFalse();
+    }
+
+    private static boolean lambdaFree(Object obj)
+    {
+        return !obj.getClass()
+                .isHidden();
+    }
+}
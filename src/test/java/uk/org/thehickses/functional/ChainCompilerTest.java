@@ -0,0 +1,168 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.SupplierChain;
+import uk.org.thehickses.functional.Chain.UnaryOperatorChain;
+
+class ChainCompilerTest
+{
+    @Test
+    void testFlatFunction()
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, String> describe = i -> "n=" + i;
+        UnaryOperator<String> upper = String::toUpperCase;
+        FunctionChain<String, String> chain = Chain.flat(length)
+                .and(describe)
+                .and(upper);
+        FunctionChain<String, String> compiled = chain.compile();
+        assertThat(compiled.getClass()
+                .isHidden()).isTrue();
+        assertThat(compiled.apply("abcd")).isEqualTo("N=4");
+        assertThat(compiled.apply("")).isEqualTo(chain.apply(""));
+    }
+
+    @Test
+    void testFlatUnaryOperator()
+    {
+        UnaryOperator<Integer> increment = i -> i + 1;
+        UnaryOperator<Integer> doubled = i -> i * 2;
+        Function<Integer, String> str = String::valueOf;
+        UnaryOperatorChain<Integer> chain = Chain.flat(increment)
+                .and(doubled)
+                .and(increment);
+        UnaryOperatorChain<Integer> compiled = chain.compile();
+        assertThat(compiled.apply(3)).isEqualTo(9);
+        assertThat(compiled.and(str)
+                .apply(4)).isEqualTo("11");
+    }
+
+    @Test
+    void testFlatSupplier()
+    {
+        Supplier<String> head = () -> "abc";
+        Function<String, Integer> length = String::length;
+        SupplierChain<String> headOnly = Chain.flat(head);
+        SupplierChain<Integer> chain = headOnly.and(length);
+        assertThat(headOnly.compile()
+                .get()).isEqualTo("abc");
+        assertThat(chain.compile()
+                .get()).isEqualTo(3);
+    }
+
+    @Test
+    void testFlatIntUnaryOperator()
+    {
+        IntUnaryOperator negated = i -> -i;
+        IntUnaryOperatorChain chain = Chain.flat(IntOps.add(3))
+                .and(negated)
+                .and(IntOps.multiply(2));
+        IntUnaryOperatorChain compiled = chain.compile();
+        for (int i = -10; i <= 10; i++)
+            assertThat(compiled.applyAsInt(i)).isEqualTo(chain.applyAsInt(i));
+        int[] dst = new int[3];
+        compiled.applyAll(new int[] { 0, 1, 2 }, dst);
+        assertThat(dst).containsExactly(-6, -8, -10);
+    }
+
+    @Test
+    void testComposedChain()
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> squared = i -> i * i;
+        FunctionChain<String, Integer> compiled = Chain.of(length)
+                .and(squared)
+                .compile();
+        assertThat(compiled.getClass()
+                .isHidden()).isTrue();
+        assertThat(compiled.apply("abc")).isEqualTo(9);
+        IntUnaryOperatorChain intCompiled = Chain.of((IntUnaryOperator) i -> i + 1)
+                .compile();
+        assertThat(intCompiled.applyAsInt(1)).isEqualTo(2);
+    }
+
+    @Test
+    void testEachCompilationHasItsOwnClasses()
+    {
+        UnaryOperator<Integer> increment = i -> i + 1;
+        UnaryOperatorChain<Integer> chain = Chain.flat(increment)
+                .and(increment);
+        UnaryOperatorChain<Integer> first = chain.compile();
+        UnaryOperatorChain<Integer> second = chain.compile();
+        assertThat(first.getClass()).isNotEqualTo(second.getClass());
+        assertThat(first.apply(0)).isEqualTo(second.apply(0))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testDeepChain()
+    {
+        UnaryOperator<Integer> increment = i -> i + 1;
+        UnaryOperatorChain<Integer> chain = Chain.flat(increment);
+        for (int i = 1; i < 500; i++)
+            chain = chain.and(increment);
+        assertThat(chain.compile()
+                .apply(0)).isEqualTo(500);
+    }
+
+    @Test
+    void testVeryDeepChainsDoNotGrowTheStack()
+    {
+        UnaryOperator<Integer> increment = i -> i + 1;
+        FunctionChain<Integer, Integer> functions = Chain.flat((Function<Integer, Integer>) increment);
+        for (int i = 1; i < 10_000; i++)
+            functions = functions.and(increment);
+        assertThat(functions.compile()
+                .apply(0)).isEqualTo(10_000);
+        IntUnaryOperatorChain ints = Chain.flat(IntOps.add(1));
+        IntUnaryOperator negated = i -> -i;
+        for (int i = 1; i < 20_000; i++)
+            ints = ints.and(i % 2 == 0 ? negated : IntOps.add(1));
+        IntUnaryOperatorChain compiled = ints.compile();
+        for (int i = -3; i <= 3; i++)
+            assertThat(compiled.applyAsInt(i)).isEqualTo(ints.applyAsInt(i));
+    }
+
+    @Test
+    void testNoStages()
+    {
+        IntUnaryOperatorChain compiled = Chain.flat(IntOps.identity())
+                .optimized()
+                .compile();
+        assertThat(compiled.applyAsInt(7)).isEqualTo(7);
+        assertThat(ChainCompiler.compileFunctions(new Function[0], 0)
+                .apply(null)).isNull();
+        assertThat(ChainCompiler.compileUnaryOperators(new Function[0], 0)
+                .apply(null)).isNull();
+    }
+
+    @Test
+    void testExceptionPropagates()
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> failing = i ->
+            {
+                throw new IllegalArgumentException("Stage failed");
+            };
+        FunctionChain<String, Integer> compiled = Chain.flat(length)
+                .and(failing)
+                .compile();
+        assertThatIllegalArgumentException().isThrownBy(() -> compiled.apply("abc"))
+                .withMessage("Stage failed");
+        assertThat(Chain.flat(length)
+                .and(failing)
+                .compile()
+                .withDefault(-1)
+                .apply(null)).isEqualTo(-1);
+    }
+}
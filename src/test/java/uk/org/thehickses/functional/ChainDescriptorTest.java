@@ -0,0 +1,136 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.ChainDescriptor.Kind;
+import uk.org.thehickses.functional.ChainDescriptor.Step;
+
+class ChainDescriptorTest
+{
+    static StageRegistry registry()
+    {
+        Function<String, String> trim = String::trim;
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> squared = i -> i * i;
+        return new StageRegistry().function("trim", trim)
+                .function("length", length)
+                .function("squared", squared)
+                .functionFactory("repeat", n -> (Function<String, String>) s -> s.repeat(n))
+                .intOperator("negate", i -> -i)
+                .intOperatorFactory("add", IntOps::add)
+                .intOperatorFactory("multiply", IntOps::multiply);
+    }
+
+    private static Object roundTrip(Object obj) throws IOException, ClassNotFoundException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(obj);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            in.setObjectInputFilter(ChainWorker.FILTER);
+            return in.readObject();
+        }
+    }
+
+    @Test
+    void testBuild()
+    {
+        ChainDescriptor base = ChainDescriptor.intOperator("add", 3);
+        ChainDescriptor descriptor = base.and("negate")
+                .and("multiply", 2);
+        assertThat(descriptor.kind()).isEqualTo(Kind.INT_UNARY_OPERATOR);
+        assertThat(descriptor.steps()).containsExactly(new Step("add", 3), new Step("negate", null),
+                new Step("multiply", 2));
+        assertThat(base.steps()).hasSize(1);
+        assertThat(descriptor).hasToString("INT_UNARY_OPERATOR[Step[name=add, argument=3], "
+                + "Step[name=negate, argument=null], Step[name=multiply, argument=2]]");
+    }
+
+    @Test
+    void testSerializationRoundTrip() throws Exception
+    {
+        ChainDescriptor descriptor = ChainDescriptor.function("trim")
+                .and("repeat", 2)
+                .and("length");
+        Object copy = roundTrip(descriptor);
+        assertThat(copy).isEqualTo(descriptor)
+                .hasSameHashCodeAs(descriptor);
+    }
+
+    @Test
+    void testFunctionChain()
+    {
+        ChainDescriptor descriptor = ChainDescriptor.function("trim")
+                .and("repeat", 3)
+                .and("length")
+                .and("squared");
+        FunctionChain<String, Integer> chain = registry().functionChain(descriptor);
+        assertThat(chain.apply("  ab ")).isEqualTo(36);
+    }
+
+    @Test
+    void testIntOperatorChain()
+    {
+        ChainDescriptor descriptor = ChainDescriptor.intOperator("add", 3)
+                .and("negate")
+                .and("multiply", 2);
+        IntUnaryOperatorChain chain = registry().intOperatorChain(descriptor);
+        assertThat(chain.applyAsInt(1)).isEqualTo(-8);
+        assertThat(chain.stages()).hasSize(3);
+    }
+
+    @Test
+    void testUnknownStage()
+    {
+        StageRegistry registry = registry();
+        assertThatIllegalArgumentException().isThrownBy(() -> registry.functionChain(ChainDescriptor.function("trim")
+                .and("reverse")))
+                .withMessage("Unknown stage: reverse");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> registry.intOperatorChain(ChainDescriptor.intOperator("negate", 1)))
+                .withMessage("Unknown stage factory: negate");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> registry.intOperatorChain(ChainDescriptor.function("trim")))
+                .withMessageStartingWith("Not a INT_UNARY_OPERATOR chain");
+    }
+
+    @Test
+    void testDuplicateName()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> registry().intOperator("negate", i -> i))
+                .withMessage("Stage already registered: negate");
+    }
+
+    @Test
+    void testFilterRejectsOtherClasses()
+    {
+        List<String> list = new ArrayList<>(List.of("a"));
+        assertThatExceptionOfType(InvalidClassException.class).isThrownBy(() -> roundTrip(list));
+        assertThatExceptionOfType(InvalidClassException.class).isThrownBy(() -> roundTrip(new Object[] { list }));
+    }
+
+    @Test
+    void testFilterAcceptsData() throws Exception
+    {
+        Object[] data = { "a", 1, 2L, 3.0, true, null };
+        assertThat((Object[]) roundTrip(data)).containsExactly(data);
+        assertThat((int[]) roundTrip(new int[] { 1, 2 })).containsExactly(1, 2);
+    }
+}
@@ -0,0 +1,249 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.NullSafeFunctionChain;
+import uk.org.thehickses.functional.ChainMetrics.Stage;
+
+class ChainMetricsTest
+{
+    @Test
+    void testCallsAndLatencies()
+    {
+        ChainMetrics metrics = new ChainMetrics(1);
+        Function<String, Integer> length = String::length;
+        IntUnaryOperator doubled = i -> i * 2;
+        Function<Integer, Integer> incremented = i -> i + 1;
+        Function<String, Integer> chain = Chain.of(length)
+                .instrumented("length", metrics)
+                .and(Chain.of(incremented)
+                        .instrumented("incremented", metrics))
+                .instrumented("all", metrics);
+        IntUnaryOperator primitive = Chain.of(doubled)
+                .instrumented("doubled", metrics);
+        for (int i = 0; i < 100; i++)
+        {
+            assertThat(chain.apply("Hello")).isEqualTo(6);
+            assertThat(primitive.applyAsInt(i)).isEqualTo(i * 2);
+        }
+        assertThat(metrics.stages()).containsOnlyKeys("length", "incremented", "all", "doubled");
+        for (Stage stage : metrics.stages()
+                .values())
+        {
+            assertThat(stage.calls()).isEqualTo(100);
+            assertThat(stage.fallbacks()).isZero();
+            assertThat(Arrays.stream(stage.latencyHistogram())
+                    .sum()).isEqualTo(100);
+            assertThat(stage.latencyPercentile(0.5)).isPositive()
+                    .isLessThanOrEqualTo(stage.latencyPercentile(1));
+        }
+    }
+
+    @Test
+    void testSampling()
+    {
+        ChainMetrics metrics = new ChainMetrics(64);
+        Supplier<String> hello = () -> "Hello";
+        Supplier<String> chain = Chain.of(hello)
+                .instrumented("hello", metrics);
+        for (int i = 0; i < 64_000; i++)
+            chain.get();
+        Stage stage = metrics.stage("hello");
+        assertThat(stage.calls()).isEqualTo(64_000);
+        assertThat(Arrays.stream(stage.latencyHistogram())
+                .sum()).isBetween(500L, 1500L);
+    }
+
+    @Test
+    void testFallbacksCaughtByWithDefault()
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Function<String, Integer> length = String::length;
+        Function<String, Integer> chain = Chain.of(length)
+                .instrumented("length", metrics)
+                .withDefault(-1);
+        assertThat(chain.apply("Hello")).isEqualTo(5);
+        assertThat(chain.apply(null)).isEqualTo(-1);
+        assertThat(chain.apply(null)).isEqualTo(-1);
+        assertThat(metrics.stage("length")
+                .calls()).isEqualTo(3);
+        assertThat(metrics.stage("length")
+                .fallbacks()).isEqualTo(2);
+    }
+
+    @Test
+    void testNestedStagesCountEachFallbackOnce()
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> incremented = i -> i + 1;
+        FunctionChain<String, Integer> inner = Chain.of(length)
+                .instrumented("length", metrics)
+                .and(incremented)
+                .instrumented("all", metrics);
+        Function<String, Integer> chain = inner.withDefault(-1);
+        assertThat(chain.apply(null)).isEqualTo(-1);
+        assertThat(chain.apply("Hello")).isEqualTo(6);
+        assertThat(metrics.stage("length")
+                .fallbacks()).isZero();
+        assertThat(metrics.stage("all")
+                .fallbacks()).isEqualTo(1);
+        assertThat(metrics.stage("length")
+                .calls()).isEqualTo(2);
+    }
+
+    @Test
+    void testUncaughtExceptionIsNotAFallback()
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Function<String, Integer> length = String::length;
+        Function<String, Integer> chain = Chain.of(length)
+                .instrumented("length", metrics);
+        assertThatNullPointerException().isThrownBy(() -> chain.apply(null));
+        assertThat(metrics.stage("length")
+                .calls()).isEqualTo(1);
+        assertThat(metrics.stage("length")
+                .fallbacks()).isZero();
+        Function<String, String> other = s -> s.trim();
+        assertThat(Chain.of(other)
+                .withDefault("none")
+                .apply(null)).isEqualTo("none");
+        assertThat(metrics.stage("length")
+                .fallbacks()).isZero();
+    }
+
+    @Test
+    void testFallbacksCaughtByNullTolerant()
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Function<String, Integer> length = String::length;
+        Consumer<Integer> ignored = i ->
+            {
+            };
+        Consumer<String> chain = Chain.of(length)
+                .and(ignored)
+                .instrumented("consumer", metrics)
+                .nullTolerant();
+        chain.accept("Hello");
+        chain.accept(null);
+        assertThat(metrics.stage("consumer")
+                .fallbacks()).isEqualTo(1);
+    }
+
+    @Test
+    void testNullSafeCountsSubstitutedNullResults()
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Function<String, String> trimmed = s -> s.isBlank() ? null : s.trim();
+        Function<String, Integer> length = String::length;
+        NullSafeFunctionChain<String, Integer> instrumented = Chain.of(trimmed)
+                .nullSafe()
+                .and(length)
+                .instrumented("nullSafe", metrics);
+        assertThat(instrumented.apply("  ")).isNull();
+        assertThat(metrics.stage("nullSafe")
+                .fallbacks()).isZero();
+        Function<String, Integer> chain = instrumented.withDefault(-1);
+        assertThat(chain.apply(" Hello ")).isEqualTo(5);
+        assertThat(chain.apply("  ")).isEqualTo(-1);
+        assertThat(chain.apply(null)).isEqualTo(-1);
+        assertThat(metrics.stage("nullSafe")
+                .calls()).isEqualTo(4);
+        assertThat(metrics.stage("nullSafe")
+                .fallbacks()).isEqualTo(2);
+    }
+
+    @Test
+    void testFallbackCaughtOnAnotherThread() throws Exception
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Function<String, Integer> length = String::length;
+        Function<String, Integer> instrumented = Chain.of(length)
+                .instrumented("length", metrics);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        NullPointerException thrown;
+        try
+        {
+            thrown = executor.submit(() -> catchNullPointer(instrumented))
+                    .get();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        Function<String, Integer> rethrowing = s ->
+            {
+                throw thrown;
+            };
+        assertThat(Chain.of(rethrowing)
+                .withDefault(-1)
+                .apply("Hello")).isEqualTo(-1);
+        assertThat(metrics.stage("length")
+                .fallbacks()).isEqualTo(1);
+        assertThat(thrown.getCause()).isInstanceOf(NullPointerException.class);
+    }
+
+    private static NullPointerException catchNullPointer(Function<String, Integer> func)
+    {
+        try
+        {
+            func.apply(null);
+            return null;
+        }
+        catch (NullPointerException ex)
+        {
+            return ex;
+        }
+    }
+
+    @Test
+    void testInvalidSampleInterval()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ChainMetrics(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new ChainMetrics(10));
+    }
+
+    @Test
+    void testEmptyStage()
+    {
+        Stage stage = new ChainMetrics().stage("empty");
+        assertThat(stage.latencyPercentile(0.99)).isZero();
+        assertThat(stage).hasToString("empty[calls=0, fallbacks=0, p50<=0ns, p99<=0ns, max<=0ns]");
+    }
+
+    @Test
+    void testReporter() throws Exception
+    {
+        ChainMetrics metrics = new ChainMetrics();
+        Supplier<String> hello = () -> "Hello";
+        Chain.of(hello)
+                .instrumented("hello", metrics)
+                .get();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try
+        {
+            ScheduledFuture<?> reporter = metrics.reportEvery(Duration.ofMillis(10), scheduler);
+            Thread.sleep(50);
+            assertThat(reporter.isDone()).isFalse();
+            reporter.cancel(false);
+        }
+        finally
+        {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+
+class ChainSpliteratorsTest
+{
+    private final Function<String, String> trimmed = String::trim;
+    private final Function<String, Integer> length = String::length;
+    private final ToIntFunction<String> intLength = String::length;
+    private final IntUnaryOperator squared = x -> x * x;
+
+    @Test
+    void testFunctionChain()
+    {
+        FunctionChain<String, Integer> chain = Chain.of(trimmed)
+                .and(length);
+        assertThat(chain.applyTo(Stream.of(" a ", "bc", "def "))
+                .toList()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void testWithDefault()
+    {
+        Function<String, String> missing = s -> s.isEmpty() ? null : s;
+        FunctionChain<String, Integer> chain = Chain.of(missing)
+                .and(length);
+        assertThat(chain.applyTo(Stream.of("ab", "", "c"), -1)
+                .toList()).containsExactly(2, -1, 1);
+        ToIntFunctionChain<String> toInt = Chain.of(missing)
+                .and(intLength);
+        assertThat(toInt.applyTo(Stream.of("ab", "", "c"), -1)
+                .toArray()).containsExactly(2, -1, 1);
+    }
+
+    @Test
+    void testNullSafeLeavesOutShortCircuitedElements()
+    {
+        Function<String, String> missing = s -> s.isEmpty() ? null : s;
+        Spliterator<Integer> spliterator = Chain.of(missing)
+                .nullSafe()
+                .and(length)
+                .applyTo(Stream.of("ab", "", "c", null, "def"))
+                .spliterator();
+        assertThat(spliterator.hasCharacteristics(Spliterator.NONNULL)).isTrue();
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED)).isFalse();
+        List<Integer> results = Chain.of(missing)
+                .nullSafe()
+                .and(length)
+                .applyTo(Stream.of("ab", "", "c", null, "def"))
+                .toList();
+        assertThat(results).containsExactly(2, 1, 3);
+        Integer first = Chain.of(missing)
+                .nullSafe()
+                .and(length)
+                .applyTo(Stream.of("", "", "xyz", "ab"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(first).isEqualTo(3);
+    }
+
+    @Test
+    void testToIntFunctionChainKeepsSize()
+    {
+        ToIntFunctionChain<String> chain = Chain.of(trimmed)
+                .and(intLength)
+                .and(squared);
+        Spliterator.OfInt spliterator = chain.applyTo(List.of(" a ", "bc", "def ")
+                .stream())
+                .spliterator();
+        assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(3);
+        assertThat(chain.applyTo(Stream.of(" a ", "bc", "def "))
+                .sum()).isEqualTo(14);
+    }
+
+    @Test
+    void testIntUnaryOperatorChain()
+    {
+        IntUnaryOperator negated = x -> -x;
+        IntUnaryOperatorChain chain = Chain.flat(squared)
+                .and(negated);
+        assertThat(chain.applyTo(IntStream.rangeClosed(1, 4))
+                .toArray()).containsExactly(-1, -4, -9, -16);
+        assertThat(Chain.of(squared)
+                .applyTo(IntStream.of(3))
+                .iterator()
+                .nextInt()).isEqualTo(9);
+    }
+
+    @Test
+    void testIntUnaryOperatorChainWithDefaultIsAppliedInBlocks()
+    {
+        AtomicInteger blocks = new AtomicInteger();
+        IntUnaryOperatorChain chain = new IntUnaryOperatorChain()
+        {
+            @Override
+            public int applyAsInt(int operand)
+            {
+                if (operand % 3 == 0)
+                    throw new NullPointerException();
+                return operand * operand;
+            }
+
+            @Override
+            public void applyAll(int[] src, int srcPos, int[] dst, int dstPos, int length)
+            {
+                blocks.incrementAndGet();
+                IntUnaryOperatorChain.super.applyAll(src, srcPos, dst, dstPos, length);
+            }
+        };
+        assertThat(chain.applyTo(IntStream.rangeClosed(1, 4)
+                .map(x -> x * 3 - 1), -1)
+                .toArray()).containsExactly(4, 25, 64, 121);
+        assertThat(blocks).hasValue(1);
+        assertThat(chain.applyTo(IntStream.rangeClosed(1, 5), -1)
+                .toArray()).containsExactly(1, 4, -1, 16, 25);
+        assertThat(blocks).hasValue(2);
+        assertThat(Chain.flat(squared)
+                .and(chain)
+                .applyTo(IntStream.of(2, 3), -1)
+                .toArray()).containsExactly(16, -1);
+    }
+
+    @Test
+    void testIntUnaryOperatorChainWithDefaultGoesElementWiseAfterFailure()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        IntUnaryOperator checked = x ->
+            {
+                calls.incrementAndGet();
+                if (x % 1000 == 10)
+                    throw new NullPointerException();
+                return x;
+            };
+        IntUnaryOperator negated = x -> -x;
+        ChainMetrics metrics = new ChainMetrics();
+        IntUnaryOperatorChain chain = Chain.flat(Chain.of(checked)
+                .instrumented("checked", metrics))
+                .and(negated);
+        assertThat(chain.applyTo(IntStream.range(0, 3000), -1)
+                .toArray()).containsExactly(IntStream.range(0, 3000)
+                        .map(x -> x % 1000 == 10 ? -1 : -x)
+                        .toArray());
+        // The first block got as far as element 10 before it was applied again; every element after it ran once
+        assertThat(calls).hasValue(3000 + 11);
+        assertThat(metrics.stage("checked")
+                .fallbacks()).isEqualTo(3);
+    }
+
+    @Test
+    void testParallel()
+    {
+        IntUnaryOperatorChain chain = Chain.of(squared)
+                .and(squared);
+        int[] expected = IntStream.range(0, 100_000)
+                .map(x -> x * x * x * x)
+                .toArray();
+        IntStream parallel = chain.applyTo(IntStream.range(0, 100_000)
+                .parallel());
+        assertThat(parallel.isParallel()).isTrue();
+        assertThat(parallel.toArray()).isEqualTo(expected);
+        Function<Integer, String> described = x -> "n" + x;
+        List<String> strings = Chain.of(described)
+                .and(trimmed)
+                .applyTo(IntStream.range(0, 10_000)
+                        .boxed()
+                        .parallel())
+                .collect(Collectors.toList());
+        assertThat(strings).hasSize(10_000)
+                .startsWith("n0", "n1")
+                .endsWith("n9999");
+    }
+
+    @Test
+    void testCloseClosesSource()
+    {
+        AtomicBoolean closed = new AtomicBoolean();
+        FunctionChain<String, Integer> chain = Chain.of(length);
+        try (Stream<Integer> results = chain.applyTo(Stream.of("a")
+                .onClose(() -> closed.set(true))))
+        {
+            assertThat(results.count()).isEqualTo(1);
+        }
+        assertThat(closed).isTrue();
+    }
+}
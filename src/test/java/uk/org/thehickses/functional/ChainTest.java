@@ -3,12 +3,39 @@ package uk.org.thehickses.functional;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleToLongFunction;
 import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import uk.org.thehickses.functional.Chain.FunctionChain;
+import uk.org.thehickses.functional.Chain.ToIntFunctionChain;
+import uk.org.thehickses.functional.Chain.UnaryOperatorChain;
+
 public class ChainTest
 {
     @SuppressWarnings("unchecked")
@@ -233,4 +260,627 @@ public class ChainTest
         verify(f2).apply(null);
         verifyNoMoreInteractions(f1, f2, f3);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testConsumerChainNullTolerantExceptionThrown()
+    {
+        Function<String, String> f = mock(Function.class);
+        Consumer<String> c = mock(Consumer.class);
+        when(f.apply("Hello")).thenReturn(null);
+        doThrow(NullPointerException.class).when(c)
+                .accept(null);
+        Chain.of(f)
+                .and(c)
+                .nullTolerant()
+                .accept("Hello");
+        verify(f).apply("Hello");
+        verify(c).accept(null);
+        verifyNoMoreInteractions(f, c);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSupplierNullSafeNonNullReturned()
+    {
+        Supplier<String> s = mock(Supplier.class);
+        Function<String, Integer> f = mock(Function.class);
+        when(s.get()).thenReturn("Hello");
+        when(f.apply("Hello")).thenReturn(5);
+        assertThat(Chain.of(s)
+                .nullSafe()
+                .and(f)
+                .withDefault(0)
+                .get()).isEqualTo(5);
+        verify(s).get();
+        verify(f).apply("Hello");
+        verifyNoMoreInteractions(s, f);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSupplierNullSafeNullReturnedPartWayThrough()
+    {
+        Supplier<String> s = mock(Supplier.class);
+        Function<String, String> f1 = mock(Function.class);
+        Function<String, String> f2 = mock(Function.class);
+        when(s.get()).thenReturn("Hello");
+        when(f1.apply("Hello")).thenReturn(null);
+        assertThat(Chain.of(s)
+                .nullSafe()
+                .and(f1)
+                .and(f2)
+                .withDefault("Goodbye")
+                .get()).isEqualTo("Goodbye");
+        verify(s).get();
+        verify(f1).apply("Hello");
+        verifyNoMoreInteractions(s, f1, f2);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSupplierNullSafeConsumerNotCalledForNull()
+    {
+        Supplier<String> s = mock(Supplier.class);
+        Consumer<String> c = mock(Consumer.class);
+        Chain.of(s)
+                .nullSafe()
+                .and(c)
+                .run();
+        verify(s).get();
+        verifyNoMoreInteractions(s, c);
+    }
+
+    @Test
+    public void testFunctionNullSafeToPrimitive()
+    {
+        Function<String, String> missing = str -> str.isEmpty() ? null : str;
+        ToIntFunction<String> length = String::length;
+        ToLongFunction<String> longLength = String::length;
+        ToDoubleFunction<String> halfLength = str -> str.length() / 2.0;
+        ToIntFunctionChain<String> lengths = Chain.of(missing)
+                .nullSafe()
+                .and(length)
+                .withDefault(-1);
+        assertThat(lengths.applyAsInt("abc")).isEqualTo(3);
+        assertThat(lengths.applyAsInt("")).isEqualTo(-1);
+        assertThat(lengths.applyAsInt(null)).isEqualTo(-1);
+        assertThat(Chain.of(missing)
+                .nullSafe()
+                .and(longLength)
+                .withDefault(-1L)
+                .applyAsLong("")).isEqualTo(-1L);
+        assertThat(Chain.of(missing)
+                .nullSafe()
+                .and(halfLength)
+                .withDefault(-1.0)
+                .applyAsDouble("abc")).isEqualTo(1.5);
+        UnaryOperator<String> trimmed = String::trim;
+        assertThat(Chain.of(trimmed)
+                .nullSafe()
+                .and(length)
+                .applyAsInt(null, 0)).isEqualTo(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFunctionNullSafeNullArgument()
+    {
+        Function<String, String> f1 = mock(Function.class);
+        Function<String, String> f2 = mock(Function.class);
+        assertThat(Chain.of(f1)
+                .nullSafe()
+                .and(f2)
+                .withDefault("Goodbye")
+                .apply(null)).isEqualTo("Goodbye");
+        verifyNoMoreInteractions(f1, f2);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFunctionNullSafeSameResultAsWithDefault()
+    {
+        Function<String, String> f1 = mock(Function.class);
+        Function<String, Integer> f2 = String::length;
+        when(f1.apply("Hello")).thenReturn("Hej");
+        when(f1.apply("Goodbye")).thenReturn(null);
+        Function<String, Integer> tolerant = Chain.of(f1)
+                .and(f2)
+                .withDefault(-1);
+        Function<String, Integer> safe = Chain.of(f1)
+                .nullSafe()
+                .and(f2)
+                .withDefault(-1);
+        assertThat(safe.apply("Hello")).isEqualTo(tolerant.apply("Hello"))
+                .isEqualTo(3);
+        assertThat(safe.apply("Goodbye")).isEqualTo(tolerant.apply("Goodbye"))
+                .isEqualTo(-1);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFunctionNullSafeDoesNotSwallowExceptions()
+    {
+        Function<String, String> f = mock(Function.class);
+        when(f.apply("Hello")).thenThrow(NullPointerException.class);
+        Function<String, String> chain = Chain.of(f)
+                .nullSafe()
+                .withDefault("Goodbye");
+        assertThatNullPointerException().isThrownBy(() -> chain.apply("Hello"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testUnaryOperatorNullSafeNullReturned()
+    {
+        UnaryOperator<String> u1 = mock(UnaryOperator.class);
+        UnaryOperator<String> u2 = mock(UnaryOperator.class);
+        when(u1.apply("Hello")).thenReturn(null);
+        assertThat(Chain.of(u1)
+                .nullSafe()
+                .and(u2)
+                .withDefault("Goodbye")
+                .apply("Hello")).isEqualTo("Goodbye");
+        verify(u1).apply("Hello");
+        verifyNoMoreInteractions(u1, u2);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testIntFunctionNullSafeNullReturned()
+    {
+        IntFunction<String> f1 = mock(IntFunction.class);
+        Function<String, String> f2 = mock(Function.class);
+        when(f1.apply(3)).thenReturn(null);
+        assertThat(Chain.of(f1)
+                .nullSafe()
+                .and(f2)
+                .withDefault("Goodbye")
+                .apply(3)).isEqualTo("Goodbye");
+        verify(f1).apply(3);
+        verifyNoMoreInteractions(f1, f2);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFlatSupplierAndFunctions()
+    {
+        Supplier<String> s = mock(Supplier.class);
+        Function<String, Integer> f1 = mock(Function.class);
+        UnaryOperator<Integer> u = mock(UnaryOperator.class);
+        when(s.get()).thenReturn("Hello");
+        when(f1.apply("Hello")).thenReturn(5);
+        when(u.apply(5)).thenReturn(6);
+        assertThat(Chain.flat(s)
+                .and(f1)
+                .and(u)
+                .get()).isEqualTo(6);
+        verify(s).get();
+        verify(f1).apply("Hello");
+        verify(u).apply(5);
+        verifyNoMoreInteractions(s, f1, u);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFlatFunctionWithDefaultExceptionThrownPartWayThrough()
+    {
+        Function<String, String> f1 = mock(Function.class);
+        Function<String, String> f2 = mock(Function.class);
+        Function<String, String> f3 = mock(Function.class);
+        when(f1.apply("Hello")).thenReturn(null);
+        when(f2.apply(null)).thenThrow(NullPointerException.class);
+        assertThat(Chain.flat(f1)
+                .and(f2)
+                .and(f3)
+                .withDefault("Goodbye")
+                .apply("Hello")).isEqualTo("Goodbye");
+        verify(f1).apply("Hello");
+        verify(f2).apply(null);
+        verifyNoMoreInteractions(f1, f2, f3);
+    }
+
+    @Test
+    public void testFlatUnaryOperatorVeryDeep()
+    {
+        UnaryOperatorChain<Integer> chain = Chain.flat(UnaryOperator.identity());
+        for (int i = 0; i < 100_000; i++)
+            chain = chain.and((UnaryOperator<Integer>) x -> x + 1);
+        assertThat(chain.apply(0)).isEqualTo(100_000);
+    }
+
+    @Test
+    public void testFlatFunctionBranchesAreIndependent()
+    {
+        FunctionChain<String, Integer> base = Chain.flat(String::length);
+        FunctionChain<String, Integer> doubled = base.and((UnaryOperator<Integer>) x -> x * 2);
+        FunctionChain<String, Integer> negated = base.and((UnaryOperator<Integer>) x -> -x);
+        FunctionChain<String, String> described = doubled.and((Function<Integer, String>) x -> "n=" + x);
+        assertThat(base.apply("Hello")).isEqualTo(5);
+        assertThat(doubled.apply("Hello")).isEqualTo(10);
+        assertThat(negated.apply("Hello")).isEqualTo(-5);
+        assertThat(described.apply("Hello")).isEqualTo("n=10");
+    }
+
+    @Test
+    public void testLongAndDoubleSuppliers()
+    {
+        LongSupplier s = () -> 10L;
+        LongUnaryOperator doubled = x -> x * 2;
+        LongToDoubleFunction quartered = x -> x / 4.0;
+        DoubleToLongFunction rounded = Math::round;
+        assertThat(Chain.of(s)
+                .and(doubled)
+                .and(quartered)
+                .getAsDouble()).isEqualTo(5.0);
+        assertThat(Chain.of(s)
+                .and(quartered)
+                .and(rounded)
+                .getAsLong()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testFunctionToLongToDouble()
+    {
+        ToLongFunction<String> length = String::length;
+        LongUnaryOperator squared = x -> x * x;
+        LongToDoubleFunction halved = x -> x / 2.0;
+        DoubleFunction<String> described = x -> "d=" + x;
+        assertThat(Chain.of(length)
+                .and(squared)
+                .and(halved)
+                .and(described)
+                .apply("Hello")).isEqualTo("d=12.5");
+    }
+
+    @Test
+    public void testIntToLongAndBack()
+    {
+        IntUnaryOperator incremented = x -> x + 1;
+        IntToLongFunction widened = x -> x * 10_000_000_000L;
+        LongToIntFunction narrowed = x -> (int) (x / 10_000_000_000L);
+        assertThat(Chain.of(incremented)
+                .and(widened)
+                .and(narrowed)
+                .applyAsInt(41)).isEqualTo(42);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testToLongFunctionWithDefaultExceptionThrown()
+    {
+        Function<String, String> f = mock(Function.class);
+        ToLongFunction<String> length = String::length;
+        when(f.apply("Hello")).thenReturn(null);
+        assertThat(Chain.of(f)
+                .and(length)
+                .withDefault(-1L)
+                .applyAsLong("Hello")).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testDoubleFunctionWithDefaultExceptionThrown()
+    {
+        DoubleFunction<String> f = x -> null;
+        ToDoubleFunction<String> parsed = Double::parseDouble;
+        assertThat(Chain.of(f)
+                .and(parsed)
+                .withDefault(1.5)
+                .applyAsDouble(2.0)).isEqualTo(1.5);
+    }
+
+    @Test
+    public void testLongConsumerNullTolerant()
+    {
+        LongFunction<String> f = x -> null;
+        Consumer<String> c = String::length;
+        Chain.of(f)
+                .and(c)
+                .nullTolerant()
+                .accept(5L);
+    }
+
+    @Test
+    public void testIntUnaryOperatorApplyAll()
+    {
+        IntUnaryOperator incremented = x -> x + 1;
+        IntUnaryOperator tripled = x -> x * 3;
+        int[] src = IntStream.range(0, 3000)
+                .toArray();
+        int[] expected = IntStream.range(0, 3000)
+                .map(x -> (x + 1) * 3)
+                .toArray();
+        int[] nested = new int[src.length];
+        Chain.of(incremented)
+                .and(tripled)
+                .applyAll(src, nested);
+        assertThat(nested).isEqualTo(expected);
+        int[] flat = new int[src.length];
+        Chain.flat(incremented)
+                .and(tripled)
+                .applyAll(src, flat);
+        assertThat(flat).isEqualTo(expected);
+    }
+
+    @Test
+    public void testFlatIntUnaryOperatorApplyAllRangeInPlace()
+    {
+        IntUnaryOperator negated = x -> -x;
+        int[] values = { 1, 2, 3, 4, 5 };
+        Chain.flat(negated)
+                .applyAll(values, 1, values, 1, 3);
+        assertThat(values).containsExactly(1, -2, -3, -4, 5);
+    }
+
+    @Test
+    public void testApplyAllOutOfBounds()
+    {
+        IntUnaryOperator negated = x -> -x;
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> Chain.flat(negated)
+                .applyAll(new int[4], new int[3]));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> Chain.of(negated)
+                .applyAll(new int[4], new int[3]));
+    }
+
+    @Test
+    public void testToIntFunctionApplyAll()
+    {
+        ToIntFunction<String> length = String::length;
+        IntUnaryOperator doubled = x -> x * 2;
+        int[] dst = new int[3];
+        Chain.of(length)
+                .and(doubled)
+                .applyAll(new String[] { "a", "bb", "ccc" }, dst);
+        assertThat(dst).containsExactly(2, 4, 6);
+        Chain.of(length)
+                .applyAll(List.of("dddd", "eeeee"), dst);
+        assertThat(dst).containsExactly(4, 5, 6);
+    }
+
+    @Test
+    public void testFunctionApplyAll()
+    {
+        Function<String, Integer> length = String::length;
+        Function<Integer, String> described = x -> "n=" + x;
+        String[] src = IntStream.range(0, 2500)
+                .mapToObj("x"::repeat)
+                .toArray(String[]::new);
+        String[] expected = IntStream.range(0, 2500)
+                .mapToObj(x -> "n=" + x)
+                .toArray(String[]::new);
+        String[] nested = new String[src.length];
+        Chain.of(length)
+                .and(described)
+                .applyAll(src, nested);
+        assertThat(nested).isEqualTo(expected);
+        String[] flat = new String[src.length];
+        Chain.flat(length)
+                .and(described)
+                .applyAll(src, flat);
+        assertThat(flat).isEqualTo(expected);
+        String[] fromList = new String[src.length];
+        Chain.flat(length)
+                .and(described)
+                .applyAll(new LinkedList<>(Arrays.asList(src)), fromList);
+        assertThat(fromList).isEqualTo(expected);
+    }
+
+    @Test
+    public void testParallelApplyAllPreservesOrder()
+    {
+        IntUnaryOperator squared = x -> x * x;
+        IntUnaryOperator incremented = x -> x + 1;
+        int[] src = IntStream.range(0, 100_000)
+                .toArray();
+        int[] expected = IntStream.range(0, 100_000)
+                .map(x -> x * x + 1)
+                .toArray();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            int[] nested = new int[src.length];
+            Chain.of(squared)
+                    .and(incremented)
+                    .parallelApplyAll(src, nested, pool);
+            assertThat(nested).isEqualTo(expected);
+            int[] flat = new int[src.length];
+            Chain.flat(squared)
+                    .and(incremented)
+                    .parallelApplyAll(src, flat, pool);
+            assertThat(flat).isEqualTo(expected);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelApplyAllFunctionAndToIntFunction()
+    {
+        Function<Integer, String> described = x -> "n=" + x;
+        ToIntFunction<String> length = String::length;
+        List<Integer> src = IntStream.range(0, 10_000)
+                .boxed()
+                .toList();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            String[] strings = new String[src.size()];
+            Chain.of(described)
+                    .parallelApplyAll(src, strings, pool);
+            assertThat(strings).containsExactly(src.stream()
+                    .map(x -> "n=" + x)
+                    .toArray(String[]::new));
+            int[] lengths = new int[strings.length];
+            Chain.of(length)
+                    .parallelApplyAll(strings, lengths, pool);
+            assertThat(lengths).containsExactly(src.stream()
+                    .mapToInt(x -> ("n=" + x).length())
+                    .toArray());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private static class LengthChain implements FunctionChain<String, Integer>
+    {
+        @Override
+        public Integer apply(String arg)
+        {
+            return arg.length();
+        }
+
+        @Override
+        public void applyAll(String[] src, int srcPos, Integer[] dst, int dstPos, int length)
+        {
+            FunctionChain.super.applyAll(src, srcPos, dst, dstPos, length);
+        }
+    }
+
+    @Test
+    public void testParallelApplyAllListWithTypedArrayOverride()
+    {
+        List<String> src = IntStream.range(0, 10_000)
+                .mapToObj(x -> "n=" + x)
+                .toList();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            Integer[] lengths = new Integer[src.size()];
+            new LengthChain().parallelApplyAll(src, lengths, pool);
+            assertThat(lengths).containsExactly(src.stream()
+                    .map(String::length)
+                    .toArray(Integer[]::new));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelApplyAllPropagatesExceptions()
+    {
+        IntUnaryOperator failing = x ->
+            {
+                if (x == 5000)
+                    throw new IllegalStateException("Bad value");
+                return x;
+            };
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            int[] src = IntStream.range(0, 10_000)
+                    .toArray();
+            assertThatIllegalStateException().isThrownBy(() -> Chain.of(failing)
+                    .parallelApplyAll(src, new int[10_000], pool))
+                    .withMessageContaining("Bad value");
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+    @Test
+    public void testBiFunctionAndFunctions()
+    {
+        BiFunction<String, Integer, String> repeated = String::repeat;
+        Function<String, String> upper = String::toUpperCase;
+        ToIntFunction<String> length = String::length;
+        IntUnaryOperator doubled = x -> x * 2;
+        IntFunction<String> described = x -> "n=" + x;
+        assertThat(Chain.of(repeated)
+                .and(upper)
+                .apply("ab", 3)).isEqualTo("ABABAB");
+        assertThat(Chain.of(repeated)
+                .and(length)
+                .and(doubled)
+                .and(described)
+                .apply("ab", 3)).isEqualTo("n=12");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testToIntBiFunctionAndConsumer()
+    {
+        ToIntBiFunction<String, String> indexOf = String::indexOf;
+        IntConsumer c = mock(IntConsumer.class);
+        Chain.of(indexOf)
+                .and(c)
+                .accept("Hello", "l");
+        verify(c).accept(2);
+        verifyNoMoreInteractions(c);
+        Consumer<String> printed = mock(Consumer.class);
+        Function<String, String> trimmed = String::trim;
+        BiFunction<String, String, String> concatenated = String::concat;
+        Chain.of(concatenated)
+                .and(trimmed)
+                .and(printed)
+                .accept(" a", "b ");
+        verify(printed).accept("ab");
+    }
+
+    @Test
+    public void testIntBinaryOperatorChain()
+    {
+        IntBinaryOperator added = Integer::sum;
+        IntUnaryOperator negated = x -> -x;
+        int[] dst = new int[3];
+        Chain.of(added)
+                .and(negated)
+                .applyAll(new int[] { 1, 2, 3 }, new int[] { 10, 20, 30 }, dst);
+        assertThat(dst).containsExactly(-11, -22, -33);
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> Chain.of(added)
+                .applyAll(new int[2], new int[1], new int[2]));
+    }
+
+    @Test
+    public void testBiFunctionApplyAll()
+    {
+        BiFunction<String, Integer, Character> charAt = String::charAt;
+        ToIntFunction<Character> code = c -> c;
+        Character[] chars = new Character[2];
+        Chain.of(charAt)
+                .applyAll(new String[] { "abc", "xyz" }, new Integer[] { 1, 2 }, chars);
+        assertThat(chars).containsExactly('b', 'z');
+        int[] codes = new int[2];
+        Chain.of(charAt)
+                .and(code)
+                .applyAll(new String[] { "abc", "xyz" }, new Integer[] { 0, 0 }, codes);
+        assertThat(codes).containsExactly('a', 'x');
+    }
+
+    @Test
+    public void testTwoArgumentWithDefaultExceptionThrown()
+    {
+        BiFunction<String, String, String> missing = (a, b) -> null;
+        ToIntFunction<String> length = String::length;
+        Function<String, String> trimmed = String::trim;
+        Consumer<String> ignored = String::length;
+        IntBinaryOperator divided = (a, b) ->
+            {
+                if (b == 0)
+                    throw new NullPointerException();
+                return a / b;
+            };
+        assertThat(Chain.of(missing)
+                .and(length)
+                .withDefault(-1)
+                .applyAsInt("a", "b")).isEqualTo(-1);
+        assertThat(Chain.of(missing)
+                .and(trimmed)
+                .withDefault("none")
+                .apply("a", "b")).isEqualTo("none");
+        assertThat(Chain.of(divided)
+                .withDefault(0)
+                .applyAsInt(1, 0)).isEqualTo(0);
+        Chain.of(missing)
+                .and(trimmed)
+                .and(ignored)
+                .nullTolerant()
+                .accept("a", "b");
+    }
 }
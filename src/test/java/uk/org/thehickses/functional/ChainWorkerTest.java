@@ -0,0 +1,128 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+class ChainWorkerTest
+{
+    static class Stages implements Supplier<StageRegistry>
+    {
+        @Override
+        public StageRegistry get()
+        {
+            Function<String, Integer> failing = s ->
+                {
+                    throw new IllegalArgumentException("Bad record " + s);
+                };
+            return ChainDescriptorTest.registry()
+                    .function("failing", failing)
+                    .function("printing", s ->
+                        {
+                            System.out.println("Printed " + s);
+                            return s;
+                        })
+                    .function("pid", s -> ProcessHandle.current()
+                            .pid());
+        }
+    }
+
+    private final List<ChainWorker> workers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        for (ChainWorker worker : workers)
+            worker.close();
+    }
+
+    private ChainWorker start(ChainDescriptor descriptor) throws IOException
+    {
+        ChainWorker worker = ChainWorker.start(descriptor, Stages.class);
+        workers.add(worker);
+        return worker;
+    }
+
+    @Test
+    void testIntChainAcrossWorkers() throws Exception
+    {
+        ChainDescriptor descriptor = ChainDescriptor.intOperator("add", 3)
+                .and("negate")
+                .and("multiply", 2);
+        List<ChainWorker> pool = List.of(start(descriptor), start(descriptor), start(descriptor));
+        int[] src = new int[100_001];
+        for (int i = 0; i < src.length; i++)
+            src[i] = i - 50_000;
+        int[] dst = new int[src.length];
+        ChainWorker.parallelApplyAll(pool, src, dst);
+        IntUnaryOperatorChain local = ChainDescriptorTest.registry()
+                .intOperatorChain(descriptor);
+        int[] expected = new int[src.length];
+        local.applyAll(src, expected);
+        assertThat(dst).isEqualTo(expected);
+    }
+
+    @Test
+    void testFunctionChain() throws Exception
+    {
+        ChainWorker worker = start(ChainDescriptor.function("trim")
+                .and("printing")
+                .and("repeat", 2)
+                .and("length"));
+        Object[] dst = new Object[4];
+        worker.applyAll(new Object[] { " a ", "bc", "", "x" }, 1, dst, 0, 3);
+        assertThat(dst).containsExactly(4, 0, 2, null);
+        worker.applyAll(new String[] { "abcd" }, 0, dst, 3, 1);
+        assertThat(dst).containsExactly(4, 0, 2, 8);
+    }
+
+    @Test
+    void testRunsInAnotherProcess() throws Exception
+    {
+        Object[] dst = new Object[1];
+        start(ChainDescriptor.function("pid")).applyAll(new Object[] { "" }, dst);
+        assertThat(dst[0]).isInstanceOf(Long.class)
+                .isNotEqualTo(ProcessHandle.current()
+                        .pid());
+    }
+
+    @Test
+    void testStageFailure() throws Exception
+    {
+        ChainWorker worker = start(ChainDescriptor.function("failing"));
+        Object[] dst = new Object[1];
+        assertThatIllegalStateException().isThrownBy(() -> worker.applyAll(new Object[] { "x" }, dst))
+                .withMessageContaining("Bad record x");
+        // The worker carries on after a failed partition
+        Object[] empty = new Object[0];
+        worker.applyAll(empty, empty);
+    }
+
+    @Test
+    void testWrongKind() throws Exception
+    {
+        ChainWorker worker = start(ChainDescriptor.function("trim"));
+        assertThat(worker.descriptor()).isEqualTo(ChainDescriptor.function("trim"));
+        assertThatIllegalArgumentException().isThrownBy(() -> worker.applyAll(new int[1], new int[1]));
+    }
+
+    @Test
+    void testUnknownStageIsReported() throws Exception
+    {
+        ChainWorker worker = start(ChainDescriptor.function("nonexistent"));
+        assertThatIllegalStateException().isThrownBy(() -> worker.applyAll(new Object[] { "x" }, new Object[1]))
+                .withMessageContaining("Unknown stage: nonexistent");
+        assertThatIllegalStateException().isThrownBy(() -> worker.applyAll(new Object[] { "y" }, new Object[1]))
+                .withMessageContaining("Unable to build chain");
+        assertThatNoException().isThrownBy(worker::close);
+    }
+}
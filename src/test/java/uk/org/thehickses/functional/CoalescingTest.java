@@ -0,0 +1,251 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.RunnableChain;
+
+class CoalescingTest
+{
+    private static final int THREADS = 16;
+    private static final int CALLS = 2_000;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown()
+    {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private void awaitRelease()
+    {
+        try
+        {
+            release.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private List<Future<?>> onAllThreads(Runnable task)
+    {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++)
+            futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+        return futures;
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws InterruptedException, ExecutionException
+    {
+        for (Future<?> future : futures)
+            future.get();
+    }
+
+    @Test
+    void testCoalescingUnderContention() throws Exception
+    {
+        AtomicInteger version = new AtomicInteger();
+        AtomicInteger seen = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        RunnableChain rebuild = Chain.coalescing(() ->
+            {
+                if (running.incrementAndGet() > 1)
+                    overlaps.incrementAndGet();
+                runs.incrementAndGet();
+                seen.set(version.get());
+                Thread.onSpinWait();
+                running.decrementAndGet();
+            });
+        awaitAll(onAllThreads(() ->
+            {
+                for (int i = 0; i < CALLS; i++)
+                {
+                    version.incrementAndGet();
+                    rebuild.run();
+                }
+            }));
+        assertThat(overlaps.get()).isZero();
+        assertThat(runs.get()).isBetween(1, THREADS * CALLS);
+        // Every change was followed by a run that started after it, so the last run saw the last change
+        assertThat(seen.get()).isEqualTo(THREADS * CALLS);
+    }
+
+    @Test
+    void testTriggersDuringRunFoldIntoOneFollowUp() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        RunnableChain task = Chain.coalescing(() ->
+            {
+                if (runs.incrementAndGet() == 1)
+                {
+                    started.countDown();
+                    awaitRelease();
+                }
+            });
+        Future<?> first = executor.submit(task);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 100; i++)
+            task.run();
+        release.countDown();
+        first.get();
+        assertThat(runs.get()).isEqualTo(2);
+        task.run();
+        assertThat(runs.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testFailedRunStillDoesFollowUp() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        RunnableChain task = Chain.coalescing(() ->
+            {
+                if (runs.incrementAndGet() == 1)
+                {
+                    started.countDown();
+                    awaitRelease();
+                    throw new IllegalStateException("Rebuild failed");
+                }
+            });
+        Future<?> first = executor.submit(task);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        task.run();
+        release.countDown();
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(first::get)
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThat(runs.get()).isEqualTo(2);
+        task.run();
+        assertThat(runs.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testSingleFlightSharesResult() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> slow = () ->
+            {
+                awaitRelease();
+                return "Result " + calls.incrementAndGet();
+            };
+        Supplier<String> shared = Chain.of(slow)
+                .singleFlight();
+        List<Future<String>> futures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++)
+            futures.add(executor.submit(() ->
+                {
+                    synchronized (threads)
+                    {
+                        threads.add(Thread.currentThread());
+                    }
+                    return shared.get();
+                }));
+        // Wait until one caller is computing and all the others are waiting for it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline && !allWaiting(threads))
+            Thread.sleep(1);
+        release.countDown();
+        for (Future<String> future : futures)
+            assertThat(future.get()).isEqualTo("Result 1");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(shared.get()).isEqualTo("Result 2");
+    }
+
+    private static boolean allWaiting(List<Thread> threads)
+    {
+        synchronized (threads)
+        {
+            return threads.size() == THREADS && threads.stream()
+                    .allMatch(thread -> thread.getState() == Thread.State.WAITING
+                            || thread.getState() == Thread.State.TIMED_WAITING);
+        }
+    }
+
+    @Test
+    void testSingleFlightSharesFailure() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> failing = () ->
+            {
+                calls.incrementAndGet();
+                started.countDown();
+                awaitRelease();
+                throw new IllegalStateException("Computation failed");
+            };
+        Supplier<String> shared = Chain.of(failing)
+                .singleFlight();
+        Future<String> first = executor.submit(shared::get);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<String> second = executor.submit(shared::get);
+        Thread.sleep(20);
+        release.countDown();
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(first::get)
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(second::get)
+                .withCauseInstanceOf(IllegalStateException.class)
+                .withMessageContaining("Computation failed");
+        assertThat(calls.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void testSingleFlightUnderContention() throws Exception
+    {
+        AtomicInteger computations = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        Supplier<Integer> compute = () ->
+            {
+                if (running.incrementAndGet() > 1)
+                    overlaps.incrementAndGet();
+                int result = computations.incrementAndGet();
+                running.decrementAndGet();
+                return result;
+            };
+        Supplier<Integer> shared = Chain.of(compute)
+                .singleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        awaitAll(onAllThreads(() ->
+            {
+                int last = 0;
+                for (int i = 0; i < CALLS; i++)
+                {
+                    int result = shared.get();
+                    calls.incrementAndGet();
+                    assertThat(result).isGreaterThanOrEqualTo(last);
+                    last = result;
+                }
+            }));
+        assertThat(overlaps.get()).isZero();
+        assertThat(calls.get()).isEqualTo(THREADS * CALLS);
+        assertThat(computations.get()).isBetween(1, THREADS * CALLS);
+    }
+}
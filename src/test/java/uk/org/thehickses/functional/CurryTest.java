@@ -2,6 +2,13 @@ package uk.org.thehickses.functional;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToLongFunction;
+
 import org.junit.jupiter.api.Test;
 
 class CurryTest
@@ -44,4 +51,154 @@ class CurryTest
                 .get()
                 .name()).isEqualTo("Joel Matthew");
     }
+
+    @Test
+    void testCurryIntBinaryOperatorMethodReference()
+    {
+        assertThat(Curry.ofFirst(Integer::sum, 1)
+                .applyAsInt(2)).isEqualTo(3);
+    }
+
+    @Test
+    void testCurryLongBinaryOperator()
+    {
+        assertThat(Curry.ofFirst(Long::sum, 10_000_000_000L)
+                .applyAsLong(2L)).isEqualTo(10_000_000_002L);
+        assertThat(Curry.ofSecond((LongBinaryOperator) (x, y) -> x - y, 3L)
+                .applyAsLong(10L)).isEqualTo(7L);
+        assertThat(Curry.ofBoth(Long::max, 3L, 10L)
+                .getAsLong()).isEqualTo(10L);
+    }
+
+    @Test
+    void testCurryDoubleBinaryOperator()
+    {
+        assertThat(Curry.ofFirst((DoubleBinaryOperator) (x, y) -> x / y, 1.0)
+                .applyAsDouble(4.0)).isEqualTo(0.25);
+        assertThat(Curry.ofSecond((DoubleBinaryOperator) (x, y) -> x / y, 4.0)
+                .applyAsDouble(1.0)).isEqualTo(0.25);
+        assertThat(Curry.ofBoth(Double::sum, 1.5, 2.0)
+                .getAsDouble()).isEqualTo(3.5);
+    }
+
+    @Test
+    void testCurryToLongAndToDoubleFunctions()
+    {
+        assertThat(Curry.of((ToLongFunction<String>) String::length, "Hello")
+                .getAsLong()).isEqualTo(5L);
+        assertThat(Curry.of((DoubleUnaryOperator) Math::sqrt, 16.0)
+                .getAsDouble()).isEqualTo(4.0);
+    }
+
+    @Test
+    void testCurryTriFunction()
+    {
+        TriFunction<String, Integer, Integer, String> substring = String::substring;
+        assertThat(Curry.ofFirst(substring, "Hello world")
+                .apply(6, 9)).isEqualTo("wor");
+        assertThat(Curry.ofSecond(substring, 1)
+                .apply("Hello", 3)).isEqualTo("el");
+        assertThat(Curry.ofThird(substring, 5)
+                .apply("Hello", 2)).isEqualTo("llo");
+        assertThat(Curry.ofAll(substring, "Hello", 0, 4)
+                .get()).isEqualTo("Hell");
+    }
+
+    @Test
+    void testCurryQuadFunction()
+    {
+        QuadFunction<String, String, String, String, String> join = (a, b, c, d) -> a + b + c + d;
+        assertThat(Curry.ofFirst(join, "a")
+                .apply("b", "c", "d")).isEqualTo("abcd");
+        assertThat(Curry.ofSecond(join, "b")
+                .apply("a", "c", "d")).isEqualTo("abcd");
+        assertThat(Curry.ofThird(join, "c")
+                .apply("a", "b", "d")).isEqualTo("abcd");
+        assertThat(Curry.ofFourth(join, "d")
+                .apply("a", "b", "c")).isEqualTo("abcd");
+        assertThat(Curry.ofAll(join, "a", "b", "c", "d")
+                .get()).isEqualTo("abcd");
+    }
+
+    @Test
+    void testCurryPrimitiveTernaryAndQuaternaryOperators()
+    {
+        IntTernaryOperator mulAdd = (x, y, z) -> x * y + z;
+        assertThat(Curry.ofFirst(mulAdd, 2)
+                .applyAsInt(3, 4)).isEqualTo(10);
+        assertThat(Curry.ofSecond(mulAdd, 3)
+                .applyAsInt(2, 4)).isEqualTo(10);
+        assertThat(Curry.ofThird(mulAdd, 4)
+                .applyAsInt(2, 3)).isEqualTo(10);
+        assertThat(Curry.ofAll(mulAdd, 2, 3, 4)
+                .getAsInt()).isEqualTo(10);
+        IntQuaternaryOperator digits = (a, b, c, d) -> a * 1000 + b * 100 + c * 10 + d;
+        assertThat(Curry.ofFirst(digits, 1)
+                .applyAsInt(2, 3, 4)).isEqualTo(1234);
+        assertThat(Curry.ofSecond(digits, 2)
+                .applyAsInt(1, 3, 4)).isEqualTo(1234);
+        assertThat(Curry.ofThird(digits, 3)
+                .applyAsInt(1, 2, 4)).isEqualTo(1234);
+        assertThat(Curry.ofFourth(digits, 4)
+                .applyAsInt(1, 2, 3)).isEqualTo(1234);
+        assertThat(Curry.ofAll(digits, 1, 2, 3, 4)
+                .getAsInt()).isEqualTo(1234);
+        LongTernaryOperator longSum = (x, y, z) -> x + y + z;
+        assertThat(Curry.ofSecond(longSum, 10_000_000_000L)
+                .applyAsLong(1L, 2L)).isEqualTo(10_000_000_003L);
+        DoubleQuaternaryOperator mean = (a, b, c, d) -> (a + b + c + d) / 4;
+        assertThat(Curry.ofFourth(mean, 4.0)
+                .applyAsDouble(1.0, 2.0, 3.0)).isEqualTo(2.5);
+    }
+
+    @Test
+    void testRebindFunction()
+    {
+        Curry.Bound<String, Integer> length = Curry.bind(String::length, "Hello");
+        assertThat(length.get()).isEqualTo(5);
+        assertThat(length.rebind("Hi")).isSameAs(length);
+        assertThat(length.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testRebindBiFunction()
+    {
+        Curry.FirstBound<String, String, Person> first = Curry.bindFirst(Person::new, "Joel");
+        assertThat(first.apply("Matthew")
+                .name()).isEqualTo("Joel Matthew");
+        assertThat(first.rebind("Anna")
+                .apply("Matthew")
+                .name()).isEqualTo("Anna Matthew");
+        Curry.SecondBound<String, String, Person> second = Curry.bindSecond(Person::new, "Matthew");
+        assertThat(second.rebind("Smith")
+                .apply("Joel")
+                .name()).isEqualTo("Joel Smith");
+        Curry.BothBound<String, String, Person> both = Curry.bindBoth(Person::new, "Joel", "Matthew");
+        assertThat(both.get()
+                .name()).isEqualTo("Joel Matthew");
+        assertThat(both.rebind("Anna", "Smith")
+                .get()
+                .name()).isEqualTo("Anna Smith");
+    }
+
+    @Test
+    void testRebindIntOperators()
+    {
+        IntBinaryOperator subtract = (x, y) -> x - y;
+        Curry.IntFirstBound first = Curry.bindFirst(subtract, 10);
+        assertThat(first.applyAsInt(3)).isEqualTo(7);
+        assertThat(first.rebind(20)
+                .applyAsInt(3)).isEqualTo(17);
+        Curry.IntSecondBound second = Curry.bindSecond(subtract, 3);
+        assertThat(second.rebind(5)
+                .applyAsInt(10)).isEqualTo(5);
+        Curry.IntBothBound both = Curry.bindBoth(subtract, 10, 3);
+        assertThat(both.getAsInt()).isEqualTo(7);
+        assertThat(both.rebind(3, 10)
+                .getAsInt()).isEqualTo(-7);
+        IntUnaryOperator negate = x -> -x;
+        Curry.IntBound bound = Curry.bind(negate, 4);
+        assertThat(bound.rebind(9)
+                .getAsInt()).isEqualTo(-9);
+    }
 }
@@ -0,0 +1,276 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HedgingTest
+{
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @AfterEach
+    void tearDown()
+    {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private String firstAttemptSlow(String arg)
+    {
+        if (attempts.incrementAndGet() == 1)
+            awaitRelease();
+        return arg + attempts.get();
+    }
+
+    private void awaitRelease()
+    {
+        try
+        {
+            release.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    void testFastCallIsNotHedged()
+    {
+        HedgeStats stats = new HedgeStats();
+        Function<String, Integer> length = String::length;
+        Function<String, Integer> hedged = Chain.of(length)
+                .hedged(Duration.ofSeconds(10), executor, stats);
+        assertThat(hedged.apply("Hello")).isEqualTo(5);
+        assertThat(stats).hasToString("HedgeStats[calls=1, hedges=0, hedgeWins=0]");
+    }
+
+    @Test
+    void testSlowCallIsHedged()
+    {
+        HedgeStats stats = new HedgeStats();
+        Function<String, String> slow = this::firstAttemptSlow;
+        Function<String, String> hedged = Chain.of(slow)
+                .hedged(Duration.ofMillis(10), executor, stats);
+        assertThat(hedged.apply("Attempt ")).isEqualTo("Attempt 2");
+        assertThat(stats).hasToString("HedgeStats[calls=1, hedges=1, hedgeWins=1]");
+    }
+
+    @Test
+    void testSupplierHedged()
+    {
+        HedgeStats stats = new HedgeStats();
+        Supplier<String> slow = () -> firstAttemptSlow("Attempt ");
+        Supplier<String> hedged = Chain.of(slow)
+                .hedged(Duration.ofMillis(10), executor, stats);
+        assertThat(hedged.get()).isEqualTo("Attempt 2");
+        assertThat(stats.hedgeWins()).isEqualTo(1);
+    }
+
+    @Test
+    void testLosingAttemptIsCancelled() throws Exception
+    {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Function<String, String> slowFirst = arg ->
+            {
+                if (attempts.incrementAndGet() > 1)
+                    return arg;
+                try
+                {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException ex)
+                {
+                    interrupted.countDown();
+                }
+                return "First";
+            };
+        Function<String, String> hedged = Chain.of(slowFirst)
+                .hedged(Duration.ofMillis(10), executor);
+        assertThat(hedged.apply("Second")).isEqualTo("Second");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testRejectedHedgeIsNotCounted()
+    {
+        HedgeStats stats = new HedgeStats();
+        AtomicInteger submitted = new AtomicInteger();
+        Executor firstOnly = task ->
+            {
+                if (submitted.incrementAndGet() > 1)
+                    throw new RejectedExecutionException();
+                executor.execute(task);
+            };
+        Function<String, String> slow = this::firstAttemptSlow;
+        Function<String, String> hedged = Chain.of(slow)
+                .hedged(Duration.ofMillis(10), firstOnly, stats);
+        executor.execute(() ->
+            {
+                try
+                {
+                    Thread.sleep(50);
+                }
+                catch (InterruptedException ex)
+                {
+                }
+                release.countDown();
+            });
+        assertThat(hedged.apply("Attempt ")).isEqualTo("Attempt 1");
+        assertThat(stats).hasToString("HedgeStats[calls=1, hedges=0, hedgeWins=0]");
+    }
+
+    @Test
+    void testHedgeCancelledBeforeStartingIsNotCounted()
+    {
+        HedgeStats stats = new HedgeStats();
+        AtomicInteger submitted = new AtomicInteger();
+        AtomicReference<Runnable> queued = new AtomicReference<>();
+        Executor holdingSecond = task ->
+            {
+                if (submitted.incrementAndGet() > 1)
+                {
+                    // Holds the second attempt back, and lets the first one win meanwhile
+                    queued.set(task);
+                    release.countDown();
+                }
+                else
+                    executor.execute(task);
+            };
+        Function<String, String> slow = this::firstAttemptSlow;
+        Function<String, String> hedged = Chain.of(slow)
+                .hedged(Duration.ofMillis(10), holdingSecond, stats);
+        assertThat(hedged.apply("Attempt ")).isEqualTo("Attempt 1");
+        queued.get()
+                .run();
+        assertThat(attempts).hasValue(1);
+        assertThat(stats).hasToString("HedgeStats[calls=1, hedges=0, hedgeWins=0]");
+    }
+
+    @Test
+    void testFailedFirstAttemptWaitsForHedge()
+    {
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+        Function<String, String> failsFirst = arg ->
+            {
+                if (attempts.incrementAndGet() == 1)
+                {
+                    try
+                    {
+                        hedgeStarted.await(10, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        throw new IllegalStateException(ex);
+                    }
+                    throw new IllegalStateException("First attempt failed");
+                }
+                hedgeStarted.countDown();
+                awaitRelease();
+                return arg;
+            };
+        Function<String, String> hedged = Chain.of(failsFirst)
+                .hedged(Duration.ofMillis(10), executor);
+        executor.execute(() ->
+            {
+                try
+                {
+                    hedgeStarted.await(10, TimeUnit.SECONDS);
+                    Thread.sleep(50);
+                }
+                catch (InterruptedException ex)
+                {
+                }
+                release.countDown();
+            });
+        assertThat(hedged.apply("Hello")).isEqualTo("Hello");
+    }
+
+    @Test
+    void testAllAttemptsFail()
+    {
+        Function<String, Integer> failing = arg ->
+            {
+                attempts.incrementAndGet();
+                throw new IllegalArgumentException("Bad argument");
+            };
+        Function<String, Integer> hedged = Chain.of(failing)
+                .hedged(Duration.ofSeconds(10), executor);
+        assertThatIllegalArgumentException().isThrownBy(() -> hedged.apply("Hello"))
+                .withMessage("Bad argument");
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeadline()
+    {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Function<String, String> slow = arg ->
+            {
+                try
+                {
+                    Thread.sleep(10_000);
+                }
+                catch (InterruptedException ex)
+                {
+                    interrupted.countDown();
+                }
+                return arg;
+            };
+        Function<String, String> deadline = Chain.of(slow)
+                .withDeadline(Duration.ofMillis(20), "Too slow", executor);
+        assertThat(deadline.apply("Hello")).isEqualTo("Too slow");
+        assertThat(await(interrupted)).isTrue();
+    }
+
+    @Test
+    void testDeadlineMet()
+    {
+        Function<String, Integer> length = String::length;
+        Function<String, Integer> deadline = Chain.of(length)
+                .withDeadline(Duration.ofSeconds(10), -1, executor);
+        assertThat(deadline.apply("Hello")).isEqualTo(5);
+        assertThatNullPointerException().isThrownBy(() -> deadline.apply(null));
+        Supplier<String> hello = () -> "Hello";
+        assertThat(Chain.of(hello)
+                .withDeadline(Duration.ofSeconds(10), "Too slow", executor)
+                .get()).isEqualTo("Hello");
+    }
+
+    @Test
+    void testInvalidDelay()
+    {
+        Function<String, Integer> length = String::length;
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.of(length)
+                .hedged(Duration.ZERO, executor));
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.of(length)
+                .withDeadline(Duration.ofMillis(-1), 0, executor));
+    }
+
+    private static boolean await(CountDownLatch latch)
+    {
+        try
+        {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex)
+        {
+            return false;
+        }
+    }
+}
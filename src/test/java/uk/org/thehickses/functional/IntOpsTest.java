@@ -0,0 +1,127 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+import static uk.org.thehickses.functional.IntOps.*;
+
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+class IntOpsTest
+{
+    @Test
+    void testOps()
+    {
+        assertThat(identity().applyAsInt(7)).isEqualTo(7);
+        assertThat(add(3).applyAsInt(7)).isEqualTo(10);
+        assertThat(multiply(3).applyAsInt(7)).isEqualTo(21);
+        assertThat(affine(3, -1).applyAsInt(7)).isEqualTo(20);
+        assertThat(boxed().apply(7)).isEqualTo(7);
+        assertThat(unboxed().applyAsInt(7)).isEqualTo(7);
+        assertThat(add(0)).hasToString("identity");
+        assertThat(multiply(1)).hasToString("identity");
+        assertThat(add(-2)).hasToString("add(-2)");
+        assertThat(multiply(5)).hasToString("multiply(5)");
+        assertThat(affine(5, 2)).hasToString("affine(5, 2)");
+    }
+
+    @Test
+    void testBitwiseAndBoundingOps()
+    {
+        assertThat(shiftLeft(2).applyAsInt(-3)).isEqualTo(-12);
+        assertThat(shiftRight(2).applyAsInt(-12)).isEqualTo(-3);
+        assertThat(unsignedShiftRight(28).applyAsInt(-1)).isEqualTo(15);
+        assertThat(bitAnd(0xff).applyAsInt(0x1234)).isEqualTo(0x34);
+        assertThat(min(10).applyAsInt(20)).isEqualTo(10);
+        assertThat(max(10).applyAsInt(5)).isEqualTo(10);
+        assertThat(clamp(0, 255).applyAsInt(-5)).isZero();
+        assertThat(clamp(0, 255).applyAsInt(300)).isEqualTo(255);
+        assertThat(clamp(0, 255).applyAsInt(100)).isEqualTo(100);
+        assertThat(bitAnd(255)).hasToString("bitAnd(0xff)");
+        assertThat(clamp(-1, 1)).hasToString("clamp(-1, 1)");
+        assertThatIllegalArgumentException().isThrownBy(() -> clamp(1, 0));
+    }
+
+    @Test
+    void testOptimizedFusesAndDropsIdentities()
+    {
+        IntUnaryOperator square = x -> x * x;
+        IntUnaryOperatorChain chain = Chain.flat(identity())
+                .and(add(1))
+                .and(multiply(3))
+                .and(identity())
+                .and(add(-3))
+                .and(square)
+                .and(multiply(2))
+                .and(multiply(1))
+                .and(add(4));
+        assertThat(chain.stages()).hasSize(9);
+        IntUnaryOperatorChain optimized = chain.optimized();
+        assertThat(optimized.stages()).hasSize(3)
+                .containsExactly(multiply(3), square, affine(2, 4));
+        assertThat(optimized.stages()
+                .toString()).startsWith("[multiply(3), ")
+                .endsWith(", affine(2, 4)]");
+        for (int x = -100; x <= 100; x++)
+            assertThat(optimized.applyAsInt(x)).isEqualTo(chain.applyAsInt(x));
+    }
+
+    @Test
+    void testOptimizedToNothing()
+    {
+        IntUnaryOperatorChain chain = Chain.flat(add(5))
+                .and(identity())
+                .and(add(-5))
+                .and(multiply(1));
+        IntUnaryOperatorChain optimized = chain.optimized();
+        assertThat(optimized.stages()).isEmpty();
+        assertThat(optimized.applyAsInt(42)).isEqualTo(42);
+    }
+
+    @Test
+    void testFusionMatchesOnOverflow()
+    {
+        Random random = new Random(1234);
+        for (int n = 0; n < 100; n++)
+        {
+            IntUnaryOperatorChain chain = Chain.flat(affine(random.nextInt(), random.nextInt()));
+            for (int i = 0; i < 10; i++)
+                chain = chain.and(random.nextBoolean() ? add(random.nextInt()) : multiply(random.nextInt()));
+            IntUnaryOperatorChain optimized = chain.optimized();
+            assertThat(optimized.stages()).hasSizeLessThanOrEqualTo(1);
+            for (int i = 0; i < 100; i++)
+            {
+                int x = random.nextInt();
+                assertThat(optimized.applyAsInt(x)).isEqualTo(chain.applyAsInt(x));
+            }
+        }
+    }
+
+    @Test
+    void testBoxingRoundTripRemoved()
+    {
+        IntUnaryOperatorChain prefix = Chain.flat(add(1))
+                .and(multiply(2));
+        IntUnaryOperatorChain roundTrip = prefix.and(boxed())
+                .and(unboxed());
+        assertThat(roundTrip).isSameAs(prefix);
+        assertThat(roundTrip.applyAsInt(3)).isEqualTo(8);
+        assertThat(prefix.and(boxed())
+                .apply(3)).isEqualTo(8);
+    }
+
+    @Test
+    void testNestedChainsAreOpaque()
+    {
+        IntUnaryOperatorChain chain = Chain.of(add(1))
+                .and(identity());
+        assertThat(chain.optimized()).isSameAs(chain);
+        assertThat(chain.stages()).containsExactly(chain);
+        IntUnaryOperatorChain roundTrip = chain.and(boxed())
+                .and(unboxed());
+        assertThat(roundTrip.applyAsInt(3)).isEqualTo(4);
+    }
+}
@@ -0,0 +1,174 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LineProcessorTest
+{
+    @TempDir
+    Path dir;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    private Path write(String content) throws IOException
+    {
+        return Files.writeString(dir.resolve("lines.txt"), content);
+    }
+
+    private Path writeLines(int count) throws IOException
+    {
+        // Line lengths vary so that chunk boundaries fall at different points within lines
+        return write(IntStream.range(0, count)
+                .mapToObj(i -> "line " + i + " " + "x".repeat(i % 37))
+                .collect(Collectors.joining("\n", "", "\n")));
+    }
+
+    @Test
+    void testLines() throws IOException
+    {
+        Path file = write("first\r\nsecond\n\nfourth\r\nlast");
+        List<String> lines = new ArrayList<>();
+        Function<String, String> upper = String::toUpperCase;
+        assertThat(LineProcessor.of(file)
+                .run(Chain.of(upper), lines::add)).isEqualTo(5);
+        assertThat(lines).containsExactly("FIRST", "SECOND", "", "FOURTH", "LAST");
+    }
+
+    @Test
+    void testMatchesReadAllLines() throws IOException
+    {
+        Path file = writeLines(5_000);
+        List<String> lines = new ArrayList<>();
+        assertThat(LineProcessor.of(file)
+                .chunkBytes(100)
+                .run(Function.identity(), lines::add)).isEqualTo(5_000);
+        assertThat(lines).isEqualTo(Files.readAllLines(file));
+    }
+
+    @Test
+    void testLineLongerThanBuffer() throws IOException
+    {
+        String longLine = "y".repeat(1_000);
+        Path file = write("a\n" + longLine + "\nb\n");
+        List<Integer> lengths = new ArrayList<>();
+        Function<String, Integer> length = String::length;
+        LineProcessor.of(file)
+                .chunkBytes(16)
+                .run(length, lengths::add);
+        assertThat(lengths).containsExactly(1, 1_000, 1);
+        lengths.clear();
+        LineProcessor.of(file)
+                .chunkBytes(16)
+                .parallel(pool, true)
+                .run(length, lengths::add);
+        assertThat(lengths).containsExactly(1, 1_000, 1);
+    }
+
+    @Test
+    void testEmptyFile() throws IOException
+    {
+        Path file = write("");
+        Consumer<String> sink = line -> fail("Unexpected line: " + line);
+        assertThat(LineProcessor.of(file)
+                .run(Function.identity(), sink)).isZero();
+        assertThat(LineProcessor.of(file)
+                .parallel(pool, true)
+                .run(Function.identity(), sink)).isZero();
+    }
+
+    @Test
+    void testParallelOrdered() throws IOException
+    {
+        Path file = writeLines(20_000);
+        List<Integer> lengths = new ArrayList<>();
+        Function<String, Integer> length = String::length;
+        assertThat(LineProcessor.of(file)
+                .chunkBytes(1_000)
+                .parallel(pool, true)
+                .run(Chain.of(length), lengths::add)).isEqualTo(20_000);
+        assertThat(lengths).isEqualTo(Files.readAllLines(file)
+                .stream()
+                .map(String::length)
+                .toList());
+    }
+
+    @Test
+    void testParallelUnordered() throws IOException
+    {
+        Path file = writeLines(20_000);
+        Queue<String> lines = new ConcurrentLinkedQueue<>();
+        assertThat(LineProcessor.of(file)
+                .chunkBytes(1_000)
+                .parallel(pool, false)
+                .run(Function.identity(), lines::add)).isEqualTo(20_000);
+        assertThat(lines.stream()
+                .sorted()
+                .toList()).isEqualTo(Files.readAllLines(file)
+                        .stream()
+                        .sorted()
+                        .toList());
+    }
+
+    @Test
+    void testDelimiterAndCharset() throws IOException
+    {
+        Path file = Files.write(dir.resolve("records"), "café|naïve|\r".getBytes(StandardCharsets.ISO_8859_1));
+        List<String> records = new ArrayList<>();
+        assertThat(LineProcessor.of(file)
+                .charset(StandardCharsets.ISO_8859_1)
+                .delimiter('|')
+                .run(Function.identity(), records::add)).isEqualTo(3);
+        assertThat(records).containsExactly("café", "naïve", "\r");
+    }
+
+    @Test
+    void testUnsupportedDelimiter() throws IOException
+    {
+        Path file = write("a\nb\n");
+        assertThatIllegalArgumentException().isThrownBy(() -> LineProcessor.of(file)
+                .delimiter('£'));
+        assertThatIllegalArgumentException().isThrownBy(() -> LineProcessor.of(file)
+                .charset(StandardCharsets.UTF_16)
+                .run(Function.identity(), line -> {}));
+    }
+
+    @Test
+    void testChainFailure() throws IOException
+    {
+        Path file = writeLines(1_000);
+        Function<String, String> failing = line ->
+            {
+                if (line.startsWith("line 500 "))
+                    throw new IllegalStateException("Bad line");
+                return line;
+            };
+        assertThatIllegalStateException().isThrownBy(() -> LineProcessor.of(file)
+                .chunkBytes(500)
+                .parallel(pool, true)
+                .run(failing, line -> {}))
+                .withMessageContaining("Bad line");
+    }
+}
@@ -0,0 +1,170 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+class MappedFilesTest
+{
+    @TempDir
+    Path dir;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    private static Path writeInts(Path file, int count, ByteOrder order, IntUnaryOperator generator)
+            throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20)
+                .order(order);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+        {
+            for (int i = 0; i < count; i++)
+            {
+                buffer.putInt(generator.applyAsInt(i));
+                if (!buffer.hasRemaining() || i == count - 1)
+                {
+                    buffer.flip();
+                    while (buffer.hasRemaining())
+                        out.write(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void testTransformAcrossChunks() throws IOException
+    {
+        IntUnaryOperator square = x -> x * x;
+        IntUnaryOperatorChain chain = Chain.flat(IntOps.add(1))
+                .and(square);
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN })
+        {
+            Path input = writeInts(dir.resolve("in-" + order), 10_001, order, i -> i - 5000);
+            Path output = dir.resolve("out-" + order);
+            assertThat(MappedFiles.transform(input, output, chain, order, pool, 4_000)).isEqualTo(10_001);
+            ByteBuffer result = ByteBuffer.wrap(Files.readAllBytes(output))
+                    .order(order);
+            assertThat(result.remaining()).isEqualTo(40_004);
+            for (int i = 0; i < 10_001; i++)
+                assertThat(result.getInt()).isEqualTo((i - 4999) * (i - 4999));
+        }
+    }
+
+    @Test
+    void testTransformReplacesOutput() throws IOException
+    {
+        Path input = writeInts(dir.resolve("in"), 3, ByteOrder.BIG_ENDIAN, i -> i);
+        Path output = dir.resolve("out");
+        Files.write(output, new byte[100]);
+        MappedFiles.transform(input, output, Chain.of(IntOps.add(1)), ByteOrder.BIG_ENDIAN, pool);
+        assertThat(Files.readAllBytes(output)).containsExactly(0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 0, 3);
+    }
+
+    @Test
+    void testEmptyFile() throws IOException
+    {
+        Path input = Files.createFile(dir.resolve("in"));
+        Path output = dir.resolve("out");
+        assertThat(MappedFiles.transform(input, output, Chain.of(IntOps.add(1)), ByteOrder.BIG_ENDIAN, pool))
+                .isZero();
+        assertThat(output).isEmptyFile();
+    }
+
+    @Test
+    void testPartialInt() throws IOException
+    {
+        Path input = Files.write(dir.resolve("in"), new byte[6]);
+        assertThatIllegalArgumentException().isThrownBy(() -> MappedFiles.transform(input, dir.resolve("out"),
+                Chain.of(IntOps.add(1)), ByteOrder.BIG_ENDIAN, pool));
+    }
+
+    @Test
+    void testTransformRecords() throws IOException
+    {
+        // 10-byte records: int id, short x, short y, short padding
+        int count = 5_003;
+        ByteBuffer records = ByteBuffer.allocate(count * 10)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i++)
+            records.putInt(i)
+                    .putShort((short) (i % 100))
+                    .putShort((short) -(i % 7))
+                    .putShort((short) 0);
+        Path input = Files.write(dir.resolve("records"), records.array());
+        Path output = dir.resolve("out");
+        ToIntFunction<ByteBuffer> sum = b -> b.getInt(b.position()) + b.getShort(b.position() + 4)
+                + b.getShort(b.position() + 6);
+        assertThat(MappedFiles.transformRecords(input, 10, output, Chain.of(sum)
+                .and(IntOps.multiply(2)), ByteOrder.LITTLE_ENDIAN, pool, 1_000)).isEqualTo(count);
+        ByteBuffer result = ByteBuffer.wrap(Files.readAllBytes(output))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(result.remaining()).isEqualTo(count * 4);
+        for (int i = 0; i < count; i++)
+            assertThat(result.getInt()).isEqualTo(2 * (i + i % 100 - i % 7));
+    }
+
+    @Test
+    void testPartialRecord() throws IOException
+    {
+        Path input = Files.write(dir.resolve("in"), new byte[25]);
+        ToIntFunction<ByteBuffer> first = b -> b.get(b.position());
+        assertThatIllegalArgumentException().isThrownBy(() -> MappedFiles.transformRecords(input, 10,
+                dir.resolve("out"), Chain.of(first), ByteOrder.BIG_ENDIAN, pool));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "largeFileTests", matches = "true")
+    void testTransformLargerThanHeap() throws IOException
+    {
+        int count = 750_000_000;
+        long bytes = (long) count * Integer.BYTES;
+        assumeTrue(Files.getFileStore(dir)
+                .getUsableSpace() > 3 * bytes, "Not enough disk space");
+        Path input = writeInts(dir.resolve("in"), count, ByteOrder.nativeOrder(), i -> i);
+        Path output = dir.resolve("out");
+        IntUnaryOperatorChain chain = Chain.flat(IntOps.multiply(3))
+                .and(IntOps.add(7));
+        assertThat(MappedFiles.transform(input, output, chain, ByteOrder.nativeOrder(), pool)).isEqualTo(count);
+        try (FileChannel result = FileChannel.open(output, StandardOpenOption.READ))
+        {
+            assertThat(result.size()).isEqualTo(bytes);
+            for (long offset = 0; offset < bytes; offset += 1L << 30)
+            {
+                IntBuffer ints = result.map(MapMode.READ_ONLY, offset, Math.min(1L << 30, bytes - offset))
+                        .order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+                int first = (int) (offset / Integer.BYTES);
+                for (int i = 0; i < ints.limit(); i++)
+                    if (ints.get(i) != (first + i) * 3 + 7)
+                        fail("Wrong value at int %d", first + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class MemoizerTest
+{
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testMemoizedComputesOnce()
+    {
+        Supplier<String> s = mock(Supplier.class);
+        Function<String, Integer> length = String::length;
+        when(s.get()).thenReturn("Hello");
+        Supplier<Integer> memoized = Chain.of(s)
+                .and(length)
+                .memoized();
+        assertThat(memoized.get()).isEqualTo(5);
+        assertThat(memoized.get()).isEqualTo(5);
+        verify(s).get();
+        verifyNoMoreInteractions(s);
+    }
+
+    @Test
+    void testIntMemoizedComputesOnce()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        IntSupplier s = calls::incrementAndGet;
+        IntSupplier memoized = Chain.of(s)
+                .memoized();
+        assertThat(memoized.getAsInt()).isEqualTo(1);
+        assertThat(memoized.getAsInt()).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testMemoizedComputesOnceUnderContention() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> s = () ->
+            {
+                sleep(50);
+                return calls.incrementAndGet();
+            };
+        Supplier<Integer> memoized = Chain.of(s)
+                .memoized();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+                results.add(executor.submit(() ->
+                    {
+                        start.await();
+                        return memoized.get();
+                    }));
+            start.countDown();
+            for (Future<Integer> result : results)
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(calls.get()).isEqualTo(1);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRefreshAheadReturnsCurrentValueWhileRefreshing()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> memoized = timed(calls::incrementAndGet);
+        assertThat(memoized.get()).isEqualTo(1);
+        clock.set(Duration.ofSeconds(7)
+                .toNanos());
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(scheduled).isEmpty();
+        clock.set(Duration.ofSeconds(8)
+                .toNanos());
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(scheduled).hasSize(1);
+        scheduled.remove(0)
+                .run();
+        assertThat(memoized.get()).isEqualTo(2);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testExpiredValueIsRecomputed()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> memoized = timed(calls::incrementAndGet);
+        assertThat(memoized.get()).isEqualTo(1);
+        clock.set(Duration.ofSeconds(10)
+                .toNanos());
+        assertThat(memoized.get()).isEqualTo(2);
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    void testFailedRefreshKeepsCurrentValue()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> memoized = timed(() ->
+            {
+                if (calls.incrementAndGet() == 2)
+                    throw new IllegalStateException();
+                return calls.get();
+            });
+        assertThat(memoized.get()).isEqualTo(1);
+        clock.set(Duration.ofSeconds(9)
+                .toNanos());
+        assertThat(memoized.get()).isEqualTo(1);
+        scheduled.remove(0)
+                .run();
+        for (int i = 0; i < 10; i++)
+            assertThat(memoized.get()).isEqualTo(1);
+        assertThat(scheduled).isEmpty();
+        clock.set(Duration.ofMillis(9499)
+                .toNanos());
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(scheduled).isEmpty();
+        clock.set(Duration.ofMillis(9500)
+                .toNanos());
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(scheduled).hasSize(1);
+        scheduled.remove(0)
+                .run();
+        assertThat(memoized.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testInvalidDurations()
+    {
+        Supplier<String> s = () -> "Hello";
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.of(s)
+                .memoized(Duration.ZERO, Duration.ZERO, Runnable::run));
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.of(s)
+                .memoized(Duration.ofSeconds(1), Duration.ofSeconds(1), Runnable::run));
+    }
+
+    private Supplier<Integer> timed(Supplier<Integer> func)
+    {
+        return new Memoizer<>(func, Duration.ofSeconds(10), Duration.ofSeconds(2), scheduled::add, clock::get);
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+}
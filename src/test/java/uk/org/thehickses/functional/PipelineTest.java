@@ -0,0 +1,227 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class PipelineTest
+{
+    @Test
+    void testItemsPassThroughInOrder() throws Exception
+    {
+        Function<Integer, String> described = i -> i == null ? null : "Item " + i;
+        Function<String, Integer> length = s -> s == null ? -1 : s.length();
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        Consumer<Integer> collector = results::add;
+        Pipeline<Integer> pipeline = Pipeline.of(described)
+                .and(length)
+                .and(collector)
+                .start(4);
+        for (int i = 0; i < 1000; i++)
+            pipeline.submit(i % 100 == 0 ? null : i);
+        pipeline.close();
+        assertThat(results).hasSize(1000);
+        for (int i = 0; i < 1000; i++)
+            assertThat(results.get(i)).isEqualTo(i % 100 == 0 ? -1 : ("Item " + i).length());
+        assertThat(pipeline.queueDepths()).containsExactly(0, 0, 0);
+        assertThat(pipeline.failures()).isZero();
+    }
+
+    @Test
+    void testStagesRunConcurrently() throws Exception
+    {
+        CountDownLatch laterStageBusy = new CountDownLatch(1);
+        List<Boolean> overlapped = new CopyOnWriteArrayList<>();
+        Function<Integer, Integer> first = i ->
+            {
+                if (i == 2)
+                    overlapped.add(await(laterStageBusy));
+                return i;
+            };
+        Consumer<Integer> second = i ->
+            {
+                if (i == 1)
+                    laterStageBusy.countDown();
+            };
+        Pipeline<Integer> pipeline = Pipeline.of(first)
+                .and(second)
+                .start(1);
+        for (int i = 0; i < 3; i++)
+            pipeline.submit(i);
+        pipeline.close();
+        assertThat(overlapped).containsExactly(true);
+    }
+
+    @Test
+    void testFailedItemsAreDropped() throws Exception
+    {
+        Function<Integer, Integer> inverse = i -> 100 / i;
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        Consumer<Integer> collector = results::add;
+        Pipeline<Integer> pipeline = Pipeline.of(inverse)
+                .and(collector)
+                .start(2);
+        for (int i : new int[] { 1, 0, 2, 0, 4 })
+            pipeline.submit(i);
+        pipeline.close();
+        assertThat(results).containsExactly(100, 50, 25);
+        assertThat(pipeline.failures()).isEqualTo(2);
+    }
+
+    @Test
+    @Timeout(10)
+    void testErrorStopsTheWorkerButNotThePipeline() throws Exception
+    {
+        Function<Integer, Integer> failing = i ->
+            {
+                if (i == 2)
+                    throw new AssertionError("Bad item");
+                return i;
+            };
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        Consumer<Integer> collector = results::add;
+        Pipeline<Integer> pipeline = Pipeline.of(failing)
+                .and(collector)
+                .start(1);
+        for (int i = 1; i <= 3; i++)
+            pipeline.submit(i);
+        pipeline.close();
+        assertThat(results).containsExactly(1);
+        assertThat(pipeline.failures()).isEqualTo(2);
+    }
+
+    @Test
+    @Timeout(10)
+    void testInterruptedWorkerDoesNotBlockTheRest() throws Exception
+    {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        Function<Integer, Integer> identity = i -> i;
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        Consumer<Integer> collector = results::add;
+        Pipeline<Integer> pipeline = Pipeline.of(identity)
+                .and(collector)
+                .start(1, task ->
+                    {
+                        Thread thread = new Thread(task);
+                        thread.setDaemon(true);
+                        threads.add(thread);
+                        return thread;
+                    });
+        threads.get(1)
+                .interrupt();
+        for (int i = 0; i < 20; i++)
+            pipeline.submit(i);
+        pipeline.close();
+        assertThat(results.size() + pipeline.failures()).isEqualTo(20);
+        assertThat(threads).noneMatch(Thread::isAlive);
+    }
+
+    @Test
+    void testBackpressure() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Consumer<Integer> slow = i ->
+            {
+                started.countDown();
+                await(release);
+            };
+        Pipeline<Integer> pipeline = Pipeline.of(slow)
+                .start(2);
+        pipeline.submit(1);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.submit(2);
+        pipeline.submit(3);
+        assertThat(pipeline.queueDepths()).containsExactly(2);
+        Thread blocked = new Thread(() ->
+            {
+                try
+                {
+                    pipeline.submit(4);
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread()
+                            .interrupt();
+                }
+            });
+        blocked.start();
+        blocked.join(200);
+        assertThat(blocked.isAlive()).isTrue();
+        release.countDown();
+        blocked.join(5000);
+        assertThat(blocked.isAlive()).isFalse();
+        pipeline.close();
+        assertThat(pipeline.queueDepths()).containsExactly(0);
+    }
+
+    @Test
+    @Timeout(10)
+    void testInterruptedCloseStillShutsDown() throws Exception
+    {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        Consumer<Integer> collector = results::add;
+        Pipeline<Integer> pipeline = Pipeline.of(collector)
+                .start(1, task ->
+                    {
+                        Thread thread = new Thread(task);
+                        thread.setDaemon(true);
+                        threads.add(thread);
+                        return thread;
+                    });
+        for (int i = 0; i < 5; i++)
+            pipeline.submit(i);
+        Thread.currentThread()
+                .interrupt();
+        pipeline.close();
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(results).containsExactly(0, 1, 2, 3, 4);
+        assertThat(threads).noneMatch(Thread::isAlive);
+    }
+
+    @Test
+    void testSubmitAfterClose() throws Exception
+    {
+        Consumer<String> ignored = s ->
+            {
+            };
+        Pipeline<String> pipeline = Pipeline.of(ignored)
+                .start(1);
+        pipeline.close();
+        pipeline.close();
+        assertThatIllegalStateException().isThrownBy(() -> pipeline.submit("Hello"));
+    }
+
+    @Test
+    void testInvalidCapacity()
+    {
+        Consumer<String> ignored = s ->
+            {
+            };
+        assertThatIllegalArgumentException().isThrownBy(() -> Pipeline.of(ignored)
+                .start(0));
+    }
+
+    private static boolean await(CountDownLatch latch)
+    {
+        try
+        {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread()
+                    .interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest
+{
+    @SuppressWarnings("unchecked")
+    @Test
+    void testFunctionCached()
+    {
+        Function<String, Integer> f = mock(Function.class);
+        when(f.apply("Hello")).thenReturn(5);
+        CacheStats stats = new CacheStats();
+        Function<String, Integer> cached = Chain.of(f)
+                .cached(16, stats);
+        assertThat(cached.apply("Hello")).isEqualTo(5);
+        assertThat(cached.apply("Hello")).isEqualTo(5);
+        verify(f).apply("Hello");
+        verifyNoMoreInteractions(f);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.evictions()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testNullArgumentAndResultCached()
+    {
+        Function<String, String> f = mock(Function.class);
+        Function<String, String> cached = Chain.of(f)
+                .cached(16);
+        assertThat(cached.apply(null)).isNull();
+        assertThat(cached.apply(null)).isNull();
+        verify(f).apply(null);
+        verifyNoMoreInteractions(f);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvicted()
+    {
+        List<Integer> computed = new ArrayList<>();
+        IntFunction<String> f = x ->
+            {
+                computed.add(x);
+                return "v" + x;
+            };
+        CacheStats stats = new CacheStats();
+        IntFunction<String> cached = Chain.of(f)
+                .cached(4, stats);
+        for (int i = 1; i <= 4; i++)
+            cached.apply(i);
+        cached.apply(1);
+        assertThat(cached.apply(5)).isEqualTo("v5");
+        assertThat(stats.evictions()).isEqualTo(1);
+        computed.clear();
+        cached.apply(1);
+        cached.apply(3);
+        cached.apply(4);
+        cached.apply(5);
+        assertThat(computed).isEmpty();
+        assertThat(cached.apply(2)).isEqualTo("v2");
+        assertThat(computed).containsExactly(2);
+    }
+
+    @Test
+    void testSizeIsBounded()
+    {
+        IntFunction<Integer> f = x -> x;
+        CacheStats stats = new CacheStats();
+        IntFunction<Integer> cached = Chain.of(f)
+                .cached(100, stats);
+        for (int i = 0; i < 1000; i++)
+            cached.apply(i);
+        assertThat(stats.misses() - stats.evictions()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void testCapacityIsNotRoundedDownToAPowerOfTwo()
+    {
+        IntFunction<Integer> f = x -> x;
+        assertThat(((ResultCache) ResultCache.cache(f, 1000, new CacheStats())).capacity()).isEqualTo(1000);
+        assertThat(((ResultCache) ResultCache.cache(f, 1003, new CacheStats())).capacity()).isEqualTo(1000);
+        assertThat(((ResultCache) ResultCache.cache(f, 3, new CacheStats())).capacity()).isEqualTo(3);
+        CacheStats stats = new CacheStats();
+        IntFunction<Integer> cached = Chain.of(f)
+                .cached(1000, stats);
+        for (int i = 0; i < 10_000; i++)
+            cached.apply(i);
+        assertThat(stats.misses() - stats.evictions()).isGreaterThan(512)
+                .isLessThanOrEqualTo(1000);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testToIntFunctionCached()
+    {
+        ToIntFunction<String> f = mock(ToIntFunction.class);
+        when(f.applyAsInt("Hello")).thenReturn(5);
+        ToIntFunction<String> cached = Chain.of(f)
+                .cached(8);
+        assertThat(cached.applyAsInt("Hello")).isEqualTo(5);
+        assertThat(cached.applyAsInt("Hello")).isEqualTo(5);
+        verify(f).applyAsInt("Hello");
+        verifyNoMoreInteractions(f);
+    }
+
+    @Test
+    void testInvalidSize()
+    {
+        Function<String, String> f = Function.identity();
+        assertThatIllegalArgumentException().isThrownBy(() -> Chain.of(f)
+                .cached(0));
+    }
+
+    @Test
+    void testConcurrentCallsReturnCorrectResults() throws Exception
+    {
+        Function<Integer, String> f = String::valueOf;
+        CacheStats stats = new CacheStats();
+        Function<Integer, String> cached = Chain.of(f)
+                .cached(64, stats);
+        int threads = 8;
+        int calls = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+                results.add(executor.submit(() ->
+                    {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < calls; i++)
+                        {
+                            int key = random.nextInt(random.nextBoolean() ? 16 : 1000);
+                            if (!cached.apply(key)
+                                    .equals(String.valueOf(key)))
+                                return false;
+                        }
+                        return true;
+                    }));
+            for (Future<Boolean> result : results)
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        assertThat(stats.hits() + stats.misses()).isEqualTo((long) threads * calls);
+        assertThat(stats.hits()).isPositive();
+    }
+}
@@ -0,0 +1,201 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.ResultChain.ResultFunction;
+import uk.org.thehickses.functional.ResultChain.ResultFunctionChain;
+import uk.org.thehickses.functional.ResultChain.ResultIntUnaryOperator;
+import uk.org.thehickses.functional.ResultChain.ResultToIntFunction;
+
+class ResultChainTest
+{
+    private static final String NOT_A_NUMBER = "Not a number";
+
+    private static final ResultToIntFunction<String> PARSE = (str, failure) ->
+        {
+            try
+            {
+                return Integer.parseInt(str);
+            }
+            catch (NumberFormatException ex)
+            {
+                return failure.failAsInt(NOT_A_NUMBER);
+            }
+        };
+
+    private static final ResultFunction<String, Integer> PARSE_BOXED = (str, failure) ->
+        {
+            int value = PARSE.applyAsInt(str, failure);
+            return failure.failed() ? null : value;
+        };
+
+    @Test
+    void testSuccess()
+    {
+        Function<Integer, Integer> doubled = i -> i * 2;
+        Function<Integer, String> str = String::valueOf;
+        Function<String, String> func = ResultChain.of(PARSE_BOXED)
+                .and(doubled)
+                .and(str)
+                .withDefault("none");
+        assertThat(func.apply("21")).isEqualTo("42");
+    }
+
+    @Test
+    void testFailureSkipsRemainingStages()
+    {
+        AtomicInteger later = new AtomicInteger();
+        Function<Integer, Integer> f = i ->
+            {
+                later.incrementAndGet();
+                return i + 1;
+            };
+        ResultFunction<Integer, Integer> rf = (i, failure) ->
+            {
+                later.incrementAndGet();
+                return i;
+            };
+        Function<String, Integer> func = ResultChain.of(PARSE_BOXED)
+                .and(f)
+                .and(rf)
+                .withDefault(-1);
+        assertThat(func.apply("x")).isEqualTo(-1);
+        assertThat(later.get()).isZero();
+        assertThat(func.apply("1")).isEqualTo(2);
+        assertThat(later.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testFailureInLaterStage()
+    {
+        ResultFunction<Integer, Integer> nonNegative = (i, failure) -> i < 0 ? failure.fail("Negative") : i;
+        Function<Integer, String> str = String::valueOf;
+        Function<String, String> func = ResultChain.of(PARSE_BOXED)
+                .and(nonNegative)
+                .and(str)
+                .recover(failure -> "Failed: " + failure.reason());
+        assertThat(func.apply("-5")).isEqualTo("Failed: Negative");
+        assertThat(func.apply("x")).isEqualTo("Failed: " + NOT_A_NUMBER);
+        assertThat(func.apply("5")).isEqualTo("5");
+    }
+
+    @Test
+    void testRecoverSeesFailure()
+    {
+        ResultFunction<String, Object> parse = PARSE_BOXED::apply;
+        Function<String, Object> func = ResultChain.of(parse)
+                .recover(failure ->
+                    {
+                        assertThat(failure.failed()).isTrue();
+                        assertThat(failure).hasToString("Failure[" + NOT_A_NUMBER + "]");
+                        return failure.reason();
+                    });
+        assertThat(func.apply("abc")).isSameAs(NOT_A_NUMBER);
+    }
+
+    @Test
+    void testIntChain()
+    {
+        IntUnaryOperator tenTimes = i -> i * 10;
+        ResultIntUnaryOperator notTooBig = (i, failure) -> i > 100 ? failure.failAsInt("Too big") : i;
+        ToIntFunction<String> func = ResultChain.of(PARSE)
+                .and(tenTimes)
+                .and(notTooBig)
+                .recover(failure -> failure.reason()
+                        .equals("Too big") ? 100 : -1);
+        assertThat(func.applyAsInt("7")).isEqualTo(70);
+        assertThat(func.applyAsInt("70")).isEqualTo(100);
+        assertThat(func.applyAsInt("seven")).isEqualTo(-1);
+    }
+
+    @Test
+    void testObjectToIntChain()
+    {
+        ToIntFunction<Integer> unbox = Integer::intValue;
+        IntUnaryOperator increment = i -> i + 1;
+        ToIntFunction<String> func = ResultChain.of(PARSE_BOXED)
+                .and(unbox)
+                .and(increment)
+                .withDefault(0);
+        assertThat(func.applyAsInt("41")).isEqualTo(42);
+        assertThat(func.applyAsInt("")).isEqualTo(0);
+    }
+
+    @Test
+    void testIntUnaryOperatorChain()
+    {
+        ResultIntUnaryOperator nonZero = (i, failure) -> i == 0 ? failure.failAsInt("Zero") : i;
+        IntUnaryOperator divide = i -> 100 / i;
+        IntUnaryOperator func = ResultChain.of(nonZero)
+                .and(divide)
+                .withDefault(Integer.MAX_VALUE);
+        assertThat(func.applyAsInt(4)).isEqualTo(25);
+        assertThat(func.applyAsInt(0)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testReuseAfterFailure()
+    {
+        ToIntFunction<String> func = ResultChain.of(PARSE)
+                .withDefault(-1);
+        assertThat(func.applyAsInt("x")).isEqualTo(-1);
+        assertThat(func.applyAsInt("3")).isEqualTo(3);
+        assertThat(func.applyAsInt("y")).isEqualTo(-1);
+        assertThat(func.applyAsInt("4")).isEqualTo(4);
+    }
+
+    @Test
+    void testNestedChainHasItsOwnFailure()
+    {
+        ToIntFunction<String> inner = ResultChain.of(PARSE)
+                .withDefault(0);
+        ResultFunction<String, Integer> usesInner = (str, failure) ->
+            {
+                // The inner chain fails, but that must not fail the outer one
+                int value = inner.applyAsInt("not " + str);
+                return failure.failed() ? null : value + str.length();
+            };
+        Function<String, Integer> outer = ResultChain.of(usesInner)
+                .withDefault(-1);
+        assertThat(outer.apply("abc")).isEqualTo(3);
+        assertThat(inner.applyAsInt("5")).isEqualTo(5);
+    }
+
+    @Test
+    void testExplicitFailureChannel()
+    {
+        Function<Integer, Integer> increment = i -> i + 1;
+        ResultFunctionChain<String, Integer> chain = ResultChain.of(PARSE_BOXED)
+                .and(increment);
+        Failure failure = new Failure();
+        assertThat(chain.apply("1", failure)).isEqualTo(2);
+        assertThat(failure.failed()).isFalse();
+        assertThat(failure).hasToString("Failure[none]");
+        assertThat(chain.apply("one", failure)).isNull();
+        assertThat(failure.failed()).isTrue();
+        assertThat(failure.reason()).isEqualTo(NOT_A_NUMBER);
+        failure.reset();
+        assertThat(failure.failed()).isFalse();
+        assertThat(failure.reason()).isNull();
+    }
+
+    @Test
+    void testRecoveryThrowingReleasesFailure()
+    {
+        ToIntFunction<String> func = ResultChain.of(PARSE)
+                .recover(failure ->
+                    {
+                        throw new IllegalArgumentException(String.valueOf(failure.reason()));
+                    });
+        assertThatIllegalArgumentException().isThrownBy(() -> func.applyAsInt("x"))
+                .withMessage(NOT_A_NUMBER);
+        assertThat(func.applyAsInt("8")).isEqualTo(8);
+    }
+}
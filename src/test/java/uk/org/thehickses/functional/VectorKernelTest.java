@@ -0,0 +1,81 @@
+package uk.org.thehickses.functional;
+
+import static org.assertj.core.api.Assertions.*;
+import static uk.org.thehickses.functional.IntOps.*;
+
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import uk.org.thehickses.functional.Chain.IntUnaryOperatorChain;
+
+class VectorKernelTest
+{
+    private final Random random = new Random(4321);
+
+    private IntUnaryOperator randomOp()
+    {
+        return switch (random.nextInt(9))
+        {
+            case 0 -> add(random.nextInt());
+            case 1 -> multiply(random.nextInt());
+            case 2 -> affine(random.nextInt(), random.nextInt());
+            case 3 -> shiftLeft(random.nextInt(40));
+            case 4 -> shiftRight(random.nextInt(40));
+            case 5 -> unsignedShiftRight(random.nextInt(40));
+            case 6 -> bitAnd(random.nextInt());
+            case 7 -> random.nextBoolean() ? min(random.nextInt()) : max(random.nextInt());
+            default ->
+                {
+                    int a = random.nextInt();
+                    int b = random.nextInt();
+                    yield clamp(Math.min(a, b), Math.max(a, b));
+                }
+        };
+    }
+
+    @Test
+    void testVectorModuleIsUsed()
+    {
+        assertThat(FlatChain.VectorSupport.PRESENT).isTrue();
+    }
+
+    @Test
+    void testResultsMatchScalar()
+    {
+        for (int n = 0; n < 200; n++)
+        {
+            IntUnaryOperatorChain chain = Chain.flat(randomOp());
+            for (int i = random.nextInt(8); i > 0; i--)
+                chain = chain.and(randomOp());
+            checkApplyAll(chain, random.nextInt(3000));
+        }
+    }
+
+    @Test
+    void testMixedWithScalarStages()
+    {
+        IntUnaryOperator opaque = x -> x ^ (x >>> 7);
+        IntUnaryOperatorChain chain = Chain.flat(add(3))
+                .and(opaque)
+                .and(clamp(-1000, 1000))
+                .and(opaque)
+                .and(shiftLeft(2));
+        for (int length : new int[] { 0, 1, 7, 8, 15, 16, 17, 1023, 1024, 1025, 5000 })
+            checkApplyAll(chain, length);
+    }
+
+    private void checkApplyAll(IntUnaryOperatorChain chain, int length)
+    {
+        int offset = random.nextInt(5);
+        int[] src = new int[length + offset];
+        for (int i = 0; i < src.length; i++)
+            src[i] = random.nextInt();
+        int[] dst = new int[length + 3];
+        chain.applyAll(src, offset, dst, 3, length);
+        for (int i = 0; i < length; i++)
+            assertThat(dst[i + 3]).as("%s at %d", chain.stages(), i)
+                    .isEqualTo(chain.applyAsInt(src[i + offset]));
+    }
+}